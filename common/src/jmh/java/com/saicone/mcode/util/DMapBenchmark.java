@@ -0,0 +1,99 @@
+package com.saicone.mcode.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DMapBenchmark {
+
+    private static final String HIT = "(?i)sounds?";
+    private static final String MISS = "(?i)volume";
+    private static final Pattern HIT_PATTERN = Pattern.compile(HIT);
+    private static final Pattern MISS_PATTERN = Pattern.compile(MISS);
+    private static final DMap.Path DEEP = DMap.Path.of("messages.player.join.text");
+
+    // Size of a display section and of a whole messages directory
+    @Param({"8", "5000"})
+    public int size;
+
+    private DMap map;
+    private DMap copy;
+
+    @Setup
+    public void setup() {
+        final Map<String, Object> entries = new LinkedHashMap<>();
+        for (int i = 0; i < size - 2; i++) {
+            entries.put("Key-" + i, i);
+        }
+        entries.put("Sound", "entity.player.levelup");
+        entries.put("messages", Map.of("player", Map.of("join", Map.of("text", "Welcome"))));
+        map = new DMap(entries);
+        copy = DMap.copyOf(entries);
+    }
+
+    @Benchmark
+    public Object getRegexHit() {
+        return map.getRegex(HIT);
+    }
+
+    @Benchmark
+    public Object getRegexMiss() {
+        return map.getRegex(MISS);
+    }
+
+    @Benchmark
+    public Object getIgnoreCaseHit() {
+        return map.getIgnoreCase("SOUND");
+    }
+
+    @Benchmark
+    public Object getIgnoreCaseMiss() {
+        return map.getIgnoreCase("VOLUME");
+    }
+
+    @Benchmark
+    public Object getDeepIndexed() {
+        return copy.getDeep(DEEP);
+    }
+
+    @Benchmark
+    public Object getDeepWalk() {
+        return map.getDeep(DEEP);
+    }
+
+    // Linear scans, the lookups before the key index
+
+    @Benchmark
+    public Object previousRegexHit() {
+        return map.getRegex(HIT_PATTERN);
+    }
+
+    @Benchmark
+    public Object previousRegexMiss() {
+        return map.getRegex(MISS_PATTERN);
+    }
+
+    @Benchmark
+    public Object previousIgnoreCaseMiss() {
+        return map.getIf(key -> key.equalsIgnoreCase("VOLUME"));
+    }
+}
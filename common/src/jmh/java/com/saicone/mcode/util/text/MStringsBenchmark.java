@@ -0,0 +1,70 @@
+package com.saicone.mcode.util.text;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MStringsBenchmark {
+
+    // 64 chars with legacy and hex colors
+    private final String line = "&6&lWelcome &rto the &#55FF55server&7, have fun and be nice :)!!";
+
+    @Benchmark
+    public String centerText() {
+        return MStrings.centerText(line, 400);
+    }
+
+    @Benchmark
+    public int measure() {
+        return MStrings.measure(line, 0, line.length(), false);
+    }
+
+    @Benchmark
+    public String previousCenterText() {
+        return MStrings.spacesToCenter(previousFontLength(line, '&'), 400) + line;
+    }
+
+    // MStrings#getFontLength(String, char) before the font table, boxing every char
+    private static int previousFontLength(String s, char colorChar) {
+        int px = 0;
+        boolean bold = false;
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            final boolean mcChar;
+            if (i + 1 < s.length() && ((mcChar = (c == MStrings.COLOR_CHAR)) || c == colorChar)) {
+                final char c1 = s.charAt(i + 1);
+                if (MStrings.BUNGEE_HEX && c1 == 'x' && MStrings.isHexFormat(s, i + 2, 2, mcChar ? MStrings.COLOR_CHAR : colorChar) != null) {
+                    i = i + 12;
+                } else if (c1 == '#' && MStrings.isHexFormat(s, i + 2, 1, mcChar ? MStrings.COLOR_CHAR : colorChar) != null) {
+                    i = i + 6;
+                } else if (MStrings.COLOR_CODES.contains(c1)) {
+                    if (c1 == 'l' || c1 == 'L') {
+                        bold = true;
+                    } else if (c1 == 'r' || c1 == 'R') {
+                        bold = false;
+                    }
+                } else {
+                    px += MStrings.FONT_LENGTH.getOrDefault(c, 5) + MStrings.FONT_LENGTH.getOrDefault(c1, 5) + (bold ? (c1 == ' ' ? 3 : 4) : 2);
+                }
+                i++;
+            } else {
+                px += MStrings.FONT_LENGTH.getOrDefault(c, 5) + (bold && c != ' ' ? 2 : 1);
+            }
+        }
+        return px;
+    }
+}
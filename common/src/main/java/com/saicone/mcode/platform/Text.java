@@ -8,6 +8,7 @@ import com.saicone.mcode.util.text.MStrings;
 import com.saicone.mcode.util.text.Replacer;
 import com.saicone.mcode.util.text.Strings;
 import com.saicone.mcode.util.text.TextComponent;
+import com.saicone.mcode.util.text.TextTemplate;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -121,16 +122,26 @@ public abstract class Text {
     }
 
     @NotNull
-    @SuppressWarnings("deprecation")
     public static Text valueOf(@Nullable MC version, @Nullable Object object) {
+        return valueOf(Kind.UNKNOWN, version, object);
+    }
+
+    @NotNull
+    @SuppressWarnings("deprecation")
+    public static Text valueOf(@NotNull Kind kind, @Nullable MC version, @Nullable Object object) {
         if (object == null) {
             return empty();
         } else if (object instanceof String) {
             final String s = (String) object;
+            if (s.isBlank()) {
+                return empty();
+            }
 
-            try {
-                return valueOf(RAW_JSON, version, JSON_PARSER.parse(s));
-            } catch (JsonParseException ignored) { }
+            if (kind == Kind.JSON || (kind == Kind.UNKNOWN && Kind.of(s) == Kind.JSON)) {
+                try {
+                    return valueOf(RAW_JSON, version, JSON_PARSER.parse(s));
+                } catch (JsonParseException ignored) { }
+            }
 
             if (s.indexOf(MStrings.COLOR_CHAR) >= 0) {
                 return valueOf(COLORED, version, object);
@@ -322,10 +333,90 @@ public abstract class Text {
         return apply(s -> Strings.replacePlaceholder(subject, relative, s, start, end, lookup));
     }
 
+    public enum Kind {
+
+        UNKNOWN,
+        STRING,
+        JSON;
+
+        @NotNull
+        public static Kind of(@NotNull String s) {
+            // Cheap structural check, the value may still be an invalid json for the lenient parser
+            int start = 0;
+            int end = s.length() - 1;
+            while (start <= end && Character.isWhitespace(s.charAt(start))) {
+                start++;
+            }
+            while (end > start && Character.isWhitespace(s.charAt(end))) {
+                end--;
+            }
+            if (end <= start) {
+                return STRING;
+            }
+            final char first = s.charAt(start);
+            final char last = s.charAt(end);
+            if (first == '"' || first == '\'') {
+                return last == first ? JSON : STRING;
+            } else if (first == '{') {
+                if (last != '}') {
+                    return STRING;
+                }
+            } else if (first == '[') {
+                if (last != ']') {
+                    return STRING;
+                }
+            } else {
+                return STRING;
+            }
+
+            // Balanced brackets outside quoted strings, keys and values may be unquoted or single-quoted
+            int objects = 0;
+            int arrays = 0;
+            char quote = 0;
+            for (int i = start; i <= end; i++) {
+                final char c = s.charAt(i);
+                if (quote != 0) {
+                    if (c == '\\') {
+                        i++;
+                    } else if (c == quote) {
+                        quote = 0;
+                    }
+                    continue;
+                }
+                switch (c) {
+                    case '"':
+                    case '\'':
+                        quote = c;
+                        break;
+                    case '{':
+                        objects++;
+                        break;
+                    case '}':
+                        objects--;
+                        break;
+                    case '[':
+                        arrays++;
+                        break;
+                    case ']':
+                        arrays--;
+                        break;
+                    default:
+                        break;
+                }
+                if (objects < 0 || arrays < 0) {
+                    return STRING;
+                }
+            }
+            return quote == 0 && objects == 0 && arrays == 0 ? JSON : STRING;
+        }
+    }
+
     public static abstract class StringText extends Text {
 
         private final String value;
 
+        private TextTemplate template;
+
         public StringText(@NotNull MC version, @NotNull String value) {
             super(version);
             this.value = value;
@@ -341,6 +432,15 @@ public abstract class Text {
             return value;
         }
 
+        @NotNull
+        public TextTemplate getTemplate() {
+            // Benign race, templates are immutable
+            if (template == null) {
+                template = TextTemplate.compile(value);
+            }
+            return template;
+        }
+
         @Override
         public @NotNull StringText getAsString() {
             return this;
@@ -351,6 +451,18 @@ public abstract class Text {
             return Text.valueOf(getType(), getVersion(), operator.apply(getValue()));
         }
 
+        @Override
+        public @NotNull Text args(@Nullable Object... args) {
+            final String s = getTemplate().render(args);
+            return s == value ? this : Text.valueOf(getType(), getVersion(), s);
+        }
+
+        @Override
+        public @NotNull Text args(@NotNull Map<String, Object> args) {
+            final String s = getTemplate().render(args);
+            return s == value ? this : Text.valueOf(getType(), getVersion(), s);
+        }
+
         @Override
         public @NotNull Text color(char colorChar) {
             return Text.colored(MStrings.color(colorChar, getValue()));
@@ -364,6 +476,8 @@ public abstract class Text {
 
     public static class PlainText extends StringText {
 
+        private Colored colored;
+
         public PlainText(@NotNull MC version, @NotNull String value) {
             super(version, value);
         }
@@ -385,7 +499,11 @@ public abstract class Text {
 
         @Override
         public @NotNull Colored getAsColored() {
-            return Text.valueOf(Text.COLORED, getVersion(), MStrings.color(getValue())).getAsColored();
+            // Benign race, a shared broadcast text is colored once
+            if (colored == null) {
+                colored = Text.valueOf(Text.COLORED, getVersion(), MStrings.color(getValue())).getAsColored();
+            }
+            return colored;
         }
 
         @Override
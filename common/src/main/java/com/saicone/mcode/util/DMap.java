@@ -6,8 +6,13 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.BiConsumer;
@@ -18,7 +23,20 @@ import java.util.regex.Pattern;
 
 public class DMap implements Map<String, Object> {
 
+    private static final int PATTERN_CACHE_SIZE = 256;
+    private static final Map<String, Regex> PATTERN_CACHE = new LinkedHashMap<>(32, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Regex> eldest) {
+            return size() > PATTERN_CACHE_SIZE;
+        }
+    };
+
     private final Map<String, Object> map;
+    // Lazy key index, it's dropped by every mutation made through this object and rebuilt when the backing map size changes.
+    // A backing map modified outside this object without changing its size must be modified through this object instead
+    private KeyIndex keyIndex;
+    // Only set on immutable copies
+    private final PathIndex pathIndex;
 
     @NotNull
     public static DMap of(@NotNull Map<?, ?> map) {
@@ -47,12 +65,49 @@ public class DMap implements Map<String, Object> {
         }
     }
 
+    @NotNull
+    public static DMap copyOf(@NotNull Map<?, ?> map) {
+        if (map instanceof DMap && ((DMap) map).pathIndex != null) {
+            return (DMap) map;
+        }
+        final Map<String, Object> copy = new LinkedHashMap<>(Math.max(16, (int) (map.size() / 0.75f) + 1));
+        for (Entry<?, ?> entry : map.entrySet()) {
+            copy.put(String.valueOf(entry.getKey()), unmodifiableCopy(entry.getValue()));
+        }
+        final Map<String, Object> unmodifiable = Collections.unmodifiableMap(copy);
+        return new DMap(unmodifiable, new PathIndex(unmodifiable));
+    }
+
+    @Nullable
+    private static Object unmodifiableCopy(@Nullable Object object) {
+        if (object instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) object;
+            final Map<Object, Object> copy = new LinkedHashMap<>(Math.max(16, (int) (map.size() / 0.75f) + 1));
+            for (Entry<?, ?> entry : map.entrySet()) {
+                copy.put(entry.getKey(), unmodifiableCopy(entry.getValue()));
+            }
+            return Collections.unmodifiableMap(copy);
+        } else if (object instanceof List) {
+            final List<Object> copy = new ArrayList<>(((List<?>) object).size());
+            for (Object o : (List<?>) object) {
+                copy.add(unmodifiableCopy(o));
+            }
+            return Collections.unmodifiableList(copy);
+        }
+        return object;
+    }
+
     public DMap() {
         this(new HashMap<>());
     }
 
     public DMap(@NotNull Map<String, Object> map) {
+        this(map, null);
+    }
+
+    private DMap(@NotNull Map<String, Object> map, @Nullable PathIndex pathIndex) {
         this.map = map;
+        this.pathIndex = pathIndex;
     }
 
     @Nullable
@@ -67,12 +122,37 @@ public class DMap implements Map<String, Object> {
 
     @Nullable
     public Object getIgnoreCase(@NotNull String s) {
+        final KeyIndex index = getKeyIndex();
+        final int ordinal = index.ordinal(fold(s));
+        if (ordinal < 0) {
+            return null;
+        }
+        final String key = index.keys[ordinal];
+        if (map.containsKey(key)) {
+            return map.get(key);
+        }
+        // Backing map was modified outside this object
+        this.keyIndex = null;
         return getIf(str -> str.equalsIgnoreCase(s));
     }
 
     @Nullable
     public Object getRegex(@NotNull @Language("RegExp") String regex) {
-        return getRegex(Pattern.compile(regex));
+        final Regex compiled = compile(regex);
+        if (compiled.literals != null) {
+            final KeyIndex index = getKeyIndex();
+            final int ordinal = index.ordinal(compiled.literals);
+            if (ordinal < 0) {
+                return null;
+            }
+            final String key = index.keys[ordinal];
+            if (!map.containsKey(key)) {
+                this.keyIndex = null;
+            } else if (compiled.pattern.matcher(key).matches()) {
+                return map.get(key);
+            }
+        }
+        return getRegex(compiled.pattern);
     }
 
     @Nullable
@@ -80,6 +160,147 @@ public class DMap implements Map<String, Object> {
         return getIf(str -> pattern.matcher(str).matches());
     }
 
+    @NotNull
+    public Object[] getRegexAll(@NotNull @Language("RegExp") String... regexes) {
+        final Pattern[] patterns = new Pattern[regexes.length];
+        final Object[] values = new Object[regexes.length];
+        final boolean[] found = new boolean[regexes.length];
+        int remaining = 0;
+        for (int i = 0; i < regexes.length; i++) {
+            final Regex compiled = compile(regexes[i]);
+            patterns[i] = compiled.pattern;
+            if (compiled.literals != null) {
+                final KeyIndex index = getKeyIndex();
+                final int ordinal = index.ordinal(compiled.literals);
+                if (ordinal < 0) {
+                    found[i] = true;
+                    continue;
+                }
+                final String key = index.keys[ordinal];
+                if (!map.containsKey(key)) {
+                    this.keyIndex = null;
+                } else if (compiled.pattern.matcher(key).matches()) {
+                    found[i] = true;
+                    values[i] = map.get(key);
+                    continue;
+                }
+            }
+            remaining++;
+        }
+        if (remaining > 0) {
+            getRegexAll(patterns, values, found, remaining);
+        }
+        return values;
+    }
+
+    @NotNull
+    public Object[] getRegexAll(@NotNull Pattern... patterns) {
+        final Object[] values = new Object[patterns.length];
+        getRegexAll(patterns, values, new boolean[patterns.length], patterns.length);
+        return values;
+    }
+
+    private void getRegexAll(@NotNull Pattern[] patterns, @Nullable Object[] values, boolean[] found, int remaining) {
+        // Resolve every pending pattern in a single pass over the entries
+        for (Entry<String, Object> entry : map.entrySet()) {
+            for (int i = 0; i < patterns.length; i++) {
+                if (!found[i] && patterns[i].matcher(entry.getKey()).matches()) {
+                    found[i] = true;
+                    values[i] = entry.getValue();
+                    remaining--;
+                }
+            }
+            if (remaining < 1) {
+                break;
+            }
+        }
+    }
+
+    private void invalidate() {
+        this.keyIndex = null;
+    }
+
+    @NotNull
+    private KeyIndex getKeyIndex() {
+        KeyIndex index = this.keyIndex;
+        if (index == null || index.size != map.size()) {
+            index = new KeyIndex(map.keySet());
+            this.keyIndex = index;
+        }
+        return index;
+    }
+
+    @NotNull
+    private static String fold(@NotNull String s) {
+        // Same char comparison as String#equalsIgnoreCase
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (Character.toLowerCase(Character.toUpperCase(c)) != c) {
+                final char[] chars = s.toCharArray();
+                for (int j = i; j < chars.length; j++) {
+                    chars[j] = Character.toLowerCase(Character.toUpperCase(chars[j]));
+                }
+                return new String(chars);
+            }
+        }
+        return s;
+    }
+
+    @NotNull
+    private static Regex compile(@NotNull String regex) {
+        Regex compiled;
+        synchronized (PATTERN_CACHE) {
+            compiled = PATTERN_CACHE.get(regex);
+        }
+        if (compiled == null) {
+            compiled = new Regex(Pattern.compile(regex), literals(regex));
+            synchronized (PATTERN_CACHE) {
+                PATTERN_CACHE.put(regex, compiled);
+            }
+        }
+        return compiled;
+    }
+
+    // Extract the keys of case-insensitive alternations like "(?i)value|text|flags?"
+    @Nullable
+    private static String[] literals(@NotNull String regex) {
+        if (!regex.startsWith("(?i)") || regex.length() < 5) {
+            return null;
+        }
+        final List<String> list = new ArrayList<>();
+        for (String alternative : regex.substring(4).split("\\|", -1)) {
+            if (alternative.isEmpty()) {
+                return null;
+            }
+            List<String> options = List.of("");
+            for (int i = 0; i < alternative.length(); i++) {
+                final char c = alternative.charAt(i);
+                if (c > 127 || !(Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == ' ')) {
+                    return null;
+                }
+                final boolean optional = i + 1 < alternative.length() && alternative.charAt(i + 1) == '?';
+                final List<String> next = new ArrayList<>(optional ? options.size() * 2 : options.size());
+                for (String option : options) {
+                    next.add(option + c);
+                    if (optional) {
+                        next.add(option);
+                    }
+                }
+                if (next.size() > 8) {
+                    return null;
+                }
+                options = next;
+                if (optional) {
+                    i++;
+                }
+            }
+            for (String option : options) {
+                list.add(fold(option));
+            }
+        }
+        return list.toArray(new String[0]);
+    }
+
     @Nullable
     public DMap getChild(@NotNull Function<DMap, Object> getter) {
         final Object result = getter.apply(this);
@@ -121,6 +342,17 @@ public class DMap implements Map<String, Object> {
         return current;
     }
 
+    @Nullable
+    public Object getDeep(@NotNull Path path) {
+        if (path.size() == 0) {
+            return this.map;
+        }
+        if (this.pathIndex != null) {
+            return this.pathIndex.get(path);
+        }
+        return path.get(this.map);
+    }
+
     @NotNull
     public Map<String, Object> getMap() {
         return this.map;
@@ -151,27 +383,56 @@ public class DMap implements Map<String, Object> {
     @NotNull
     public Map<String, Object> asDeepPath(@NotNull String separator, @NotNull String prefix, @Nullable BiPredicate<String, Object> filter) {
         final Map<String, Object> finalMap = new HashMap<>();
-        for (Entry<String, Object> entry : map.entrySet()) {
-            final String pathKey = prefix + entry.getKey();
-            if (filter == null || filter.test(pathKey, entry.getValue())) {
-                if (entry.getValue() instanceof Map) {
-                    final DMap child = of((Map<?, ?>) entry.getValue(), false);
-                    if (child != null) {
-                        child.asDeepPath(separator, pathKey + separator, filter).forEach((key, value) -> finalMap.put(entry.getKey() + separator + key, value));
-                        continue;
-                    }
-                }
+        asDeepPath(this.map, separator, prefix, "", filter, finalMap);
+        return finalMap;
+    }
+
+    private static void asDeepPath(@NotNull Map<?, ?> map, @NotNull String separator, @NotNull String prefix, @NotNull String relative, @Nullable BiPredicate<String, Object> filter, @NotNull Map<String, Object> finalMap) {
+        for (Entry<?, ?> entry : map.entrySet()) {
+            final String key = String.valueOf(entry.getKey());
+            final String pathKey = prefix + key;
+            if (entry.getValue() instanceof Map && (filter == null || filter.test(pathKey, entry.getValue()))) {
+                asDeepPath((Map<?, ?>) entry.getValue(), separator, pathKey + separator, relative + key + separator, filter, finalMap);
+            } else {
+                finalMap.put(relative + key, entry.getValue());
             }
-            finalMap.put(entry.getKey(), entry.getValue());
         }
+    }
+
+    @NotNull
+    public Map<String, Object> flatten() {
+        return flatten((path, value) -> true);
+    }
+
+    @NotNull
+    public Map<String, Object> flatten(@NotNull Predicate<Path> filter) {
+        return flatten((path, value) -> filter.test(path));
+    }
+
+    @NotNull
+    public Map<String, Object> flatten(@NotNull BiPredicate<Path, Object> filter) {
+        final Map<String, Object> finalMap = new HashMap<>();
+        flatten(this.map, Path.ROOT, filter, finalMap);
         return finalMap;
     }
 
+    private static void flatten(@NotNull Map<?, ?> map, @NotNull Path parent, @NotNull BiPredicate<Path, Object> filter, @NotNull Map<String, Object> finalMap) {
+        for (Entry<?, ?> entry : map.entrySet()) {
+            final Path path = parent.child(String.valueOf(entry.getKey()));
+            if (entry.getValue() instanceof Map && filter.test(path, entry.getValue())) {
+                flatten((Map<?, ?>) entry.getValue(), path, filter, finalMap);
+            } else {
+                finalMap.put(path.toString(), entry.getValue());
+            }
+        }
+    }
+
     public void merge(@NotNull Map<String, Object> map) {
         merge(map, true, true);
     }
 
     public void merge(@NotNull Map<String, Object> map, boolean replace, boolean deep) {
+        invalidate();
         merge(this.map, map, replace, deep);
     }
 
@@ -221,21 +482,25 @@ public class DMap implements Map<String, Object> {
     @Nullable
     @Override
     public Object put(String s, Object o) {
+        invalidate();
         return this.map.put(s, o);
     }
 
     @Override
     public Object remove(Object o) {
+        invalidate();
         return this.map.remove(o);
     }
 
     @Override
     public void putAll(@NotNull Map<? extends String, ?> map) {
+        invalidate();
         this.map.putAll(map);
     }
 
     @Override
     public void clear() {
+        invalidate();
         this.map.clear();
     }
 
@@ -266,4 +531,223 @@ public class DMap implements Map<String, Object> {
     public int hashCode() {
         return this.map.hashCode();
     }
+
+    private static final class Regex {
+
+        private final Pattern pattern;
+        private final String[] literals;
+
+        Regex(@NotNull Pattern pattern, @Nullable String[] literals) {
+            this.pattern = pattern;
+            this.literals = literals;
+        }
+    }
+
+    // Open-addressed table with every nested path of an immutable map
+    private static final class PathIndex {
+
+        private final Path[] paths;
+        private final Object[] values;
+        private final int mask;
+
+        PathIndex(@NotNull Map<String, Object> map) {
+            final List<Path> paths = new ArrayList<>();
+            final List<Object> values = new ArrayList<>();
+            collect(map, Path.ROOT, paths, values);
+
+            int capacity = 16;
+            while (capacity < paths.size() * 2) {
+                capacity <<= 1;
+            }
+            this.paths = new Path[capacity];
+            this.values = new Object[capacity];
+            this.mask = capacity - 1;
+            for (int i = 0; i < paths.size(); i++) {
+                final Path path = paths.get(i);
+                int slot = mix(path.hash) & mask;
+                while (this.paths[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                this.paths[slot] = path;
+                this.values[slot] = values.get(i);
+            }
+        }
+
+        private static void collect(@NotNull Map<?, ?> map, @NotNull Path parent, @NotNull List<Path> paths, @NotNull List<Object> values) {
+            for (Entry<?, ?> entry : map.entrySet()) {
+                // Same keys that a walk with Map#get(String) can reach
+                if (!(entry.getKey() instanceof String)) {
+                    continue;
+                }
+                final Path path = parent.child(((String) entry.getKey()).intern());
+                paths.add(path);
+                values.add(entry.getValue());
+                if (entry.getValue() instanceof Map) {
+                    collect((Map<?, ?>) entry.getValue(), path, paths, values);
+                }
+            }
+        }
+
+        private static int mix(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+
+        @Nullable
+        Object get(@NotNull Path path) {
+            int slot = mix(path.hash) & mask;
+            Path current;
+            while ((current = paths[slot]) != null) {
+                if (current.equals(path)) {
+                    return values[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+    }
+
+    private static final class KeyIndex {
+
+        private final String[] keys;
+        private final Map<String, Integer> ordinals;
+        private final int size;
+
+        KeyIndex(@NotNull Collection<String> keys) {
+            this.keys = keys.toArray(new String[0]);
+            this.ordinals = new HashMap<>(Math.max(16, (int) (this.keys.length / 0.75f) + 1));
+            for (int i = 0; i < this.keys.length; i++) {
+                // Keep the first key in iteration order, like a linear scan
+                this.ordinals.putIfAbsent(fold(this.keys[i]), i);
+            }
+            this.size = this.keys.length;
+        }
+
+        int ordinal(@NotNull String folded) {
+            final Integer ordinal = ordinals.get(folded);
+            return ordinal == null ? -1 : ordinal;
+        }
+
+        int ordinal(@NotNull String[] folded) {
+            int min = -1;
+            for (String s : folded) {
+                final Integer ordinal = ordinals.get(s);
+                if (ordinal != null && (min < 0 || ordinal < min)) {
+                    min = ordinal;
+                }
+            }
+            return min;
+        }
+    }
+
+    public static final class Path {
+
+        private static final Path ROOT = new Path(new String[0]);
+
+        private final String[] keys;
+        private final int hash;
+        private String joined;
+
+        @NotNull
+        public static Path of(@NotNull String path) {
+            final List<String> keys = new ArrayList<>();
+            int start = 0;
+            int end;
+            while ((end = path.indexOf('.', start)) >= 0) {
+                keys.add(path.substring(start, end).intern());
+                start = end + 1;
+            }
+            keys.add(path.substring(start).intern());
+            // Same result as String#split
+            if (!path.isEmpty() && path.charAt(path.length() - 1) == '.') {
+                while (!keys.isEmpty() && keys.get(keys.size() - 1).isEmpty()) {
+                    keys.remove(keys.size() - 1);
+                }
+                return new Path(keys.toArray(new String[0]));
+            }
+            return new Path(keys.toArray(new String[0]), path);
+        }
+
+        @NotNull
+        public static Path of(@NotNull String... keys) {
+            final String[] array = new String[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                array[i] = keys[i].intern();
+            }
+            return new Path(array);
+        }
+
+        private Path(@NotNull String[] keys) {
+            this(keys, null);
+        }
+
+        private Path(@NotNull String[] keys, @Nullable String joined) {
+            this.keys = keys;
+            this.hash = Arrays.hashCode(keys);
+            this.joined = joined;
+        }
+
+        @NotNull
+        public Path child(@NotNull String key) {
+            final String[] keys = Arrays.copyOf(this.keys, this.keys.length + 1);
+            keys[this.keys.length] = key;
+            return new Path(keys);
+        }
+
+        public int size() {
+            return keys.length;
+        }
+
+        @NotNull
+        public String getKey(int index) {
+            return keys[index];
+        }
+
+        @NotNull
+        public String[] getKeys() {
+            return keys.clone();
+        }
+
+        @Nullable
+        public Object get(@NotNull Map<?, ?> map) {
+            Object current = map;
+            for (String key : keys) {
+                if (current instanceof Map) {
+                    current = ((Map<?, ?>) current).get(key);
+                } else {
+                    return null;
+                }
+            }
+            return current;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Path)) return false;
+
+            final Path path = (Path) o;
+            if (hash != path.hash || keys.length != path.keys.length) {
+                return false;
+            }
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != path.keys[i] && !keys[i].equals(path.keys[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public String toString() {
+            if (joined == null) {
+                joined = String.join(".", keys);
+            }
+            return joined;
+        }
+    }
 }
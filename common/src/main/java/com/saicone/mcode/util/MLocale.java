@@ -152,15 +152,35 @@ public class MLocale {
         ALIASES.put("zlm_arab", "ms-Arab-MY");
     }
 
-    private static final Map<String, Locale> MINECRAFT_TO_JAVA = new HashMap<>();
-
-    private static final Map<Locale, String> JAVA_TO_MINECRAFT = new HashMap<>();
+    // Immutable tables computed from aliases, safe to read from any thread
+    private static final Map<String, Locale> MINECRAFT_TO_JAVA;
+    private static final Map<Locale, String> JAVA_TO_MINECRAFT;
+    private static final Map<Locale, Locale> INSTANCES;
     static {
+        final Map<String, Locale> minecraftToJava = new HashMap<>();
+        final Map<Locale, String> javaToMinecraft = new HashMap<>();
+        final Map<Locale, Locale> instances = new HashMap<>();
         for (Map.Entry<String, String> entry : ALIASES.entrySet()) {
-            JAVA_TO_MINECRAFT.put(Locale.forLanguageTag(entry.getValue()), entry.getKey());
+            javaToMinecraft.put(Locale.forLanguageTag(entry.getValue()), entry.getKey());
+        }
+        for (String key : ALIASES.keySet()) {
+            final Locale parsed = parse(key);
+            if (parsed == null) {
+                continue;
+            }
+            final Locale locale = instances.computeIfAbsent(parsed, l -> l);
+            minecraftToJava.put(key, locale);
+            javaToMinecraft.putIfAbsent(locale, key);
         }
+        MINECRAFT_TO_JAVA = Map.copyOf(minecraftToJava);
+        JAVA_TO_MINECRAFT = Map.copyOf(javaToMinecraft);
+        INSTANCES = Map.copyOf(instances);
     }
 
+    // Bounded copy-on-write cache for locales outside the precomputed tables
+    private static final int MAX_CACHED = 512;
+    private static volatile Cache CACHE = new Cache(Map.of(), Map.of(), Map.of());
+
     private static final Locale DEFAULT = fromMinecraftLocale("en_us", null);
 
     @NotNull
@@ -175,30 +195,25 @@ public class MLocale {
             return defaultLocale;
         }
 
-        Locale result = MINECRAFT_TO_JAVA.get(locale);
+        Locale result = get(locale);
         if (result != null) {
             return result;
         }
 
-        locale = locale.toLowerCase();
-
-        final String[] parts = locale.split("[_\\-.]");
-        if (parts.length == 1) {
-            result = new Locale(parts[0]);
-        } else if (parts.length == 2) {
-            result = new Locale(parts[0], parts[1]);
-        } else if (parts.length == 3) {
-            result = new Locale(parts[0], parts[1], parts[2]);
-        } else {
-            return defaultLocale;
+        final String lowerCase = locale.toLowerCase(Locale.ROOT);
+        if (!lowerCase.equals(locale)) {
+            result = get(lowerCase);
+            if (result != null) {
+                return result;
+            }
         }
 
-        MINECRAFT_TO_JAVA.put(locale, result);
-        if (!JAVA_TO_MINECRAFT.containsKey(result)) {
-            JAVA_TO_MINECRAFT.put(result, locale);
+        result = parse(lowerCase);
+        if (result == null) {
+            return defaultLocale;
         }
 
-        return result;
+        return cache(lowerCase, result);
     }
 
     @NotNull
@@ -217,12 +232,105 @@ public class MLocale {
         if (result != null) {
             return result;
         }
+        result = CACHE.names.get(locale);
+        if (result != null) {
+            return result;
+        }
 
-        result = locale.toLanguageTag().replace('-', '_').toLowerCase();
-
-        MINECRAFT_TO_JAVA.put(result, locale);
-        JAVA_TO_MINECRAFT.put(locale, result);
+        result = locale.toLanguageTag().replace('-', '_').toLowerCase(Locale.ROOT);
+        cache(result, locale);
 
         return result;
     }
+
+    @Nullable
+    private static Locale get(@NotNull String locale) {
+        final Locale result = MINECRAFT_TO_JAVA.get(locale);
+        if (result != null) {
+            return result;
+        }
+        return CACHE.locales.get(locale);
+    }
+
+    // Same parts as locale.split("[_\\-.]") with up to 3 parts, without regex
+    @Nullable
+    private static Locale parse(@NotNull String locale) {
+        final String[] parts = new String[3];
+        int count = 0;
+        int start = 0;
+        int length = locale.length();
+        // Trailing empty parts are ignored like String#split
+        while (length > 0 && isSeparator(locale.charAt(length - 1))) {
+            length--;
+        }
+        if (length == 0) {
+            return null;
+        }
+        for (int i = 0; i <= length; i++) {
+            if (i == length || isSeparator(locale.charAt(i))) {
+                if (count == parts.length) {
+                    return null;
+                }
+                parts[count++] = locale.substring(start, i);
+                start = i + 1;
+            }
+        }
+        switch (count) {
+            case 1:
+                return new Locale(parts[0]);
+            case 2:
+                return new Locale(parts[0], parts[1]);
+            case 3:
+                return new Locale(parts[0], parts[1], parts[2]);
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '_' || c == '-' || c == '.';
+    }
+
+    @NotNull
+    private static synchronized Locale cache(@NotNull String name, @NotNull Locale locale) {
+        final Cache cache = CACHE;
+        Locale instance = INSTANCES.get(locale);
+        if (instance == null) {
+            instance = cache.instances.getOrDefault(locale, locale);
+        }
+        final Locale current = get(name);
+        final boolean addLocale = current == null;
+        final boolean addName = !JAVA_TO_MINECRAFT.containsKey(instance) && !cache.names.containsKey(instance);
+        if ((!addLocale && !addName) || Math.max(cache.locales.size(), cache.names.size()) >= MAX_CACHED) {
+            return addLocale ? instance : current;
+        }
+
+        final Map<String, Locale> locales = new HashMap<>(cache.locales);
+        final Map<Locale, String> names = new HashMap<>(cache.names);
+        final Map<Locale, Locale> instances = new HashMap<>(cache.instances);
+        if (addLocale) {
+            locales.put(name, instance);
+        }
+        if (addName) {
+            names.put(instance, name);
+        }
+        if (!INSTANCES.containsKey(instance)) {
+            instances.put(instance, instance);
+        }
+        CACHE = new Cache(Map.copyOf(locales), Map.copyOf(names), Map.copyOf(instances));
+        return addLocale ? instance : current;
+    }
+
+    private static final class Cache {
+
+        private final Map<String, Locale> locales;
+        private final Map<Locale, String> names;
+        private final Map<Locale, Locale> instances;
+
+        Cache(@NotNull Map<String, Locale> locales, @NotNull Map<Locale, String> names, @NotNull Map<Locale, Locale> instances) {
+            this.locales = locales;
+            this.names = names;
+            this.instances = instances;
+        }
+    }
 }
@@ -71,6 +71,41 @@ public class MStrings {
      */
     public static final String COLOR_SPECIAL_STOP = "$stop$";
 
+    /**
+     * Default pixel-length for any character outside {@link #FONT_LENGTH}.
+     */
+    private static final int DEFAULT_FONT_LENGTH = 5;
+    /**
+     * Dense pixel-length table indexed by character, any character outside the table use the default length.
+     */
+    private static final byte[] FONT_TABLE;
+    /**
+     * Small font characters indexed by alphabet position.
+     */
+    private static final char[] SMALL_FONT_TABLE;
+    /**
+     * Legacy color codes bitset, from 0 to 63 and from 64 to 127.
+     */
+    private static final long COLOR_CODES_LOW;
+    private static final long COLOR_CODES_HIGH;
+    /**
+     * Max amount of special color palettes to keep cached.
+     */
+    private static final int PALETTE_CACHE_SIZE = 256;
+    /**
+     * Max amount of colors that a palette can have to be cached.
+     */
+    private static final int PALETTE_MAX_LENGTH = 1024;
+    /**
+     * Bounded cache of special color palettes, ordered by access.
+     */
+    private static final Map<Palette, char[][]> PALETTE_CACHE = new LinkedHashMap<>(32, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Palette, char[][]> eldest) {
+            return size() > PALETTE_CACHE_SIZE;
+        }
+    };
+
     static {
         Map<Character, Integer> map = new HashMap<>();
         Arrays.asList('i', 'l', '!', ':', ';', '\'', '|', '.', ',').forEach(c -> map.put(c, 1));
@@ -79,6 +114,33 @@ public class MStrings {
         Arrays.asList('f', 'k', 't', '(', ')', '{', '}', '<', '>').forEach(c -> map.put(c, 4));
         map.put('@', 6);
         FONT_LENGTH = Collections.unmodifiableMap(map);
+
+        int max = 0;
+        for (Character c : map.keySet()) {
+            max = Math.max(max, c);
+        }
+        final byte[] table = new byte[max + 1];
+        Arrays.fill(table, (byte) DEFAULT_FONT_LENGTH);
+        map.forEach((c, length) -> table[c] = length.byteValue());
+        FONT_TABLE = table;
+
+        final char[] smallFont = new char[SMALL_FONT.size()];
+        for (int i = 0; i < smallFont.length; i++) {
+            smallFont[i] = SMALL_FONT.get(i);
+        }
+        SMALL_FONT_TABLE = smallFont;
+
+        long low = 0L;
+        long high = 0L;
+        for (char c : COLOR_CODES) {
+            if (c < 64) {
+                low |= 1L << c;
+            } else {
+                high |= 1L << (c - 64);
+            }
+        }
+        COLOR_CODES_LOW = low;
+        COLOR_CODES_HIGH = high;
     }
 
     MStrings() {
@@ -91,7 +153,18 @@ public class MStrings {
      * @return  number of pixels of the character width.
      */
     public static int getFontLength(char c) {
-        return FONT_LENGTH.getOrDefault(c, 5);
+        return c < FONT_TABLE.length ? FONT_TABLE[c] : DEFAULT_FONT_LENGTH;
+    }
+
+    /**
+     * Get Minecraft default font length of provided code point.<br>
+     * Supplementary code points use the default font length.
+     *
+     * @param codePoint the code point to check.
+     * @return          number of pixels of the code point width.
+     */
+    public static int getFontLength(int codePoint) {
+        return codePoint >= 0 && codePoint < FONT_TABLE.length ? FONT_TABLE[codePoint] : DEFAULT_FONT_LENGTH;
     }
 
     /**
@@ -112,18 +185,46 @@ public class MStrings {
      * @return          number of text pixels width.
      */
     public static int getFontLength(@NotNull String s, char colorChar) {
+        return measure(s, 0, s.length(), false, colorChar);
+    }
+
+    /**
+     * Measure the Minecraft default font length of provided text range.<br>
+     * Legacy and RGB colors are skipped in the same pass.
+     *
+     * @param s    the text to measure.
+     * @param from the start index, inclusive.
+     * @param to   the end index, exclusive.
+     * @param bold true if the text range starts as bold.
+     * @return     number of text pixels width.
+     */
+    public static int measure(@NotNull CharSequence s, int from, int to, boolean bold) {
+        return measure(s, from, to, bold, '&');
+    }
+
+    /**
+     * Measure the Minecraft default font length of provided text range.<br>
+     * Legacy and RGB colors are skipped in the same pass.
+     *
+     * @param s         the text to measure.
+     * @param from      the start index, inclusive.
+     * @param to        the end index, exclusive.
+     * @param bold      true if the text range starts as bold.
+     * @param colorChar the colored text character, other than {@link #COLOR_CHAR}.
+     * @return          number of text pixels width.
+     */
+    public static int measure(@NotNull CharSequence s, int from, int to, boolean bold, char colorChar) {
         int px = 0;
-        boolean bold = false;
-        for (int i = 0; i < s.length(); i++) {
+        for (int i = from; i < to; i++) {
             final char c = s.charAt(i);
             // Verify color char
             final boolean mcChar;
-            if (i + 1 < s.length() && ((mcChar = (c == COLOR_CHAR)) || c == colorChar)) {
+            if (i + 1 < to && ((mcChar = (c == COLOR_CHAR)) || c == colorChar)) {
                 final char c1 = s.charAt(i + 1);
                 // Skip RGB color
-                if (BUNGEE_HEX && c1 == 'x' && isHexFormat(s, i + 2, 2, mcChar ? COLOR_CHAR : colorChar) != null) {
+                if (BUNGEE_HEX && c1 == 'x' && isHexFormat(s, i + 2, to, 2, mcChar ? COLOR_CHAR : colorChar)) {
                     i = i + 12;
-                } else if (c1 == '#' && isHexFormat(s, i + 2, 1, mcChar ? COLOR_CHAR : colorChar) != null) {
+                } else if (c1 == '#' && isHexFormat(s, i + 2, to, 1, mcChar ? COLOR_CHAR : colorChar)) {
                     i = i + 6;
                 } else if (isColorCode(c1)) { // Skip legacy color code, so (un)mark text as bold depending on color char
                     switch (c1) {
@@ -175,7 +276,7 @@ public class MStrings {
      */
     public static char getSmallFont(char c) {
         final int index = Character.toUpperCase(c) - 'A';
-        return index < SMALL_FONT.size() ? SMALL_FONT.get(index) : c;
+        return index >= 0 && index < SMALL_FONT_TABLE.length ? SMALL_FONT_TABLE[index] : c;
     }
 
     /**
@@ -232,7 +333,12 @@ public class MStrings {
      * @return  true if the character is a legacy color code, false otherwise.
      */
     public static boolean isColorCode(char c) {
-        return COLOR_CODES.contains(c);
+        if (c < 64) {
+            return (COLOR_CODES_LOW & (1L << c)) != 0;
+        } else if (c < 128) {
+            return (COLOR_CODES_HIGH & (1L << (c - 64))) != 0;
+        }
+        return false;
     }
 
     /**
@@ -243,7 +349,7 @@ public class MStrings {
      * @return  true if the character is a supported color type, false otherwise.
      */
     public static boolean isColorType(char c) {
-        return COLOR_CODES.contains(c) || c == '#' || c == '$';
+        return isColorCode(c) || c == '#' || c == '$';
     }
 
     /**
@@ -255,7 +361,7 @@ public class MStrings {
      * @return  true if the character is a legacy or newly color code, false otherwise.
      */
     public static boolean isAnyColorCode(char c) {
-        return COLOR_CODES.contains(c) || (BUNGEE_HEX && c == 'x');
+        return isColorCode(c) || (BUNGEE_HEX && c == 'x');
     }
 
     /**
@@ -300,6 +406,24 @@ public class MStrings {
         return isValidHex(hex) ? hex : null;
     }
 
+    private static boolean isHexFormat(@NotNull CharSequence s, int start, int to, int sum, char colorChar) {
+        final int max = start + (sum * 6);
+        if (max > to) {
+            return false;
+        }
+        for (int i = start; i < max; i = i + sum) {
+            if (s.charAt(i) != colorChar || i + 1 >= to) {
+                return false;
+            }
+            final char c = s.charAt(i + 1);
+            // Same rules as Integer.parseInt(hex, 16)
+            if (Character.digit(c, 16) < 0 && (i != start || (c != '+' && c != '-'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Justify the provided text collection based on default Minecraft font.<br>
      * This method calculate line pixels width using the widest text from the collection.
@@ -747,33 +871,25 @@ public class MStrings {
         final boolean looping = args.length > 1 && COLOR_SPECIAL_LOOP.contains(args[args.length - 1].toLowerCase());
 
         // Text base objects
-        int length = text.length();
-        for (int i = 0; i < text.length() - 1; i++) {
-            if (text.charAt(i) == COLOR_CHAR && isAnyColorCode(text.charAt(i + 1))) {
-                length -= 2;
-            }
-        }
+        final int length = getColorableLength(text);
         final int totalColors = Math.max(looping ? Math.min(length, 30) : length, 1);
         final float hueStep = 1.0F / totalColors;
 
-        float hue = speed != 0 ? (float) ((((Math.floor(System.currentTimeMillis() / 50.0)) / 360) * speed) % 1) : 0;
+        final float hue = speed != 0 ? (float) ((((Math.floor(System.currentTimeMillis() / 50.0)) / 360) * speed) % 1) : 0;
 
-        final StringBuilder builder = new StringBuilder();
-        for (int i = 0; i < text.length(); i++) {
-            final char c = text.charAt(i);
-            if (c == COLOR_CHAR && i + 1 < text.length()) {
-                final char c1 = text.charAt(i + 1);
-                if (isAnyColorCode(c1)) {
-                    i++;
-                    builder.append(c).append(c1);
-                    continue;
-                }
+        final Palette key = new Palette(args, Float.floatToIntBits(hue), length);
+        char[][] palette = getPalette(key);
+        if (palette == null) {
+            palette = new char[length][];
+            float h = hue;
+            for (int i = 0; i < length; i++) {
+                palette[i] = toRgb(Color.getHSBColor(h, saturation, brightness)).toCharArray();
+                h += hueStep;
             }
-            builder.append(toRgb(Color.getHSBColor(hue, saturation, brightness))).append(c);
-            hue += hueStep;
+            putPalette(key, palette);
         }
 
-        return builder.toString();
+        return applyPalette(text, palette);
     }
 
     private static String toGradient(@NotNull String text, int speed, @NotNull String... args) {
@@ -797,33 +913,27 @@ public class MStrings {
         }
 
         // Text base objects
-        int length = text.length();
-        for (int i = 0; i < text.length() - 1; i++) {
-            if (text.charAt(i) == COLOR_CHAR && isAnyColorCode(text.charAt(i + 1))) {
-                length -= 2;
-            }
-        }
+        final int length = getColorableLength(text);
         final int totalSteps = (looping ? Math.min(length, 30) : length) - 1;
 
-        long hexStep = speed != 0 ? System.currentTimeMillis() / speed : 0;
+        final long hexStep = speed != 0 ? System.currentTimeMillis() / speed : 0;
+
+        final Palette key = new Palette(args, hexStep, length);
+        char[][] palette = getPalette(key);
+        if (palette != null) {
+            return applyPalette(text, palette);
+        }
+
         final int roundSize = (colors.size() - 1) / 2 + 1;
         final float segment = (float) totalSteps / roundSize;
         final float increment = (float) totalSteps / (colors.size() - 1);
 
-        final StringBuilder builder = new StringBuilder();
-        for (int i = 0; i < text.length(); i++) {
-            final char c = text.charAt(i);
-            if (c == COLOR_CHAR && i + 1 < text.length()) {
-                final char c1 = text.charAt(i + 1);
-                if (isAnyColorCode(c1)) {
-                    i++;
-                    builder.append(c).append(c1);
-                    continue;
-                }
-            }
+        palette = new char[length][];
+        for (int i = 0; i < length; i++) {
+            final long step = hexStep + i;
             // Formula taken from RoseColors and created by BomBardyGamer
             // Return the absolute rounded value of "2 * ASIN(SIN(hexStep * (PI / (2 * totalSteps))) / PI) * totalSteps"
-            final int adjustedStep = (int) Math.round(Math.abs(((2 * Math.asin(Math.sin(hexStep * (Math.PI / (2 * totalSteps))))) / Math.PI) * totalSteps));
+            final int adjustedStep = (int) Math.round(Math.abs(((2 * Math.asin(Math.sin(step * (Math.PI / (2 * totalSteps))))) / Math.PI) * totalSteps));
 
             final int index = (int) Math.min(colors.size() - 2, Math.min(Math.floor(adjustedStep / segment), roundSize - 1) * 2);
 
@@ -839,13 +949,63 @@ public class MStrings {
                     calculateHexPiece(range, lowerRange, adjustedStep, fromColor.getBlue(), toColor.getBlue())
             );
 
-            builder.append(toRgb(finalColor)).append(c);
-            hexStep++;
+            palette[i] = toRgb(finalColor).toCharArray();
+        }
+        putPalette(key, palette);
+
+        return applyPalette(text, palette);
+    }
+
+    private static int getColorableLength(@NotNull String text) {
+        int length = text.length();
+        for (int i = 0; i < text.length() - 1; i++) {
+            if (text.charAt(i) == COLOR_CHAR && isAnyColorCode(text.charAt(i + 1))) {
+                length -= 2;
+            }
         }
+        return length;
+    }
 
+    @NotNull
+    private static String applyPalette(@NotNull String text, char[][] palette) {
+        final StringBuilder builder = new StringBuilder(text.length() + palette.length * (BUNGEE_HEX ? 14 : 8));
+        int index = 0;
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c == COLOR_CHAR && i + 1 < text.length()) {
+                final char c1 = text.charAt(i + 1);
+                if (isAnyColorCode(c1)) {
+                    i++;
+                    builder.append(c).append(c1);
+                    continue;
+                }
+            }
+            builder.append(palette[index++]).append(c);
+        }
         return builder.toString();
     }
 
+    @Nullable
+    private static char[][] getPalette(@NotNull Palette key) {
+        if (key.length > PALETTE_MAX_LENGTH) {
+            return null;
+        }
+        synchronized (PALETTE_CACHE) {
+            return PALETTE_CACHE.get(key);
+        }
+    }
+
+    private static void putPalette(@NotNull Palette key, char[][] palette) {
+        if (key.length > PALETTE_MAX_LENGTH) {
+            return;
+        }
+        // Copy arguments, so external array modifications don't affect the cached key
+        final Palette copy = new Palette(key.args.clone(), key.offset, key.length);
+        synchronized (PALETTE_CACHE) {
+            PALETTE_CACHE.put(copy, palette);
+        }
+    }
+
     private static int intValue(String s, int def) {
         try {
             return Integer.parseInt(s);
@@ -867,4 +1027,43 @@ public class MStrings {
         final float interval = (toChannel - fromChannel) / range;
         return Math.round(interval * (step - lowerRange) + fromChannel);
     }
+
+    /**
+     * Special color palette identifier, it depends on special color arguments, time offset,
+     * amount of colors and the current {@link #BUNGEE_HEX} mode.
+     */
+    private static final class Palette {
+
+        private final String[] args;
+        private final long offset;
+        private final int length;
+        private final boolean bungee;
+        private final int hash;
+
+        Palette(@NotNull String[] args, long offset, int length) {
+            this.args = args;
+            this.offset = offset;
+            this.length = length;
+            this.bungee = BUNGEE_HEX;
+            int hash = Arrays.hashCode(args);
+            hash = 31 * hash + Long.hashCode(offset);
+            hash = 31 * hash + length;
+            hash = 31 * hash + (bungee ? 1 : 0);
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Palette)) return false;
+
+            final Palette palette = (Palette) o;
+            return offset == palette.offset && length == palette.length && bungee == palette.bungee && Arrays.equals(args, palette.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
 }
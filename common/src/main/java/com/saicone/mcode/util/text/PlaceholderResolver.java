@@ -0,0 +1,280 @@
+package com.saicone.mcode.util.text;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+public class PlaceholderResolver {
+
+    private static final Object NULL = new Object();
+    private static final int MAX_EXPANSIONS = 1024;
+    private static final int MAX_VALUES = 8192;
+
+    private final Function<String, Replacer> registry;
+    private final LongSupplier clock;
+    // Value cache key of every subject, so platform objects like players are not held by the cache
+    private final Function<Object, Object> subjectKey;
+
+    private final Map<String, Expansion> expansions = new ConcurrentHashMap<>();
+    private final Map<Key, Value> values = new ConcurrentHashMap<>();
+
+    private volatile long expansionTtl = 2400L; // 2 minutes
+    private volatile long valueTtl = 0L; // Disabled by default
+    private volatile long lastPurge = Long.MIN_VALUE;
+
+    private final LongAdder expansionHits = new LongAdder();
+    private final LongAdder expansionMisses = new LongAdder();
+    private final LongAdder valueHits = new LongAdder();
+    private final LongAdder valueMisses = new LongAdder();
+
+    // Not the server tick, just wall-clock time in buckets of 50ms, every TTL is measured in these buckets
+    public static long currentTick() {
+        return System.currentTimeMillis() / 50L;
+    }
+
+    public PlaceholderResolver(@NotNull Function<String, Replacer> registry) {
+        this(registry, PlaceholderResolver::currentTick);
+    }
+
+    public PlaceholderResolver(@NotNull Function<String, Replacer> registry, @NotNull LongSupplier clock) {
+        this(registry, clock, Function.identity());
+    }
+
+    public PlaceholderResolver(@NotNull Function<String, Replacer> registry, @NotNull LongSupplier clock, @NotNull Function<Object, Object> subjectKey) {
+        this.registry = registry;
+        this.clock = clock;
+        this.subjectKey = subjectKey;
+    }
+
+    @NotNull
+    public Function<String, Replacer> getRegistry() {
+        return registry;
+    }
+
+    public long getExpansionTtl() {
+        return expansionTtl;
+    }
+
+    public long getValueTtl() {
+        return valueTtl;
+    }
+
+    public long getExpansionHits() {
+        return expansionHits.sum();
+    }
+
+    public long getExpansionMisses() {
+        return expansionMisses.sum();
+    }
+
+    public long getValueHits() {
+        return valueHits.sum();
+    }
+
+    public long getValueMisses() {
+        return valueMisses.sum();
+    }
+
+    public void setExpansionTtl(long ticks) {
+        this.expansionTtl = ticks;
+        this.expansions.clear();
+    }
+
+    public void setValueTtl(long ticks) {
+        this.valueTtl = ticks;
+        this.values.clear();
+    }
+
+    @Nullable
+    public Replacer lookup(@NotNull String identifier) {
+        final long now = clock.getAsLong();
+        Expansion expansion = expansions.get(identifier);
+        if (expansion != null && expansion.expire > now) {
+            expansionHits.increment();
+            return expansion.replacer;
+        }
+        expansionMisses.increment();
+
+        final Replacer replacer = registry.apply(identifier);
+        expansion = new Expansion(replacer == null ? null : new CachedReplacer(identifier, replacer), now + expansionTtl);
+        if (expansions.size() >= MAX_EXPANSIONS) {
+            expansions.values().removeIf(e -> e.expire <= now);
+            if (expansions.size() >= MAX_EXPANSIONS) {
+                expansions.clear();
+            }
+        }
+        expansions.put(identifier, expansion);
+        return expansion.replacer;
+    }
+
+    @Nullable
+    public Object resolve(@Nullable Object subject, @NotNull String placeholder) {
+        final int index = placeholder.indexOf('_');
+        if (index < 1 || index + 1 >= placeholder.length()) {
+            return null;
+        }
+        final Replacer replacer = lookup(placeholder.substring(0, index));
+        if (replacer == null) {
+            return null;
+        }
+        return replacer.replace(subject, placeholder.substring(index + 1));
+    }
+
+    @NotNull
+    public Map<String, Object> resolveAll(@Nullable Object subject, @NotNull Iterable<String> placeholders) {
+        final Map<String, Object> map = new LinkedHashMap<>();
+        for (String placeholder : placeholders) {
+            if (!map.containsKey(placeholder)) {
+                map.put(placeholder, resolve(subject, placeholder));
+            }
+        }
+        return map;
+    }
+
+    @NotNull
+    public Map<String, Object> resolveAll(@Nullable Object subject, @NotNull CharSequence text, char start, char end) {
+        final Map<String, Object> map = new LinkedHashMap<>();
+        final int length = text.length();
+        int i = 0;
+        while (i < length) {
+            if (text.charAt(i) != start) {
+                i++;
+                continue;
+            }
+            int close = i + 1;
+            while (close < length && text.charAt(close) != end) {
+                close++;
+            }
+            if (close >= length) {
+                break;
+            }
+            final String placeholder = text.subSequence(i + 1, close).toString();
+            if (placeholder.indexOf('_') > 0 && !map.containsKey(placeholder)) {
+                map.put(placeholder, resolve(subject, placeholder));
+            }
+            i = close + 1;
+        }
+        return map;
+    }
+
+    public void invalidate() {
+        expansions.clear();
+        values.clear();
+    }
+
+    public void invalidate(@Nullable Object subject) {
+        if (values.isEmpty()) {
+            return;
+        }
+        final Object id = subject == null ? null : subjectKey.apply(subject);
+        values.keySet().removeIf(key -> Objects.equals(key.subject, id));
+    }
+
+    private void purge(long now) {
+        final long ttl = Math.max(valueTtl, 1L);
+        if (now - lastPurge < ttl && values.size() < MAX_VALUES) {
+            return;
+        }
+        lastPurge = now;
+        values.values().removeIf(value -> value.expire <= now);
+        if (values.size() >= MAX_VALUES) {
+            values.clear();
+        }
+    }
+
+    private final class CachedReplacer implements Replacer {
+
+        private final String identifier;
+        private final Replacer delegate;
+
+        CachedReplacer(@NotNull String identifier, @NotNull Replacer delegate) {
+            this.identifier = identifier;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public @Nullable Object replace(@Nullable Object subject, @NotNull String params) {
+            final long ttl = valueTtl;
+            if (ttl <= 0) {
+                return delegate.replace(subject, params);
+            }
+            final long now = clock.getAsLong();
+            final Key key = new Key(subject == null ? null : subjectKey.apply(subject), identifier, params);
+            final Value cached = values.get(key);
+            if (cached != null && cached.expire > now) {
+                valueHits.increment();
+                return cached.value == NULL ? null : cached.value;
+            }
+            valueMisses.increment();
+
+            final Object result = delegate.replace(subject, params);
+            purge(now);
+            values.put(key, new Value(result == null ? NULL : result, now + ttl));
+            return result;
+        }
+
+        @Override
+        public @Nullable Object replace(@Nullable Object subject, @NotNull Object relative, @NotNull String params) {
+            // Relational values depend on both players, so they are never cached
+            return delegate.replace(subject, relative, params);
+        }
+    }
+
+    private static final class Expansion {
+
+        private final Replacer replacer;
+        private final long expire;
+
+        Expansion(@Nullable Replacer replacer, long expire) {
+            this.replacer = replacer;
+            this.expire = expire;
+        }
+    }
+
+    private static final class Value {
+
+        private final Object value;
+        private final long expire;
+
+        Value(@NotNull Object value, long expire) {
+            this.value = value;
+            this.expire = expire;
+        }
+    }
+
+    private static final class Key {
+
+        private final Object subject;
+        private final String identifier;
+        private final String params;
+        private final int hash;
+
+        Key(@Nullable Object subject, @NotNull String identifier, @NotNull String params) {
+            this.subject = subject;
+            this.identifier = identifier;
+            this.params = params;
+            this.hash = 31 * (31 * Objects.hashCode(subject) + identifier.hashCode()) + params.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            final Key key = (Key) o;
+            return Objects.equals(subject, key.subject) && identifier.equals(key.identifier) && params.equals(key.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -11,7 +11,6 @@ import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 public class Strings {
 
@@ -19,6 +18,10 @@ public class Strings {
     private static final Pattern BRACKET_PLACEHOLDER = Pattern.compile("[{]([^%]+)}");
     private static final Pattern CUSTOM_COLOR = Pattern.compile("\\[color(?<index>\\d+)](?<text>.*)\\[/color]");
 
+    private static final int DEFAULT_BUILDER_CAPACITY = 256;
+    private static final int MAX_BUILDER_CAPACITY = 8192;
+    private static final ThreadLocal<StringBuilder> LOCAL_BUILDER = new ThreadLocal<>();
+
     public static boolean matchesPlaceholder(@Nullable String s) {
         return s != null && !s.isBlank() && (PERCENT_PLACEHOLDER.matcher(s).matches() || BRACKET_PLACEHOLDER.matcher(s).matches());
     }
@@ -380,92 +383,105 @@ public class Strings {
 
     @NotNull
     public static String replaceArgs(@NotNull String s, @Nullable Object... args) {
-        if (args.length < 1 || s.isBlank()) {
-            return s.replace("{#}", "0").replace("{*}", "[]").replace("{-}", "");
+        if (s.indexOf('{') < 0) {
+            return s;
         }
-        final char[] chars = s.toCharArray();
-        final StringBuilder builder = new StringBuilder(s.length());
-        String all = null;
-        for (int i = 0; i < chars.length; i++) {
+        return releaseBuilder(replaceArgs(borrowBuilder(), s, args));
+    }
+
+    @NotNull
+    public static StringBuilder replaceArgs(@NotNull StringBuilder out, @NotNull CharSequence src, @Nullable Object... args) {
+        final int length = src.length();
+        final boolean empty = args == null || args.length < 1;
+        int literal = 0;
+        for (int i = 0; i < length; i++) {
+            if (src.charAt(i) != '{') {
+                continue;
+            }
             final int mark = i;
-            if (chars[i] == '{') {
-                int num = 0;
-                while (i + 1 < chars.length) {
-                    if (Character.isDigit(chars[i + 1])) {
+            int num = 0;
+            while (i + 1 < length) {
+                final char c = src.charAt(i + 1);
+                if (Character.isDigit(c)) {
+                    i++;
+                    num *= 10;
+                    num += c - '0';
+                    continue;
+                }
+                if (i == mark) {
+                    if (c == '#') {
                         i++;
-                        num *= 10;
-                        num += chars[i] - '0';
-                        continue;
-                    }
-                    if (i == mark) {
-                        final char c = chars[i + 1];
-                        if (c == '#') {
-                            i++;
-                            num = -1;
-                        } else if (c == '*') {
-                            i++;
-                            num = -2;
-                        } else if (c == '-') {
-                            i++;
-                            num = -3;
-                        }
+                        num = -1;
+                    } else if (c == '*') {
+                        i++;
+                        num = -2;
+                    } else if (c == '-') {
+                        i++;
+                        num = -3;
                     }
-                    break;
                 }
-                if (i != mark && i + 1 < chars.length && chars[i + 1] == '}') {
-                    i++;
-                    if (num == -1) {
-                        builder.append(args.length);
-                    } else if (num == -2) {
-                        builder.append(Arrays.toString(args));
-                    } else if (num == -3) {
-                        if (all == null) {
-                            all = Arrays.stream(args).map(String::valueOf).collect(Collectors.joining(" "));
+                break;
+            }
+            if (i == mark || i + 1 >= length || src.charAt(i + 1) != '}') {
+                i = mark;
+                continue;
+            }
+            i++;
+            out.append(src, literal, mark);
+            literal = i + 1;
+            if (num == -1) {
+                out.append(empty ? 0 : args.length);
+            } else if (num == -2) {
+                out.append(empty ? "[]" : Arrays.toString(args));
+            } else if (num == -3) {
+                if (!empty) {
+                    for (int j = 0; j < args.length; j++) {
+                        if (j > 0) {
+                            out.append(' ');
                         }
-                        builder.append(all);
-                    } else if (num < args.length) { // Avoid IndexOutOfBoundsException
-                        builder.append(args[num]);
-                    } else {
-                        builder.append('{').append(num).append('}');
+                        out.append(args[j]);
                     }
-                } else {
-                    i = mark;
                 }
-            }
-            if (mark == i) {
-                builder.append(chars[i]);
+            } else if (empty) {
+                // Indexed args are kept untouched without arguments
+                out.append(src, mark, literal);
+            } else if (num >= 0 && num < args.length) { // Avoid IndexOutOfBoundsException
+                out.append(args[num]);
+            } else {
+                out.append('{').append(num).append('}');
             }
         }
-        return builder.toString();
+        return out.append(src, literal, length);
     }
 
     @NotNull
     public static String replaceArgs(@NotNull String s, @NotNull Map<String, Object> args) {
-        if (args.size() < 1 || s.isBlank()) {
+        if (args.size() < 1 || s.isBlank() || s.indexOf('{') < 0) {
             return s;
         }
-        final StringBuilder builder = new StringBuilder(s.length());
+        return releaseBuilder(replaceArgs(borrowBuilder(), s, args));
+    }
+
+    @NotNull
+    public static StringBuilder replaceArgs(@NotNull StringBuilder out, @NotNull CharSequence src, @NotNull Map<String, Object> args) {
+        final int length = src.length();
+        if (args.size() < 1) {
+            return out.append(src);
+        }
         int start = 0;
         int end;
-        int index = 0;
-        while ((start = s.indexOf('{', start)) >= 0 && (end = s.indexOf('}', start)) >= 0) {
-            if (index < start) {
-                builder.append(s, index, start);
-            }
+        int literal = 0;
+        while ((start = indexOf(src, '{', start)) >= 0 && (end = indexOf(src, '}', start)) >= 0) {
             if (end - start > 1) {
-                final String key = s.substring(start + 1, end);
+                final String key = src.subSequence(start + 1, end).toString();
                 if (args.containsKey(key)) {
-                    builder.append(args.get(key));
-                } else {
-                    builder.append('{').append(key).append('}');
+                    out.append(src, literal, start).append(args.get(key));
+                    literal = end + 1;
                 }
             }
-            index = end + 1;
-        }
-        if (index < s.length()) {
-            builder.append(s, index, s.length());
+            start = end + 1;
         }
-        return builder.toString();
+        return out.append(src, literal, length);
     }
 
     @NotNull
@@ -480,60 +496,88 @@ public class Strings {
 
     @NotNull
     public static String replacePlaceholder(@Nullable Object subject, @Nullable Object relative, @NotNull String s, char start, char end, @NotNull Function<String, Replacer> lookup) {
-        if (s.isBlank() || !s.contains("" + start) || s.length() < 4) {
+        if (s.length() < 4 || s.indexOf(start) < 0) {
             return s;
         }
+        return releaseBuilder(replacePlaceholder(subject, relative, s, start, end, lookup, borrowBuilder()));
+    }
 
-        final char[] chars = s.toCharArray();
-        final StringBuilder builder = new StringBuilder(s.length());
-
-        int mark = 0;
-        for (int i = 0; i < chars.length; i++) {
-            final char c = chars[i];
+    @NotNull
+    public static StringBuilder replacePlaceholder(@Nullable Object subject, @Nullable Object relative, @NotNull CharSequence src, char start, char end, @NotNull Function<String, Replacer> lookup, @NotNull StringBuilder out) {
+        final int length = src.length();
+        if (length < 4) {
+            return out.append(src);
+        }
 
-            builder.append(c);
-            if (c != start || i + 1 >= chars.length) {
-                mark++;
+        int literal = 0;
+        for (int i = 0; i < length; i++) {
+            if (src.charAt(i) != start || i + 1 >= length) {
                 continue;
             }
 
             // Faster than PlaceholderAPI ;)
+            final int mark = i;
             final int mark1 = i + 1;
-            while (++i < chars.length) {
-                final char c1 = chars[i];
+            while (++i < length) {
+                final char c1 = src.charAt(i);
                 if (c1 == '_') {
-                    if (i > mark1 && i + 2 < chars.length) {
-                        final String id = s.substring(mark1, i);
-                        final Replacer replacer = lookup.apply(id);
+                    if (i > mark1 && i + 2 < length) {
+                        final Replacer replacer = lookup.apply(src.subSequence(mark1, i).toString());
                         if (replacer != null) {
                             final int mark2 = i + 1;
-                            while (++i < chars.length) {
-                                final char c2 = chars[i];
-                                if (c2 == end) {
-                                    final String params = s.substring(mark2, i);
-                                    final Object result = relative == null ? replacer.replace(subject, params) : replacer.replace(subject, relative, params);
-                                    builder.replace(mark, i, String.valueOf(result));
-                                    break;
-                                } else {
-                                    builder.append(c2);
-                                }
+                            final int index = indexOf(src, end, mark2);
+                            if (index < 0) {
+                                // Unclosed placeholder, keep the rest as is
+                                i = length;
+                                break;
                             }
-                            break;
+                            final String params = src.subSequence(mark2, index).toString();
+                            final Object result = relative == null ? replacer.replace(subject, params) : replacer.replace(subject, relative, params);
+                            out.append(src, literal, mark).append(result);
+                            literal = index + 1;
+                            i = index;
                         }
                     }
-                    builder.append(c1);
                     break;
-                } else {
-                    builder.append(c1);
-                    if (i + 1 < chars.length && chars[i + 1] == start) {
-                        break;
-                    }
+                } else if (i + 1 < length && src.charAt(i + 1) == start) {
+                    break;
                 }
             }
+        }
+
+        return out.append(src, literal, length);
+    }
 
-            mark = builder.length();
+    private static int indexOf(@NotNull CharSequence src, char c, int from) {
+        if (src instanceof String) {
+            return ((String) src).indexOf(c, from);
         }
+        for (int i = Math.max(from, 0); i < src.length(); i++) {
+            if (src.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
 
-        return builder.toString();
+    @NotNull
+    public static StringBuilder borrowBuilder() {
+        final StringBuilder builder = LOCAL_BUILDER.get();
+        if (builder == null) {
+            return new StringBuilder(DEFAULT_BUILDER_CAPACITY);
+        }
+        // Detach while borrowed, so nested calls get their own builder
+        LOCAL_BUILDER.set(null);
+        builder.setLength(0);
+        return builder;
+    }
+
+    @NotNull
+    public static String releaseBuilder(@NotNull StringBuilder builder) {
+        final String s = builder.toString();
+        if (builder.capacity() <= MAX_BUILDER_CAPACITY) {
+            LOCAL_BUILDER.set(builder);
+        }
+        return s;
     }
 }
@@ -13,6 +13,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -73,20 +74,17 @@ public class TextComponent {
             Map.entry("white", 'f')
     );
 
-    private static final JsonObject EMPTY = json(Map.of(
-            "type", "text",
-            "text", "",
-            "italic", false
-    ));
-    private static final JsonObject RESET = json(Map.of(
-            "type", "text",
-            "text", "",
-            "bold", false,
-            "italic", false,
-            "underlined", false,
-            "strikethrough", false,
-            "obfuscated", false
-    ));
+    private static final String[] STYLES = new String[] {"obfuscated", "bold", "strikethrough", "underlined", "italic"};
+    private static final byte UNSET = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+
+    private static final Part RESET = new Part(true, null);
+
+    static {
+        RESET.text = "";
+        Arrays.fill(RESET.styles, FALSE);
+    }
 
     @NotNull
     public static JsonArray toJson(@NotNull String s) {
@@ -101,15 +99,53 @@ public class TextComponent {
     @NotNull
     public static JsonArray toJson(@NotNull MC version, @NotNull String s, @NotNull String defaultColor) {
         final JsonArray array = new JsonArray();
-        final boolean containsUrl = s.contains("http");
-        if (s.isBlank() || (s.indexOf(COLOR_CHAR) < 0 && !containsUrl)) {
+        final List<Part> parts = toParts(s, defaultColor);
+        if (parts == null) {
             array.add(new JsonPrimitive(s));
             return array;
         }
+        for (Part part : parts) {
+            final JsonObject object = new JsonObject();
+            if (part.base) {
+                object.add("type", new JsonPrimitive("text"));
+            }
+            if (part.color != null) {
+                object.add("color", new JsonPrimitive(part.color));
+            }
+            for (int i = 0; i < STYLES.length; i++) {
+                if (part.styles[i] != UNSET) {
+                    object.add(STYLES[i], new JsonPrimitive(part.styles[i] == TRUE));
+                }
+            }
+            final JsonPrimitive text = new JsonPrimitive(part.text);
+            object.add("text", text);
+            if (part.url) {
+                final JsonObject clickEvent = new JsonObject();
+                clickEvent.add("action", new JsonPrimitive("open_url"));
+                if (version.isNewerThanOrEquals(MC.V_1_21_5)) {
+                    clickEvent.add("url", text);
+                    object.add("click_event", clickEvent);
+                } else {
+                    clickEvent.add("value", text);
+                    object.add("clickEvent", clickEvent);
+                }
+            }
+            array.add(object);
+        }
+        return array;
+    }
+
+    @Nullable
+    private static List<Part> toParts(@NotNull String s, @NotNull String defaultColor) {
+        final boolean containsUrl = s.contains("http");
+        if (s.isBlank() || (s.indexOf(COLOR_CHAR) < 0 && !containsUrl)) {
+            return null;
+        }
 
-        JsonObject object = EMPTY.deepCopy();
-        object.add("color", new JsonPrimitive(defaultColor));
-        StringBuilder text = new StringBuilder();
+        final List<Part> parts = new ArrayList<>();
+        Part part = new Part(true, defaultColor);
+        part.styles[4] = FALSE; // Non-italic by default
+        final StringBuilder text = new StringBuilder();
         boolean obfuscated = false;
         boolean bold = false;
         boolean strikethrough = false;
@@ -138,55 +174,55 @@ public class TextComponent {
                 }
                 if (color != null) { // color
                     if (text.length() > 0) {
-                        object.add("text", new JsonPrimitive(text.toString()));
-                        array.add(object);
-                        object = new JsonObject();
+                        part.text = text.toString();
+                        parts.add(part);
+                        part = new Part(false, null);
+                        text.setLength(0);
                     }
-                    object.add("color", new JsonPrimitive(color));
+                    part.color = color;
                     if (obfuscated) {
-                        object.add("obfuscated", new JsonPrimitive(false));
+                        part.styles[0] = FALSE;
                     }
                     if (bold) {
-                        object.add("bold", new JsonPrimitive(false));
+                        part.styles[1] = FALSE;
                     }
                     if (strikethrough) {
-                        object.add("strikethrough", new JsonPrimitive(false));
+                        part.styles[2] = FALSE;
                     }
                     if (underlined) {
-                        object.add("underlined", new JsonPrimitive(false));
+                        part.styles[3] = FALSE;
                     }
                     if (italic) {
-                        object.add("italic", new JsonPrimitive(false));
+                        part.styles[4] = FALSE;
                     }
                 } else if (c1 == 'r') { // reset
                     if (text.length() > 0) {
-                        object.add("text", new JsonPrimitive(text.toString()));
-                        array.add(object);
+                        part.text = text.toString();
+                        parts.add(part);
                     }
-                    array.add(RESET.deepCopy());
-                    object = new JsonObject();
-                    object.add("color", new JsonPrimitive(defaultColor));
-                    text = new StringBuilder();
+                    parts.add(RESET);
+                    part = new Part(false, defaultColor);
+                    text.setLength(0);
                 } else { // style
                     switch (c1) {
                         case 'k':
-                            object.add("obfuscated", new JsonPrimitive(true));
+                            part.styles[0] = TRUE;
                             obfuscated = true;
                             break;
                         case 'l':
-                            object.add("bold", new JsonPrimitive(true));
+                            part.styles[1] = TRUE;
                             bold = true;
                             break;
                         case 'm':
-                            object.add("strikethrough", new JsonPrimitive(true));
+                            part.styles[2] = TRUE;
                             strikethrough = true;
                             break;
                         case 'n':
-                            object.add("underlined", new JsonPrimitive(true));
+                            part.styles[3] = TRUE;
                             underlined = true;
                             break;
                         case 'o':
-                            object.add("italic", new JsonPrimitive(true));
+                            part.styles[4] = TRUE;
                             italic = true;
                             break;
                         default:
@@ -202,50 +238,35 @@ public class TextComponent {
                 underlined = false;
                 italic = false;
                 i++;
-            } else if (c == 'h' || c == 'H') { // open url
-                final String start = s.substring(i, i + 8).toLowerCase();
-                if (start.equals("https://") || start.startsWith("http://")) {
-                    if (text.length() > 0) {
-                        final JsonObject plain = object.deepCopy();
-                        plain.add("text", new JsonPrimitive(text.toString()));
-                        array.add(plain);
-                    }
-
-                    int end = s.indexOf(' ', i);
-                    if (end < 0) {
-                        end = s.length();
-                    }
-                    final JsonPrimitive url = new JsonPrimitive(s.substring(i, end));
-                    object.add("text", url);
-
-                    final JsonObject clickEvent = new JsonObject();
-                    clickEvent.add("action", new JsonPrimitive("open_url"));
-                    if (version.isNewerThanOrEquals(MC.V_1_21_5)) {
-                        clickEvent.add("url", url);
-                        object.add("click_event", clickEvent);
-                    } else {
-                        clickEvent.add("value", url);
-                        object.add("clickEvent", clickEvent);
-                    }
+            } else if ((c == 'h' || c == 'H') && (s.regionMatches(true, i, "https://", 0, 8) || s.regionMatches(true, i, "http://", 0, 7))) { // open url
+                if (text.length() > 0) {
+                    final Part plain = part.copy();
+                    plain.text = text.toString();
+                    parts.add(plain);
+                }
 
-                    array.add(object);
-                    object = new JsonObject();
-                    text = new StringBuilder();
-                    i = end - 1;
-                } else {
-                    text.append(c);
+                int end = s.indexOf(' ', i);
+                if (end < 0) {
+                    end = s.length();
                 }
+                part.text = s.substring(i, end);
+                part.url = true;
+
+                parts.add(part);
+                part = new Part(false, null);
+                text.setLength(0);
+                i = end - 1;
             } else {
                 text.append(c);
             }
         }
 
         if (text.length() > 0) {
-            object.add("text", new JsonPrimitive(text.toString()));
-            array.add(object);
+            part.text = text.toString();
+            parts.add(part);
         }
 
-        return array;
+        return parts;
     }
 
     @NotNull
@@ -323,26 +344,6 @@ public class TextComponent {
         }
     }
 
-    @NotNull
-    private static JsonObject json(@NotNull Map<String, Object> map) {
-        final JsonObject object = new JsonObject();
-
-        for (Map.Entry<String, Object> entry : map.entrySet()) {
-            final Object value = entry.getValue();
-            if (value instanceof Boolean) {
-                object.add(entry.getKey(), new JsonPrimitive((Boolean) value));
-            } else if (value instanceof Number) {
-                object.add(entry.getKey(), new JsonPrimitive((Number) value));
-            } else if (value instanceof String) {
-                object.add(entry.getKey(), new JsonPrimitive((String) value));
-            } else if (value instanceof Character) {
-                object.add(entry.getKey(), new JsonPrimitive((Character) value));
-            }
-        }
-
-        return object;
-    }
-
     @NotNull
     public static MC readVersion(@NotNull String s) {
         for (int i = 0; i < s.length(); i++) {
@@ -513,7 +514,9 @@ public class TextComponent {
             for (@NotNull String key : path) {
                 count++;
                 object = object.getAsJsonObject().get(key);
-                if (!object.isJsonObject()) {
+                if (object == null) {
+                    return null;
+                } else if (!object.isJsonObject()) {
                     return count == path.length ? object : null;
                 }
             }
@@ -540,6 +543,7 @@ public class TextComponent {
 
     @NotNull
     public static JsonElement apply(@NotNull JsonElement element, @NotNull UnaryOperator<String> operator) {
+        // Objects and arrays are always copied, the returned element must not share a mutable tree with the given one
         if (element.isJsonObject()) {
             final JsonObject object = new JsonObject();
             for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
@@ -547,13 +551,17 @@ public class TextComponent {
             }
             return object;
         } else if (element.isJsonArray()) {
-            final JsonArray array = new JsonArray();
-            for (JsonElement e : element.getAsJsonArray()) {
+            final JsonArray source = element.getAsJsonArray();
+            final JsonArray array = new JsonArray(source.size());
+            for (JsonElement e : source) {
                 array.add(apply(e, operator));
             }
             return array;
         } else if (element.isJsonPrimitive() && ((JsonPrimitive) element).isString()) {
-            return new JsonPrimitive(operator.apply(element.getAsString()));
+            final String value = element.getAsString();
+            final String result = operator.apply(value);
+            // Primitives are immutable, so unchanged strings can be shared
+            return value.equals(result) ? element : new JsonPrimitive(result);
         } else {
             return element;
         }
@@ -564,14 +572,16 @@ public class TextComponent {
     public static <T> T apply(@NotNull T tag, @NotNull TagMapper<T> mapper, @NotNull UnaryOperator<String> operator) {
         final byte type = mapper.typeId(tag);
         if (type == Tag.COMPOUND) {
-            final Map<String, T> map = new HashMap<>();
-            for (Map.Entry<String, T> entry : ((Map<String, T>) mapper.extract(tag)).entrySet()) {
+            final Map<String, T> source = (Map<String, T>) mapper.extract(tag);
+            final Map<String, T> map = new HashMap<>(Math.max(16, (int) (source.size() / 0.75f) + 1));
+            for (Map.Entry<String, T> entry : source.entrySet()) {
                 map.put(entry.getKey(), apply(entry.getValue(), mapper, operator));
             }
             return mapper.build(TagType.COMPOUND, map);
         } else if (type == Tag.LIST) {
-            final List<T> list = new ArrayList<>();
-            for (T element : (List<T>) mapper.extract(tag)) {
+            final List<T> source = (List<T>) mapper.extract(tag);
+            final List<T> list = new ArrayList<>(source.size());
+            for (T element : source) {
                 list.add(apply(element, mapper, operator));
             }
             return mapper.build(TagType.LIST, list);
@@ -581,4 +591,25 @@ public class TextComponent {
             return tag;
         }
     }
+
+    private static final class Part {
+
+        private final boolean base;
+        private final byte[] styles = new byte[STYLES.length];
+        private String color;
+        private String text;
+        private boolean url;
+
+        Part(boolean base, @Nullable String color) {
+            this.base = base;
+            this.color = color;
+        }
+
+        @NotNull
+        Part copy() {
+            final Part part = new Part(base, color);
+            System.arraycopy(styles, 0, part.styles, 0, styles.length);
+            return part;
+        }
+    }
 }
@@ -0,0 +1,244 @@
+package com.saicone.mcode.util.text;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+public class TextTemplate {
+
+    private static final byte LITERAL = 0;
+    private static final byte INDEX = 1;
+    private static final byte SIZE = 2;
+    private static final byte ARRAY = 3;
+    private static final byte JOIN = 4;
+    private static final byte KEY = 5;
+
+    private static final Segment[] NO_SEGMENTS = new Segment[0];
+
+    private final String source;
+    private final Segment[] segments;
+    private final Segment[] keySegments;
+
+    @NotNull
+    public static TextTemplate compile(@NotNull String s) {
+        return new TextTemplate(s);
+    }
+
+    TextTemplate(@NotNull String source) {
+        this.source = source;
+        this.segments = compileIndexed(source);
+        this.keySegments = compileKeyed(source);
+    }
+
+    @NotNull
+    private static Segment[] compileIndexed(@NotNull String s) {
+        if (s.indexOf('{') < 0) {
+            return NO_SEGMENTS;
+        }
+        final List<Segment> list = new ArrayList<>();
+        final int length = s.length();
+        int literal = 0;
+        for (int i = 0; i < length; i++) {
+            if (s.charAt(i) != '{') {
+                continue;
+            }
+            final int mark = i;
+            int num = 0;
+            while (i + 1 < length) {
+                final char c = s.charAt(i + 1);
+                if (Character.isDigit(c)) {
+                    i++;
+                    num *= 10;
+                    num += c - '0';
+                    continue;
+                }
+                if (i == mark) {
+                    if (c == '#') {
+                        i++;
+                        num = -1;
+                    } else if (c == '*') {
+                        i++;
+                        num = -2;
+                    } else if (c == '-') {
+                        i++;
+                        num = -3;
+                    }
+                }
+                break;
+            }
+            if (i != mark && i + 1 < length && s.charAt(i + 1) == '}') {
+                i++;
+                if (literal < mark) {
+                    list.add(new Segment(LITERAL, literal, mark, 0, null));
+                }
+                final byte type;
+                switch (num) {
+                    case -1:
+                        type = SIZE;
+                        break;
+                    case -2:
+                        type = ARRAY;
+                        break;
+                    case -3:
+                        type = JOIN;
+                        break;
+                    default:
+                        type = INDEX;
+                        break;
+                }
+                list.add(new Segment(type, mark, i + 1, num, null));
+                literal = i + 1;
+            } else {
+                i = mark;
+            }
+        }
+        if (list.isEmpty()) {
+            return NO_SEGMENTS;
+        }
+        if (literal < length) {
+            list.add(new Segment(LITERAL, literal, length, 0, null));
+        }
+        return list.toArray(NO_SEGMENTS);
+    }
+
+    @NotNull
+    private static Segment[] compileKeyed(@NotNull String s) {
+        if (s.isBlank() || s.indexOf('{') < 0) {
+            return NO_SEGMENTS;
+        }
+        final List<Segment> list = new ArrayList<>();
+        int start = 0;
+        int end;
+        int literal = 0;
+        while ((start = s.indexOf('{', start)) >= 0 && (end = s.indexOf('}', start)) >= 0) {
+            if (end - start > 1) {
+                if (literal < start) {
+                    list.add(new Segment(LITERAL, literal, start, 0, null));
+                }
+                list.add(new Segment(KEY, start, end + 1, 0, s.substring(start + 1, end)));
+                literal = end + 1;
+            }
+            start = end + 1;
+        }
+        if (list.isEmpty()) {
+            return NO_SEGMENTS;
+        }
+        if (literal < s.length()) {
+            list.add(new Segment(LITERAL, literal, s.length(), 0, null));
+        }
+        return list.toArray(NO_SEGMENTS);
+    }
+
+    @NotNull
+    public String getSource() {
+        return source;
+    }
+
+    public boolean hasArgs() {
+        return segments.length > 0 || keySegments.length > 0;
+    }
+
+    public boolean contains(char c) {
+        return source.indexOf(c) >= 0;
+    }
+
+    @NotNull
+    public String render(@Nullable Object... args) {
+        if (segments.length == 0) {
+            return source;
+        }
+        return Strings.releaseBuilder(render(Strings.borrowBuilder(), args));
+    }
+
+    @NotNull
+    public StringBuilder render(@NotNull StringBuilder out, @Nullable Object... args) {
+        if (segments.length == 0) {
+            return out.append(source);
+        }
+        final boolean empty = args == null || args.length < 1;
+        for (Segment segment : segments) {
+            switch (segment.type) {
+                case LITERAL:
+                    out.append(source, segment.start, segment.end);
+                    break;
+                case INDEX:
+                    if (empty) {
+                        out.append(source, segment.start, segment.end);
+                    } else if (segment.index >= 0 && segment.index < args.length) {
+                        out.append(args[segment.index]);
+                    } else {
+                        out.append('{').append(segment.index).append('}');
+                    }
+                    break;
+                case SIZE:
+                    out.append(empty ? 0 : args.length);
+                    break;
+                case ARRAY:
+                    out.append(empty ? "[]" : Arrays.toString(args));
+                    break;
+                case JOIN:
+                    if (!empty) {
+                        for (int i = 0; i < args.length; i++) {
+                            if (i > 0) {
+                                out.append(' ');
+                            }
+                            out.append(args[i]);
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return out;
+    }
+
+    @NotNull
+    public String render(@NotNull Map<String, Object> args) {
+        if (keySegments.length == 0 || args.isEmpty()) {
+            return source;
+        }
+        return Strings.releaseBuilder(render(Strings.borrowBuilder(), args));
+    }
+
+    @NotNull
+    public StringBuilder render(@NotNull StringBuilder out, @NotNull Map<String, Object> args) {
+        if (keySegments.length == 0 || args.isEmpty()) {
+            return out.append(source);
+        }
+        for (Segment segment : keySegments) {
+            if (segment.type == KEY && args.containsKey(segment.key)) {
+                out.append(args.get(segment.key));
+            } else {
+                out.append(source, segment.start, segment.end);
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    private static final class Segment {
+
+        private final byte type;
+        private final int start;
+        private final int end;
+        private final int index;
+        private final String key;
+
+        Segment(byte type, int start, int end, int index, @Nullable String key) {
+            this.type = type;
+            this.start = start;
+            this.end = end;
+            this.index = index;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.saicone.mcode.platform;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TextTest {
+
+    @Test
+    public void testKindOf() {
+        assertEquals(Text.Kind.JSON, Text.Kind.of("{\"text\":\"Hi\"}"));
+        assertEquals(Text.Kind.JSON, Text.Kind.of("  {text:\"Hi\",color:red}  "));
+        assertEquals(Text.Kind.JSON, Text.Kind.of("{'text':'Hi'}"));
+        assertEquals(Text.Kind.JSON, Text.Kind.of("['a',{text:b}]"));
+        assertEquals(Text.Kind.JSON, Text.Kind.of("\"quoted\""));
+        assertEquals(Text.Kind.JSON, Text.Kind.of("{\"text\":\"a } b\"}"));
+
+        assertEquals(Text.Kind.STRING, Text.Kind.of("hello"));
+        assertEquals(Text.Kind.STRING, Text.Kind.of("123"));
+        assertEquals(Text.Kind.STRING, Text.Kind.of(""));
+        assertEquals(Text.Kind.STRING, Text.Kind.of("{"));
+        assertEquals(Text.Kind.STRING, Text.Kind.of("[hi] and [bye"));
+        assertEquals(Text.Kind.STRING, Text.Kind.of("{a}}{"));
+        assertEquals(Text.Kind.STRING, Text.Kind.of("{\"text\":\"open}"));
+        assertEquals(Text.Kind.STRING, Text.Kind.of("<red>Hello</red>"));
+    }
+}
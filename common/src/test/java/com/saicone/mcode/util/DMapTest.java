@@ -0,0 +1,123 @@
+package com.saicone.mcode.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DMapTest {
+
+    private static final List<String> KEYS = List.of("value", "Value", "TEXT", "text", "flag", "Flags", "sound", "SOUNDS", "volume", "pitch", "display-name", "display_name", "Display Name", "x");
+    private static final List<String> REGEXES = List.of("(?i)value|text|flags?", "(?i)sounds?", "(?i)(display-?)?name", "(?i)display[ _-]?name", "(?i)volume", "(?i)pitch|x", "(?i)missing", "value|text", "(?i)flag");
+
+    @Test
+    public void testIgnoreCase() {
+        final DMap map = new DMap(new LinkedHashMap<>());
+        map.put("Value", 1);
+        map.put("value", 2);
+        map.put("TEXT", 3);
+        assertEquals(1, map.getIgnoreCase("VALUE"));
+        assertEquals(3, map.getIgnoreCase("text"));
+        assertNull(map.getIgnoreCase("missing"));
+
+        map.remove("Value");
+        assertEquals(2, map.getIgnoreCase("VALUE"));
+        map.put("missing", 4);
+        assertEquals(4, map.getIgnoreCase("MISSING"));
+    }
+
+    @Test
+    public void testRegex() {
+        final DMap map = new DMap(new LinkedHashMap<>());
+        map.put("Text", 1);
+        map.put("flags", 2);
+        assertEquals(1, map.getRegex("(?i)value|text|flags?"));
+        assertEquals(2, map.getRegex("(?i)flags?"));
+        assertNull(map.getRegex("(?i)value"));
+
+        final Object[] values = map.getRegexAll("(?i)value", "(?i)flags?", "(?i)text", "[a-z]+");
+        assertNull(values[0]);
+        assertEquals(2, values[1]);
+        assertEquals(1, values[2]);
+        assertEquals(2, values[3]);
+    }
+
+    @Test
+    public void testOutsideModification() {
+        final Map<String, Object> backing = new LinkedHashMap<>();
+        backing.put("Value", 1);
+        backing.put("Text", 2);
+        final DMap map = new DMap(backing);
+        assertNull(map.getIgnoreCase("sound"));
+
+        // Size changes are detected
+        backing.put("Sound", 3);
+        assertEquals(3, map.getIgnoreCase("sound"));
+        assertEquals(3, map.getRegex("(?i)sounds?"));
+
+        // Same size, the indexed key was removed
+        backing.remove("Value");
+        backing.put("VALUE", 4);
+        assertEquals(4, map.getIgnoreCase("value"));
+        assertEquals(4, map.getRegex("(?i)value"));
+        assertEquals(4, map.getRegexAll("(?i)value")[0]);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCopyOf() {
+        final Map<String, Object> source = new LinkedHashMap<>();
+        final Map<Object, Object> section = new LinkedHashMap<>();
+        section.put("text", "Hi");
+        section.put("none", null);
+        section.put(1, "number key");
+        section.put("lines", new ArrayList<>(List.of("a", Map.of("b", "c"))));
+        source.put("section", section);
+        source.put("value", 1);
+
+        final DMap copy = DMap.copyOf(source);
+        assertSame(copy, DMap.copyOf(copy));
+        assertEquals(source, copy.getMap());
+        assertEquals(List.of("section", "value"), List.copyOf(copy.keySet()));
+        for (String path : List.of("section", "value", "section.text", "section.none", "section.1", "section.lines", "section.lines.b", "section.text.x", "missing", "missing.text")) {
+            final DMap.Path key = DMap.Path.of(path);
+            assertEquals(key.get(source), copy.getDeep(key), path);
+        }
+        assertEquals("Hi", copy.getDeep("section", "text"));
+
+        // Changes on the source are not visible and the copy can't be changed
+        section.put("text", "Bye");
+        assertEquals("Hi", copy.getDeep(DMap.Path.of("section.text")));
+        assertThrows(UnsupportedOperationException.class, () -> copy.put("value", 2));
+        assertThrows(UnsupportedOperationException.class, () -> ((Map<Object, Object>) copy.get("section")).put("text", "Bye"));
+        assertThrows(UnsupportedOperationException.class, () -> ((List<Object>) copy.getDeep("section", "lines")).add("d"));
+    }
+
+    @Test
+    public void testLikeLinearScan() {
+        final Random random = new Random(8);
+        for (int i = 0; i < 2000; i++) {
+            final DMap map = new DMap(new LinkedHashMap<>());
+            final int size = random.nextInt(KEYS.size());
+            for (int j = 0; j < size; j++) {
+                map.put(KEYS.get(random.nextInt(KEYS.size())), j);
+            }
+            for (String key : KEYS) {
+                assertEquals(map.getIf(s -> s.equalsIgnoreCase(key)), map.getIgnoreCase(key), key);
+            }
+            final Object[] all = map.getRegexAll(REGEXES.toArray(new String[0]));
+            for (int j = 0; j < REGEXES.size(); j++) {
+                final Pattern pattern = Pattern.compile(REGEXES.get(j));
+                final Object expected = map.getIf(s -> pattern.matcher(s).matches());
+                assertEquals(expected, map.getRegex(REGEXES.get(j)), REGEXES.get(j));
+                assertEquals(expected, all[j], REGEXES.get(j));
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.saicone.mcode.util.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MStringsTest {
+
+    @Test
+    public void testFontLength() {
+        for (int i = Character.MIN_VALUE; i <= Character.MAX_VALUE; i++) {
+            final char c = (char) i;
+            assertEquals((int) MStrings.FONT_LENGTH.getOrDefault(c, 5), MStrings.getFontLength(c), "Char: " + i);
+        }
+        assertEquals(5, MStrings.getFontLength(0x1F600));
+        assertEquals(5, MStrings.getFontLength(-1));
+        assertEquals(MStrings.getFontLength('i'), MStrings.getFontLength((int) 'i'));
+    }
+
+    @Test
+    public void testColorCodes() {
+        for (int i = Character.MIN_VALUE; i <= Character.MAX_VALUE; i++) {
+            final char c = (char) i;
+            assertEquals(MStrings.COLOR_CODES.contains(c), MStrings.isColorCode(c), "Char: " + i);
+        }
+    }
+
+    @Test
+    public void testSmallFont() {
+        for (char c = 'a'; c <= 'z'; c++) {
+            assertEquals((char) MStrings.SMALL_FONT.get(c - 'a'), MStrings.getSmallFont(c));
+            assertEquals((char) MStrings.SMALL_FONT.get(c - 'a'), MStrings.getSmallFont(Character.toUpperCase(c)));
+        }
+        // Characters before 'A' used to throw
+        assertEquals('0', MStrings.getSmallFont('0'));
+        assertEquals(' ', MStrings.getSmallFont(' '));
+    }
+
+    @Test
+    public void testMeasure() {
+        final String s = "&lHello &rworld &#FF00FFpink";
+        assertEquals(MStrings.getFontLength(s), MStrings.measure(s, 0, s.length(), false));
+        assertEquals(MStrings.getFontLength("Hello"), MStrings.measure("[Hello]", 1, 6, false));
+        assertTrue(MStrings.measure("Hello", 0, 5, true) > MStrings.measure("Hello", 0, 5, false));
+        assertEquals(0, MStrings.measure("&a&l", 0, 4, false));
+    }
+
+    @Test
+    public void testMeasureLikePrevious() {
+        final Random random = new Random(3);
+        final String alphabet = "&\u00a7x#lrLRaF09+- i@.Wk";
+        final boolean bungeeHex = MStrings.BUNGEE_HEX;
+        try {
+            for (int i = 0; i < 40000; i++) {
+                MStrings.BUNGEE_HEX = i % 2 == 0;
+                final String s = StringsTest.randomString(random, alphabet, random.nextInt(32));
+                final int expected;
+                try {
+                    expected = previousFontLength(s, '&');
+                } catch (IndexOutOfBoundsException e) {
+                    // The previous hex check could read past the end of text
+                    continue;
+                }
+                assertEquals(expected, MStrings.getFontLength(s, '&'), () -> "Input: " + s);
+            }
+        } finally {
+            MStrings.BUNGEE_HEX = bungeeHex;
+        }
+    }
+
+    @Test
+    public void testCenterText() {
+        final String line = "&6&lA message with colors &#00FF00that fits into a 64 char line";
+        final int spaces = MStrings.centerText(line, 500).length() - line.length();
+        assertEquals((500 - MStrings.getFontLength(line)) / 4, spaces);
+        assertEquals(line, MStrings.centerText(line, 100));
+    }
+
+    // MStrings#getFontLength(String, char) before the font table
+    private static int previousFontLength(String s, char colorChar) {
+        int px = 0;
+        boolean bold = false;
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            final boolean mcChar;
+            if (i + 1 < s.length() && ((mcChar = (c == MStrings.COLOR_CHAR)) || c == colorChar)) {
+                final char c1 = s.charAt(i + 1);
+                if (MStrings.BUNGEE_HEX && c1 == 'x' && previousHexFormat(s, i + 2, 2, mcChar ? MStrings.COLOR_CHAR : colorChar) != null) {
+                    i = i + 12;
+                } else if (c1 == '#' && previousHexFormat(s, i + 2, 1, mcChar ? MStrings.COLOR_CHAR : colorChar) != null) {
+                    i = i + 6;
+                } else if (MStrings.COLOR_CODES.contains(c1)) {
+                    if (c1 == 'l' || c1 == 'L') {
+                        bold = true;
+                    } else if (c1 == 'r' || c1 == 'R') {
+                        bold = false;
+                    }
+                } else {
+                    final int i1;
+                    if (bold) {
+                        i1 = c1 == ' ' ? 3 : 4;
+                    } else {
+                        i1 = 2;
+                    }
+                    px += MStrings.FONT_LENGTH.getOrDefault(c, 5) + MStrings.FONT_LENGTH.getOrDefault(c1, 5) + i1;
+                }
+                i++;
+            } else {
+                if (bold && c != ' ') {
+                    px += MStrings.FONT_LENGTH.getOrDefault(c, 5) + 2;
+                } else {
+                    px += MStrings.FONT_LENGTH.getOrDefault(c, 5) + 1;
+                }
+            }
+        }
+        return px;
+    }
+
+    private static String previousHexFormat(String s, int start, int sum, char colorChar) {
+        final int max = start + (sum * 6);
+        if (max > s.length()) {
+            return null;
+        }
+        final StringBuilder builder = new StringBuilder();
+        for (int i = start; i < max; i = i + sum) {
+            if (s.charAt(i) != colorChar) {
+                return null;
+            }
+            builder.append(s.charAt(i + 1));
+        }
+        try {
+            Integer.parseInt(builder.toString(), 16);
+            return builder.toString();
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
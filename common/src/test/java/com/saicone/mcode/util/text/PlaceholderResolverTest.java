@@ -0,0 +1,135 @@
+package com.saicone.mcode.util.text;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlaceholderResolverTest {
+
+    private final Map<String, Integer> lookups = new HashMap<>();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicLong tick = new AtomicLong();
+    private PlaceholderResolver resolver;
+
+    @BeforeEach
+    public void setup() {
+        lookups.clear();
+        calls.set(0);
+        tick.set(0);
+        resolver = new PlaceholderResolver(identifier -> {
+            lookups.merge(identifier, 1, Integer::sum);
+            if (identifier.equals("player")) {
+                return (subject, params) -> {
+                    calls.incrementAndGet();
+                    return params.equals("none") ? null : subject + ":" + params;
+                };
+            }
+            return null;
+        }, tick::get, subject -> String.valueOf(subject).toLowerCase());
+    }
+
+    @Test
+    public void testResolve() {
+        assertEquals("Steve:name", resolver.resolve("Steve", "player_name"));
+        assertEquals("Steve:display_name", resolver.resolve("Steve", "player_display_name"));
+        assertNull(resolver.resolve("Steve", "player_none"));
+        assertNull(resolver.resolve("Steve", "unknown_name"));
+        assertNull(resolver.resolve("Steve", "player_"));
+        assertNull(resolver.resolve("Steve", "_name"));
+        assertNull(resolver.resolve("Steve", "player"));
+    }
+
+    @Test
+    public void testExpansionCache() {
+        resolver.setExpansionTtl(20);
+        for (int i = 0; i < 10; i++) {
+            resolver.resolve("Steve", "player_name");
+            resolver.resolve("Steve", "unknown_name");
+        }
+        // Missing expansions are cached too
+        assertEquals(1, (int) lookups.get("player"));
+        assertEquals(1, (int) lookups.get("unknown"));
+        assertEquals(18, resolver.getExpansionHits());
+        assertEquals(2, resolver.getExpansionMisses());
+
+        tick.set(20);
+        resolver.resolve("Steve", "player_name");
+        assertEquals(2, (int) lookups.get("player"));
+
+        resolver.invalidate();
+        resolver.resolve("Steve", "player_name");
+        assertEquals(3, (int) lookups.get("player"));
+    }
+
+    @Test
+    public void testValueCacheDisabled() {
+        for (int i = 0; i < 5; i++) {
+            resolver.resolve("Steve", "player_name");
+        }
+        assertEquals(5, calls.get());
+        assertEquals(0, resolver.getValueHits());
+    }
+
+    @Test
+    public void testValueCache() {
+        resolver.setValueTtl(10);
+        assertEquals("Steve:name", resolver.resolve("Steve", "player_name"));
+        assertEquals("Steve:name", resolver.resolve("Steve", "player_name"));
+        assertNull(resolver.resolve("Steve", "player_none"));
+        assertNull(resolver.resolve("Steve", "player_none"));
+        assertEquals(2, calls.get());
+        assertEquals(2, resolver.getValueHits());
+
+        // Different subject and params are different entries
+        assertEquals("Alex:name", resolver.resolve("Alex", "player_name"));
+        assertEquals("Steve:level", resolver.resolve("Steve", "player_level"));
+        assertEquals(4, calls.get());
+
+        tick.set(10);
+        resolver.resolve("Steve", "player_name");
+        assertEquals(5, calls.get());
+    }
+
+    @Test
+    public void testInvalidateSubject() {
+        resolver.setValueTtl(100);
+        resolver.resolve("Steve", "player_name");
+        resolver.resolve("Alex", "player_name");
+
+        // Values are keyed by the subject id, not by the subject object
+        resolver.invalidate("STEVE");
+        resolver.resolve("Steve", "player_name");
+        resolver.resolve("Alex", "player_name");
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testRelationalNotCached() {
+        resolver.setValueTtl(100);
+        final Replacer replacer = resolver.lookup("player");
+        assertNotNull(replacer);
+        assertEquals("params", replacer.replace("Steve", "Alex", "params"));
+        assertEquals(0, resolver.getValueHits() + resolver.getValueMisses());
+    }
+
+    @Test
+    public void testResolveAll() {
+        final Map<String, Object> list = resolver.resolveAll("Steve", List.of("player_name", "unknown_x", "player_name"));
+        assertEquals(2, list.size());
+        assertEquals("Steve:name", list.get("player_name"));
+        assertTrue(list.containsKey("unknown_x"));
+        assertNull(list.get("unknown_x"));
+
+        final Map<String, Object> text = resolver.resolveAll("Steve", "Hi %player_name%, %nope% %player_level% %player_name% %open", '%', '%');
+        assertEquals(List.of("player_name", "player_level"), List.copyOf(text.keySet()));
+        assertEquals("Steve:level", text.get("player_level"));
+        assertEquals(3, calls.get());
+    }
+}
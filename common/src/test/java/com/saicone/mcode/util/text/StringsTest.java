@@ -0,0 +1,161 @@
+package com.saicone.mcode.util.text;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StringsTest {
+
+    @Test
+    public void testReplaceArgs() {
+        assertEquals("a and b", Strings.replaceArgs("{0} and {1}", "a", "b"));
+        assertEquals("b, a, b", Strings.replaceArgs("{1}, {0}, {01}", "a", "b"));
+        assertEquals("a {2}", Strings.replaceArgs("{0} {2}", "a", "b"));
+        assertEquals("2 [a, b] a b", Strings.replaceArgs("{#} {*} {-}", "a", "b"));
+        assertEquals("{ {x} {0 {} {-1}", Strings.replaceArgs("{ {x} {0 {} {-1}", "a"));
+        assertEquals("null", Strings.replaceArgs("{0}", (Object) null));
+        assertEquals("no args", Strings.replaceArgs("no args", "a"));
+    }
+
+    @Test
+    public void testReplaceEmptyArgs() {
+        assertEquals("{0} 0 [] ", Strings.replaceArgs("{0} {#} {*} {-}"));
+        assertEquals("{0} 0 [] ", Strings.replaceArgs("{0} {#} {*} {-}", (Object[]) null));
+    }
+
+    @Test
+    public void testReplaceArgsIntoBuilder() {
+        final StringBuilder builder = new StringBuilder("> ");
+        assertSame(builder, Strings.replaceArgs(builder, "x{0}z", "y"));
+        assertEquals("> xyz", builder.toString());
+    }
+
+    @Test
+    public void testReplaceArgsLikePrevious() {
+        final Random random = new Random(1);
+        final String alphabet = "{}#*-0123 ab";
+        for (int i = 0; i < 20000; i++) {
+            final String s = randomString(random, alphabet, random.nextInt(16));
+            final Object[] args = new Object[random.nextInt(4)];
+            for (int j = 0; j < args.length; j++) {
+                args[j] = "arg" + j;
+            }
+            assertEquals(previousReplaceArgs(s, args), Strings.replaceArgs(s, args), () -> "Input: " + s + " " + Arrays.toString(args));
+        }
+    }
+
+    @Test
+    @Timeout(5)
+    public void testReplaceMapArgs() {
+        // Used to loop forever once a key was found
+        final Map<String, Object> args = new HashMap<>();
+        args.put("name", "Steve");
+        args.put("count", 3);
+        assertEquals("Hello Steve, you have 3 {things} {}", Strings.replaceArgs("Hello {name}, you have {count} {things} {}", args));
+        assertEquals("{name", Strings.replaceArgs("{name", args));
+        assertEquals("}{name}", Strings.replaceArgs("}{name}", Map.of()));
+        assertEquals("}Steve", Strings.replaceArgs("}{name}", args));
+        assertEquals("{{name}", Strings.replaceArgs("{{name}", args));
+    }
+
+    @Test
+    public void testReplacePlaceholder() {
+        final Map<String, Replacer> replacers = Map.of(
+                "player", (subject, params) -> params.equals("name") ? "a_really_long_player_name" : params.toUpperCase(),
+                "nested", (subject, params) -> Strings.replaceArgs("[{0}]", params)
+        );
+        assertEquals("a_really_long_player_name is X at Y", Strings.replacePlaceholder(null, null, "%player_name% is %player_x% at %player_y%", replacers::get));
+        assertEquals("50% [inner] %unknown_value%", Strings.replacePlaceholder(null, null, "50% %nested_inner% %unknown_value%", replacers::get));
+        // Unclosed placeholders are kept as they are
+        assertEquals("a %player_name", Strings.replacePlaceholder(null, null, "a %player_name", replacers::get));
+        assertEquals("X", Strings.replaceBracketPlaceholder(null, null, "{player_x}", replacers::get));
+    }
+
+    @Test
+    public void testBorrowBuilder() {
+        final StringBuilder first = Strings.borrowBuilder();
+        final StringBuilder nested = Strings.borrowBuilder();
+        assertNotSame(first, nested);
+        first.append("first");
+        nested.append("nested");
+        assertEquals("nested", Strings.releaseBuilder(nested));
+        assertEquals("first", Strings.releaseBuilder(first));
+        assertEquals(0, Strings.borrowBuilder().length());
+    }
+
+    static String randomString(Random random, String alphabet, int length) {
+        final char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = alphabet.charAt(random.nextInt(alphabet.length()));
+        }
+        return new String(chars);
+    }
+
+    // Strings#replaceArgs before it was written into builders
+    private static String previousReplaceArgs(String s, Object... args) {
+        if (args.length < 1 || s.isBlank()) {
+            return s.replace("{#}", "0").replace("{*}", "[]").replace("{-}", "");
+        }
+        final char[] chars = s.toCharArray();
+        final StringBuilder builder = new StringBuilder(s.length());
+        String all = null;
+        for (int i = 0; i < chars.length; i++) {
+            final int mark = i;
+            if (chars[i] == '{') {
+                int num = 0;
+                while (i + 1 < chars.length) {
+                    if (Character.isDigit(chars[i + 1])) {
+                        i++;
+                        num *= 10;
+                        num += chars[i] - '0';
+                        continue;
+                    }
+                    if (i == mark) {
+                        final char c = chars[i + 1];
+                        if (c == '#') {
+                            i++;
+                            num = -1;
+                        } else if (c == '*') {
+                            i++;
+                            num = -2;
+                        } else if (c == '-') {
+                            i++;
+                            num = -3;
+                        }
+                    }
+                    break;
+                }
+                if (i != mark && i + 1 < chars.length && chars[i + 1] == '}') {
+                    i++;
+                    if (num == -1) {
+                        builder.append(args.length);
+                    } else if (num == -2) {
+                        builder.append(Arrays.toString(args));
+                    } else if (num == -3) {
+                        if (all == null) {
+                            all = Arrays.stream(args).map(String::valueOf).collect(Collectors.joining(" "));
+                        }
+                        builder.append(all);
+                    } else if (num < args.length) {
+                        builder.append(args[num]);
+                    } else {
+                        builder.append('{').append(num).append('}');
+                    }
+                } else {
+                    i = mark;
+                }
+            }
+            if (mark == i) {
+                builder.append(chars[i]);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package com.saicone.mcode.util.text;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.saicone.mcode.platform.MC;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TextComponentTest {
+
+    @Test
+    public void testToJson() {
+        final JsonArray array = TextComponent.toJson(MC.V_1_21_5, "\u00a7aHi https://example.com");
+        assertEquals(2, array.size());
+        final JsonObject first = array.get(0).getAsJsonObject();
+        assertEquals("green", first.get("color").getAsString());
+        assertEquals("Hi ", first.get("text").getAsString());
+        final JsonObject second = array.get(1).getAsJsonObject();
+        assertEquals("https://example.com", second.get("text").getAsString());
+        assertEquals("https://example.com", second.getAsJsonObject("click_event").get("url").getAsString());
+        assertTrue(TextComponent.readVersion(array).isNewerThanOrEquals(MC.V_1_21_5));
+
+        final JsonObject legacy = TextComponent.toJson(MC.V_1_20_4, "\u00a7aHi https://example.com").get(1).getAsJsonObject();
+        assertFalse(legacy.has("click_event"));
+        assertEquals("https://example.com", legacy.getAsJsonObject("clickEvent").get("value").getAsString());
+    }
+
+    @Test
+    public void testToJsonPlain() {
+        assertEquals(JsonParser.parseString("[\"plain\"]"), TextComponent.toJson(MC.V_1_20_4, "plain"));
+    }
+
+    @Test
+    public void testColorChangeClearsText() {
+        final JsonArray array = TextComponent.toJson(MC.V_1_20_4, "\u00a7aone \u00a7btwo");
+        assertEquals(2, array.size());
+        assertEquals("one ", array.get(0).getAsJsonObject().get("text").getAsString());
+        assertEquals("two", array.get(1).getAsJsonObject().get("text").getAsString());
+    }
+
+    @Test
+    public void testApply() {
+        final JsonElement source = JsonParser.parseString("{\"text\":\"hi\",\"extra\":[{\"text\":\"a\",\"bold\":true},{\"text\":\"b\"}]}");
+        final JsonElement result = TextComponent.apply(source, s -> s.equals("a") ? "A" : s);
+        assertEquals(JsonParser.parseString("{\"text\":\"hi\",\"extra\":[{\"text\":\"A\",\"bold\":true},{\"text\":\"b\"}]}"), result);
+        assertEquals(JsonParser.parseString("{\"text\":\"hi\",\"extra\":[{\"text\":\"a\",\"bold\":true},{\"text\":\"b\"}]}"), source);
+    }
+
+    @Test
+    public void testApplyReturnsCopy() {
+        final JsonElement source = JsonParser.parseString("{\"text\":\"hi\",\"extra\":[{\"text\":\"a\"},{\"text\":\"b\"}]}");
+        final JsonElement result = TextComponent.apply(source, s -> s);
+        assertEquals(source, result);
+        assertNotSame(source, result);
+
+        // Changes on the result must not leak into the source, even for unchanged subtrees
+        final JsonObject extra = result.getAsJsonObject().getAsJsonArray("extra").get(1).getAsJsonObject();
+        extra.addProperty("text", "changed");
+        result.getAsJsonObject().getAsJsonArray("extra").add("new");
+        assertEquals(JsonParser.parseString("{\"text\":\"hi\",\"extra\":[{\"text\":\"a\"},{\"text\":\"b\"}]}"), source);
+    }
+}
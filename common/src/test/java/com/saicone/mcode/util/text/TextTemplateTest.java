@@ -0,0 +1,59 @@
+package com.saicone.mcode.util.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TextTemplateTest {
+
+    @Test
+    public void testRender() {
+        final TextTemplate template = TextTemplate.compile("{0} has {#} args: {*} / {-} / {3}");
+        assertTrue(template.hasArgs());
+        assertEquals("a has 2 args: [a, b] / a b / {3}", template.render("a", "b"));
+        assertEquals("{0} has 0 args: [] /  / {3}", template.render());
+        assertEquals("> a has 1 args: [a] / a / {3}", template.render(new StringBuilder("> "), "a").toString());
+    }
+
+    @Test
+    public void testRenderWithoutArgs() {
+        final String s = "Plain text without args";
+        final TextTemplate template = TextTemplate.compile(s);
+        assertFalse(template.hasArgs());
+        assertEquals(s, template.getSource());
+        assertSame(s, template.render("a"));
+        assertSame(s, template.render(Map.of("a", 1)));
+    }
+
+    @Test
+    public void testRenderMap() {
+        final TextTemplate template = TextTemplate.compile("{name} has {amount} {unknown} {}");
+        final Map<String, Object> args = new HashMap<>();
+        args.put("name", "Steve");
+        args.put("amount", 10);
+        assertEquals("Steve has 10 {unknown} {}", template.render(args));
+        assertEquals(template.getSource(), template.render(Map.of()));
+    }
+
+    @Test
+    public void testRenderLikeStrings() {
+        final Random random = new Random(2);
+        final String alphabet = "{}#*-012 abkey";
+        final Map<String, Object> map = Map.of("a", "A", "key", "KEY", "0", "zero");
+        for (int i = 0; i < 20000; i++) {
+            final String s = StringsTest.randomString(random, alphabet, random.nextInt(20));
+            final Object[] args = new Object[random.nextInt(4)];
+            for (int j = 0; j < args.length; j++) {
+                args[j] = j % 2 == 0 ? "arg" + j : j;
+            }
+            final TextTemplate template = TextTemplate.compile(s);
+            assertEquals(Strings.replaceArgs(s, args), template.render(args), () -> "Input: " + s + " " + Arrays.toString(args));
+            assertEquals(Strings.replaceArgs(s, map), template.render(map), () -> "Input: " + s);
+        }
+    }
+}
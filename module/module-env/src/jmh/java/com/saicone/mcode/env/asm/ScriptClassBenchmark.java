@@ -0,0 +1,89 @@
+package com.saicone.mcode.env.asm;
+
+import com.saicone.mcode.module.script.ActionResult;
+import com.saicone.mcode.module.script.EvalUser;
+import com.saicone.mcode.module.script.ScriptCompiler;
+import com.saicone.mcode.module.script.ScriptFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+// Every generated method runs once per script, so the JIT needs a longer warmup than the shared interpreter nodes
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScriptClassBenchmark {
+
+    private static final int ACTIONS = 1000;
+
+    // A list of plain actions, of conditional actions, and of action maps with nested conditions
+    @Param({"list", "branch", "nested"})
+    public String shape;
+
+    private ScriptFunction<EvalUser, ActionResult> interpreted;
+    private ScriptFunction<EvalUser, ActionResult> generated;
+    private EvalUser user;
+    private long count;
+
+    @Setup
+    public void setup() throws Throwable {
+        final ScriptCompiler compiler = new ScriptCompiler();
+        for (int i = 0; i < 16; i++) {
+            final int id = i;
+            compiler.putActionFunction("action" + i, user -> {
+                count += id;
+                return ActionResult.DONE;
+            });
+            compiler.putConditionFunction("condition" + i, user -> (count & (1L << (id % 4))) == 0);
+        }
+
+        final List<Object> script = new ArrayList<>(ACTIONS);
+        for (int i = 0; i < ACTIONS; i++) {
+            switch (shape) {
+                case "list":
+                    script.add("action" + (i % 16));
+                    break;
+                case "branch":
+                    script.add(Map.of("if", "condition" + (i % 16), "run", "action" + (i % 16), "else", "action" + ((i + 1) % 16)));
+                    break;
+                default:
+                    final Map<String, Object> map = new LinkedHashMap<>();
+                    map.put("action" + (i % 16), "");
+                    map.put("ifany", List.of("not condition" + (i % 16), Map.of("all", List.of("condition" + ((i + 1) % 16), "condition" + ((i + 2) % 16)))));
+                    map.put("run", List.of("action" + ((i + 3) % 16), "action" + ((i + 4) % 16)));
+                    script.add(map);
+                    break;
+            }
+        }
+        interpreted = compiler.compileAction(script);
+        generated = new ScriptClassGenerator().generate(compiler, interpreted);
+        user = new EvalUser();
+    }
+
+    @Benchmark
+    public Object interpreted() {
+        return interpreted.apply(user);
+    }
+
+    @Benchmark
+    public Object generated() {
+        return generated.apply(user);
+    }
+}
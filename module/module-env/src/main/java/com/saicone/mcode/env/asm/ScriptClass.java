@@ -0,0 +1,45 @@
+package com.saicone.mcode.env.asm;
+
+import com.saicone.mcode.module.script.ActionResult;
+import com.saicone.mcode.module.script.EvalUser;
+import com.saicone.mcode.module.script.ScriptCompiler;
+import com.saicone.mcode.module.script.ScriptFunction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public abstract class ScriptClass implements ScriptFunction<EvalUser, ActionResult> {
+
+    // Returned by step() when the action list must continue, compared by reference
+    protected static final ActionResult NEXT = ActionResult.of("NEXT");
+
+    protected final ScriptCompiler compiler;
+
+    protected ScriptClass(@NotNull ScriptCompiler compiler) {
+        this.compiler = compiler;
+    }
+
+    @NotNull
+    public ScriptCompiler getCompiler() {
+        return compiler;
+    }
+
+    // Runs the action list with given id from given state, every state is the index of an action
+    protected abstract ActionResult resume(int list, @NotNull EvalUser user, int state);
+
+    // Same checks of ScriptCompiler.run() for any result that is not the main DONE instance
+    @Nullable
+    protected final ActionResult step(@NotNull EvalUser user, @Nullable ActionResult result, int list, int next, int size) {
+        if (ActionResult.BREAK.equals(result)) {
+            return result.hasDelay() ? result.transfer("DONE") : ActionResult.DONE;
+        } else if (!ActionResult.DONE.equals(result)) {
+            return result;
+        } else if (result.hasDelay()) {
+            if (next < size) {
+                final EvalUser detached = user.detach();
+                compiler.schedule(detached, result.getDelay(), result.getTimeUnit(), () -> resume(list, detached, next));
+            }
+            return result;
+        }
+        return NEXT;
+    }
+}
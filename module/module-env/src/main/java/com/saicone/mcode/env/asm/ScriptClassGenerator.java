@@ -0,0 +1,404 @@
+package com.saicone.mcode.env.asm;
+
+import com.saicone.mcode.module.script.Action;
+import com.saicone.mcode.module.script.ActionResult;
+import com.saicone.mcode.module.script.Condition;
+import com.saicone.mcode.module.script.EvalUser;
+import com.saicone.mcode.module.script.ScriptBackend;
+import com.saicone.mcode.module.script.ScriptCompiler;
+import com.saicone.mcode.module.script.ScriptFunction;
+import org.jetbrains.annotations.NotNull;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ScriptClassGenerator implements ScriptBackend {
+
+    private static final String CLASS_NAME = ScriptClassGenerator.class.getPackageName().replace('.', '/') + "/GeneratedScript";
+    private static final String SUPER = Type.getInternalName(ScriptClass.class);
+    private static final String FUNCTION = Type.getInternalName(ScriptFunction.class);
+    private static final String RESULT = Type.getInternalName(ActionResult.class);
+    private static final String RESULT_DESC = Type.getDescriptor(ActionResult.class);
+    private static final String USER = Type.getInternalName(EvalUser.class);
+    private static final String USER_DESC = Type.getDescriptor(EvalUser.class);
+    private static final String LIST_DESC = "(" + USER_DESC + "I)" + RESULT_DESC;
+    private static final String RESUME_DESC = "(I" + USER_DESC + "I)" + RESULT_DESC;
+    private static final String STEP_DESC = "(" + USER_DESC + RESULT_DESC + "III)" + RESULT_DESC;
+    private static final String CONSTRUCTOR_DESC = "(" + Type.getDescriptor(ScriptCompiler.class) + "[" + Type.getDescriptor(ScriptFunction.class) + ")V";
+    private static final String APPLY_DESC = "(Ljava/lang/Object;)Ljava/lang/Object;";
+    // Actions by list method, small enough to be compiled by the JIT
+    private static final int CHUNK_SIZE = 16;
+
+    private final MethodHandles.Lookup lookup;
+
+    public ScriptClassGenerator() {
+        this(MethodHandles.lookup());
+    }
+
+    public ScriptClassGenerator(@NotNull MethodHandles.Lookup lookup) {
+        this.lookup = lookup;
+    }
+
+    @Override
+    public @NotNull ScriptFunction<EvalUser, ActionResult> compileAction(@NotNull ScriptCompiler compiler, @NotNull ScriptFunction<EvalUser, ActionResult> function) {
+        // A single action is already a direct call
+        if (!(function instanceof ScriptCompiler.Sequence || function instanceof ScriptCompiler.Branch || function instanceof ScriptCompiler.ActionList)) {
+            return function;
+        }
+        try {
+            return generate(compiler, function);
+        } catch (Throwable t) {
+            // Too large methods or linkage errors, the interpreted tree still works
+            return function;
+        }
+    }
+
+    @NotNull
+    public ScriptClass generate(@NotNull ScriptCompiler compiler, @NotNull ScriptFunction<EvalUser, ActionResult> function) throws Throwable {
+        final Writer writer = new Writer();
+        final byte[] bytes = writer.write(function);
+        final Class<?> type = lookup.defineHiddenClass(bytes, true).lookupClass();
+        final ScriptFunction<?, ?>[] functions = writer.functions.toArray(new ScriptFunction<?, ?>[0]);
+        return (ScriptClass) lookup.findConstructor(type, MethodType.methodType(void.class, ScriptCompiler.class, ScriptFunction[].class))
+                .invoke(compiler, functions);
+    }
+
+    private static final class Writer {
+
+        private final ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                // Every merged type is a script type or null, nothing must be loaded to compute the frames
+                return type1.equals(type2) ? type1 : "java/lang/Object";
+            }
+        };
+        // Leaf functions, every one is a final field of the generated class
+        private final List<ScriptFunction<?, ?>> functions = new ArrayList<>();
+        private final Map<ScriptFunction<?, ?>, Integer> fields = new IdentityHashMap<>();
+        // Action lists, every one is a method with a state for every action
+        private final List<ScriptCompiler.ActionList> lists = new ArrayList<>();
+        private final Map<ScriptCompiler.ActionList, Integer> listIds = new IdentityHashMap<>();
+        // Actions of lists that are not leaves, split into methods so long lists fit in a single method
+        private final List<ScriptFunction<EvalUser, ActionResult>> methods = new ArrayList<>();
+
+        @NotNull
+        byte[] write(@NotNull ScriptFunction<EvalUser, ActionResult> function) {
+            cw.visit(Opcodes.V17, Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, CLASS_NAME, null, SUPER, null);
+
+            final MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "apply", APPLY_DESC, null, null);
+            mv.visitCode();
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitTypeInsn(Opcodes.CHECKCAST, USER);
+            mv.visitVarInsn(Opcodes.ASTORE, 1);
+            action(mv, function);
+            mv.visitInsn(Opcodes.ARETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+
+            // Lists and methods found while writing others are added at the end
+            int listCount = 0;
+            int methodCount = 0;
+            while (listCount < lists.size() || methodCount < methods.size()) {
+                while (listCount < lists.size()) {
+                    list(listCount, lists.get(listCount));
+                    listCount++;
+                }
+                while (methodCount < methods.size()) {
+                    method(methodCount, methods.get(methodCount));
+                    methodCount++;
+                }
+            }
+            resume();
+            constructor();
+            cw.visitEnd();
+            return cw.toByteArray();
+        }
+
+        private void constructor() {
+            for (int i = 0; i < functions.size(); i++) {
+                cw.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, "f" + i, "L" + FUNCTION + ";", null, null).visitEnd();
+            }
+            final MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", CONSTRUCTOR_DESC, null, null);
+            mv.visitCode();
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitMethodInsn(Opcodes.INVOKESPECIAL, SUPER, "<init>", "(" + Type.getDescriptor(ScriptCompiler.class) + ")V", false);
+            for (int i = 0; i < functions.size(); i++) {
+                mv.visitVarInsn(Opcodes.ALOAD, 0);
+                mv.visitVarInsn(Opcodes.ALOAD, 2);
+                push(mv, i);
+                mv.visitInsn(Opcodes.AALOAD);
+                mv.visitFieldInsn(Opcodes.PUTFIELD, CLASS_NAME, "f" + i, "L" + FUNCTION + ";");
+            }
+            mv.visitInsn(Opcodes.RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        private void resume() {
+            final MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PROTECTED, "resume", RESUME_DESC, null, null);
+            mv.visitCode();
+            final Label end = new Label();
+            final Label[] labels = labels(lists.size());
+            if (labels.length > 0) {
+                mv.visitVarInsn(Opcodes.ILOAD, 1);
+                mv.visitTableSwitchInsn(0, labels.length - 1, end, labels);
+            }
+            for (int i = 0; i < labels.length; i++) {
+                mv.visitLabel(labels[i]);
+                mv.visitVarInsn(Opcodes.ALOAD, 0);
+                mv.visitVarInsn(Opcodes.ALOAD, 2);
+                mv.visitVarInsn(Opcodes.ILOAD, 3);
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, CLASS_NAME, "list" + i, LIST_DESC, false);
+                mv.visitInsn(Opcodes.ARETURN);
+            }
+            mv.visitLabel(end);
+            mv.visitFieldInsn(Opcodes.GETSTATIC, RESULT, "DONE", RESULT_DESC);
+            mv.visitInsn(Opcodes.ARETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        // Same loop of ScriptCompiler.run() with the action index as state, so delays can continue from any action.
+        // Split into chunks, methods larger than 8000 bytes are never compiled by the JIT
+        private void list(int id, @NotNull ScriptCompiler.ActionList list) {
+            final int size = list.getActions().size();
+            final int chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            final MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PRIVATE, "list" + id, LIST_DESC, null, null);
+            mv.visitCode();
+            final Label result = new Label();
+            final Label end = new Label();
+            final Label[] labels = labels(chunks);
+
+            mv.visitVarInsn(Opcodes.ILOAD, 2);
+            push(mv, CHUNK_SIZE);
+            mv.visitInsn(Opcodes.IDIV);
+            mv.visitTableSwitchInsn(0, chunks - 1, end, labels);
+            for (int i = 0; i < chunks; i++) {
+                mv.visitLabel(labels[i]);
+                mv.visitVarInsn(Opcodes.ALOAD, 0);
+                mv.visitVarInsn(Opcodes.ALOAD, 1);
+                mv.visitVarInsn(Opcodes.ILOAD, 2);
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, CLASS_NAME, "list" + id + "_" + i, LIST_DESC, false);
+                mv.visitVarInsn(Opcodes.ASTORE, 3);
+                mv.visitVarInsn(Opcodes.ALOAD, 3);
+                mv.visitFieldInsn(Opcodes.GETSTATIC, SUPER, "NEXT", RESULT_DESC);
+                mv.visitJumpInsn(Opcodes.IF_ACMPNE, result);
+                push(mv, (i + 1) * CHUNK_SIZE);
+                mv.visitVarInsn(Opcodes.ISTORE, 2);
+            }
+            mv.visitJumpInsn(Opcodes.GOTO, end);
+
+            mv.visitLabel(result);
+            mv.visitVarInsn(Opcodes.ALOAD, 3);
+            mv.visitInsn(Opcodes.ARETURN);
+
+            mv.visitLabel(end);
+            mv.visitFieldInsn(Opcodes.GETSTATIC, RESULT, "DONE", RESULT_DESC);
+            mv.visitInsn(Opcodes.ARETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+
+            for (int i = 0; i < chunks; i++) {
+                chunk(id, i, list.getActions());
+            }
+        }
+
+        // Runs the actions of a chunk from given state, returns NEXT once the chunk is done
+        private void chunk(int id, int chunk, @NotNull List<ScriptFunction<EvalUser, ActionResult>> actions) {
+            final int from = chunk * CHUNK_SIZE;
+            final int to = Math.min(from + CHUNK_SIZE, actions.size());
+            final MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PRIVATE, "list" + id + "_" + chunk, LIST_DESC, null, null);
+            mv.visitCode();
+            final Label dispatch = new Label();
+            final Label step = new Label();
+            final Label end = new Label();
+            final Label[] labels = labels(to - from);
+
+            mv.visitLabel(dispatch);
+            mv.visitVarInsn(Opcodes.ILOAD, 2);
+            mv.visitTableSwitchInsn(from, to - 1, end, labels);
+            for (int i = from; i < to; i++) {
+                mv.visitLabel(labels[i - from]);
+                final ScriptFunction<EvalUser, ActionResult> action = actions.get(i);
+                if (action instanceof ScriptCompiler.Sequence || action instanceof ScriptCompiler.Branch) {
+                    mv.visitVarInsn(Opcodes.ALOAD, 0);
+                    mv.visitVarInsn(Opcodes.ALOAD, 1);
+                    mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, CLASS_NAME, "action" + methods.size(), "(" + USER_DESC + ")" + RESULT_DESC, false);
+                    methods.add(action);
+                } else {
+                    action(mv, action);
+                }
+                mv.visitVarInsn(Opcodes.ASTORE, 3);
+                // Main DONE instance, the common case, continues without any other check
+                mv.visitVarInsn(Opcodes.ALOAD, 3);
+                mv.visitFieldInsn(Opcodes.GETSTATIC, RESULT, "DONE", RESULT_DESC);
+                mv.visitJumpInsn(Opcodes.IF_ACMPEQ, i + 1 < to ? labels[i + 1 - from] : end);
+                push(mv, i + 1);
+                mv.visitVarInsn(Opcodes.ISTORE, 2);
+                mv.visitJumpInsn(Opcodes.GOTO, step);
+            }
+
+            mv.visitLabel(step);
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitVarInsn(Opcodes.ALOAD, 3);
+            push(mv, id);
+            mv.visitVarInsn(Opcodes.ILOAD, 2);
+            push(mv, actions.size());
+            mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, CLASS_NAME, "step", STEP_DESC, false);
+            mv.visitVarInsn(Opcodes.ASTORE, 3);
+            mv.visitVarInsn(Opcodes.ALOAD, 3);
+            mv.visitFieldInsn(Opcodes.GETSTATIC, SUPER, "NEXT", RESULT_DESC);
+            mv.visitJumpInsn(Opcodes.IF_ACMPEQ, dispatch);
+            mv.visitVarInsn(Opcodes.ALOAD, 3);
+            mv.visitInsn(Opcodes.ARETURN);
+
+            mv.visitLabel(end);
+            mv.visitFieldInsn(Opcodes.GETSTATIC, SUPER, "NEXT", RESULT_DESC);
+            mv.visitInsn(Opcodes.ARETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        private void method(int id, @NotNull ScriptFunction<EvalUser, ActionResult> function) {
+            final MethodVisitor mv = cw.visitMethod(Opcodes.ACC_PRIVATE, "action" + id, "(" + USER_DESC + ")" + RESULT_DESC, null, null);
+            mv.visitCode();
+            action(mv, function);
+            mv.visitInsn(Opcodes.ARETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+        }
+
+        // Leaves the action result on the stack
+        private void action(@NotNull MethodVisitor mv, @NotNull ScriptFunction<EvalUser, ActionResult> function) {
+            if (function == Action.DONE) {
+                mv.visitFieldInsn(Opcodes.GETSTATIC, RESULT, "DONE", RESULT_DESC);
+            } else if (function instanceof ScriptCompiler.Sequence) {
+                final List<ScriptFunction<EvalUser, ActionResult>> functions = ((ScriptCompiler.Sequence) function).getFunctions();
+                final Label end = new Label();
+                for (int i = 0; i < functions.size(); i++) {
+                    action(mv, functions.get(i));
+                    if (i + 1 < functions.size()) {
+                        // Same as Sequence, only the main DONE instance continues
+                        mv.visitInsn(Opcodes.DUP);
+                        mv.visitFieldInsn(Opcodes.GETSTATIC, RESULT, "DONE", RESULT_DESC);
+                        mv.visitJumpInsn(Opcodes.IF_ACMPNE, end);
+                        mv.visitInsn(Opcodes.POP);
+                    }
+                }
+                mv.visitLabel(end);
+            } else if (function instanceof ScriptCompiler.Branch) {
+                final ScriptCompiler.Branch branch = (ScriptCompiler.Branch) function;
+                final Label orElse = new Label();
+                final Label end = new Label();
+                condition(mv, branch.getCondition(), orElse, false);
+                action(mv, branch.getRun());
+                if (branch.getOrElse() == null) {
+                    mv.visitJumpInsn(Opcodes.GOTO, end);
+                    mv.visitLabel(orElse);
+                    mv.visitInsn(Opcodes.ACONST_NULL);
+                } else {
+                    mv.visitInsn(Opcodes.DUP);
+                    mv.visitFieldInsn(Opcodes.GETSTATIC, RESULT, "CONTINUE", RESULT_DESC);
+                    mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, RESULT, "equals", "(Ljava/lang/Object;)Z", false);
+                    mv.visitJumpInsn(Opcodes.IFEQ, end);
+                    mv.visitInsn(Opcodes.POP);
+                    mv.visitLabel(orElse);
+                    action(mv, branch.getOrElse());
+                }
+                mv.visitLabel(end);
+            } else if (function instanceof ScriptCompiler.ActionList) {
+                final ScriptCompiler.ActionList list = (ScriptCompiler.ActionList) function;
+                Integer id = listIds.get(list);
+                if (id == null) {
+                    id = lists.size();
+                    lists.add(list);
+                    listIds.put(list, id);
+                }
+                mv.visitVarInsn(Opcodes.ALOAD, 0);
+                mv.visitVarInsn(Opcodes.ALOAD, 1);
+                mv.visitInsn(Opcodes.ICONST_0);
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, CLASS_NAME, "list" + id, LIST_DESC, false);
+            } else {
+                invoke(mv, function);
+                mv.visitTypeInsn(Opcodes.CHECKCAST, RESULT);
+            }
+        }
+
+        // Jumps to target if the condition result is the same as jumpIf, otherwise continues
+        private void condition(@NotNull MethodVisitor mv, @NotNull ScriptFunction<EvalUser, Boolean> function, @NotNull Label target, boolean jumpIf) {
+            if (function == Condition.TRUE || function == Condition.FALSE) {
+                if ((function == Condition.TRUE) == jumpIf) {
+                    mv.visitJumpInsn(Opcodes.GOTO, target);
+                }
+            } else if (function instanceof ScriptCompiler.Not) {
+                condition(mv, ((ScriptCompiler.Not) function).getCondition(), target, !jumpIf);
+            } else if (function instanceof ScriptCompiler.Conditions) {
+                final ScriptCompiler.Conditions conditions = (ScriptCompiler.Conditions) function;
+                // Any false condition ends an all-match and any true condition ends an any-match
+                final boolean shortCircuit = !conditions.isAll();
+                if (shortCircuit == jumpIf) {
+                    for (ScriptFunction<EvalUser, Boolean> condition : conditions.getConditions()) {
+                        condition(mv, condition, target, shortCircuit);
+                    }
+                } else {
+                    final Label skip = new Label();
+                    for (ScriptFunction<EvalUser, Boolean> condition : conditions.getConditions()) {
+                        condition(mv, condition, skip, shortCircuit);
+                    }
+                    mv.visitJumpInsn(Opcodes.GOTO, target);
+                    mv.visitLabel(skip);
+                }
+            } else {
+                invoke(mv, function);
+                mv.visitTypeInsn(Opcodes.CHECKCAST, "java/lang/Boolean");
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/Boolean", "booleanValue", "()Z", false);
+                mv.visitJumpInsn(jumpIf ? Opcodes.IFNE : Opcodes.IFEQ, target);
+            }
+        }
+
+        private void invoke(@NotNull MethodVisitor mv, @NotNull ScriptFunction<?, ?> function) {
+            Integer field = fields.get(function);
+            if (field == null) {
+                field = functions.size();
+                functions.add(function);
+                fields.put(function, field);
+            }
+            mv.visitVarInsn(Opcodes.ALOAD, 0);
+            mv.visitFieldInsn(Opcodes.GETFIELD, CLASS_NAME, "f" + field, "L" + FUNCTION + ";");
+            mv.visitVarInsn(Opcodes.ALOAD, 1);
+            mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, FUNCTION, "apply", APPLY_DESC, true);
+        }
+
+        @NotNull
+        private static Label[] labels(int size) {
+            final Label[] labels = new Label[size];
+            for (int i = 0; i < size; i++) {
+                labels[i] = new Label();
+            }
+            return labels;
+        }
+
+        private static void push(@NotNull MethodVisitor mv, int value) {
+            if (value >= -1 && value <= 5) {
+                mv.visitInsn(Opcodes.ICONST_0 + value);
+            } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+                mv.visitIntInsn(Opcodes.BIPUSH, value);
+            } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+                mv.visitIntInsn(Opcodes.SIPUSH, value);
+            } else {
+                mv.visitLdcInsn(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.saicone.mcode.env.asm;
+
+import com.saicone.mcode.module.script.ActionResult;
+import com.saicone.mcode.module.script.EvalUser;
+import com.saicone.mcode.module.script.ScriptCompiler;
+import com.saicone.mcode.module.script.ScriptFunction;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScriptClassGeneratorTest {
+
+    private static final int ACTIONS = 8;
+    private static final int CONDITIONS = 6;
+
+    private final TestCompiler compiler = new TestCompiler();
+    private final ScriptClassGenerator generator = new ScriptClassGenerator();
+    private final StringBuilder trace = new StringBuilder();
+    // Result type of every action and value of every condition, the same for both runs
+    private final int[] results = new int[ACTIONS];
+    private final boolean[] values = new boolean[CONDITIONS];
+
+    public ScriptClassGeneratorTest() {
+        for (int i = 0; i < ACTIONS; i++) {
+            final int id = i;
+            compiler.putActionFunction("a" + i, user -> {
+                trace.append('a').append(id).append(' ');
+                return result(results[id]);
+            });
+        }
+        for (int i = 0; i < CONDITIONS; i++) {
+            final int id = i;
+            compiler.putConditionFunction("c" + i, user -> {
+                trace.append('c').append(id).append(' ');
+                return values[id];
+            });
+        }
+    }
+
+    @Nullable
+    private static ActionResult result(int type) {
+        switch (type) {
+            case 1:
+                return ActionResult.BREAK;
+            case 2:
+                return ActionResult.RETURN;
+            case 3:
+                return ActionResult.CONTINUE;
+            case 4:
+                return null;
+            case 5:
+                return ActionResult.of("custom");
+            case 6:
+                return ActionResult.DONE.delay(1L, TimeUnit.MILLISECONDS);
+            case 7:
+                return ActionResult.BREAK.delay(2L, TimeUnit.MILLISECONDS);
+            default:
+                return ActionResult.DONE;
+        }
+    }
+
+    @NotNull
+    private Object action(@NotNull Random random, int depth) {
+        final int type = depth <= 0 ? random.nextInt(3) : random.nextInt(6);
+        switch (type) {
+            case 0:
+            case 1:
+                return "a" + random.nextInt(ACTIONS);
+            case 2:
+                switch (random.nextInt(4)) {
+                    case 0:
+                        return "done=3 MILLISECONDS";
+                    case 1:
+                        return "break";
+                    case 2:
+                        return "continue";
+                    default:
+                        return "return";
+                }
+            case 3:
+            case 4:
+                final List<Object> list = new ArrayList<>();
+                final int size = 1 + random.nextInt(5);
+                for (int i = 0; i < size; i++) {
+                    list.add(action(random, depth - 1));
+                }
+                return list;
+            default:
+                final Map<String, Object> map = new LinkedHashMap<>();
+                final int actions = random.nextInt(3);
+                for (int i = 0; i < actions; i++) {
+                    map.put("a" + random.nextInt(ACTIONS), "value");
+                }
+                if (random.nextBoolean()) {
+                    map.put(random.nextBoolean() ? "if" : "ifany", condition(random, depth - 1));
+                }
+                if (random.nextInt(4) > 0) {
+                    map.put("run", action(random, depth - 1));
+                }
+                if (random.nextBoolean()) {
+                    map.put("else", action(random, depth - 1));
+                }
+                return map.isEmpty() ? "a0" : map;
+        }
+    }
+
+    @NotNull
+    private Object condition(@NotNull Random random, int depth) {
+        final int type = depth <= 0 ? random.nextInt(3) : random.nextInt(5);
+        switch (type) {
+            case 0:
+                return "c" + random.nextInt(CONDITIONS);
+            case 1:
+                return "not c" + random.nextInt(CONDITIONS);
+            case 2:
+                return random.nextBoolean() ? "true" : "false";
+            case 3:
+                final List<Object> list = new ArrayList<>();
+                final int size = 1 + random.nextInt(4);
+                for (int i = 0; i < size; i++) {
+                    list.add(condition(random, depth - 1));
+                }
+                return list;
+            default:
+                final Map<String, Object> map = new LinkedHashMap<>();
+                map.put(random.nextBoolean() ? "any" : "all", List.of(condition(random, depth - 1), condition(random, depth - 1)));
+                if (random.nextBoolean()) {
+                    map.put("c" + random.nextInt(CONDITIONS), "value");
+                }
+                return map;
+        }
+    }
+
+    @NotNull
+    private String run(@NotNull ScriptFunction<EvalUser, ActionResult> function, @NotNull EvalUser user) {
+        trace.setLength(0);
+        String result;
+        try {
+            result = describe(function.apply(user));
+        } catch (RuntimeException e) {
+            result = e.getClass().getSimpleName();
+        }
+        // Delayed actions run in the order they were scheduled
+        Runnable runnable;
+        while ((runnable = compiler.scheduled.poll()) != null) {
+            trace.append("| ");
+            try {
+                runnable.run();
+            } catch (RuntimeException e) {
+                trace.append(e.getClass().getSimpleName()).append(' ');
+            }
+        }
+        return result + " -> " + trace;
+    }
+
+    @NotNull
+    private static String describe(@Nullable ActionResult result) {
+        if (result == null) {
+            return "null";
+        }
+        final String main = result == ActionResult.DONE || result == ActionResult.BREAK || result == ActionResult.RETURN || result == ActionResult.CONTINUE ? "*" : "";
+        return result.getId() + main + (result.hasDelay() ? "@" + result.getDelay() : "");
+    }
+
+    @Test
+    public void testDifferential() throws Throwable {
+        final Random random = new Random(22L);
+        int generated = 0;
+        for (int i = 0; i < 3000; i++) {
+            final Object script = action(random, 4);
+            final ScriptFunction<EvalUser, ActionResult> interpreted = compiler.compileAction(script);
+            if (interpreted == null) {
+                continue;
+            }
+            final ScriptFunction<EvalUser, ActionResult> compiled = generator.compileAction(compiler, interpreted);
+            if (compiled != interpreted) {
+                assertInstanceOf(ScriptClass.class, compiled);
+                generated++;
+            }
+            for (int j = 0; j < 5; j++) {
+                for (int k = 0; k < ACTIONS; k++) {
+                    results[k] = random.nextInt(12);
+                }
+                for (int k = 0; k < CONDITIONS; k++) {
+                    values[k] = random.nextBoolean();
+                }
+                final String expected = run(interpreted, new EvalUser());
+                assertEquals(expected, run(compiled, new EvalUser()), () -> "Script: " + script);
+            }
+        }
+        assertTrue(generated > 1000);
+    }
+
+    @Test
+    public void testResume() throws Throwable {
+        final ScriptClass compiled = generator.generate(compiler, compiler.compileAction(List.of("a0", "done=5 MILLISECONDS", "a1", List.of("a2", "done=5 MILLISECONDS", "a3"), "a4")));
+        final ActionResult result = compiled.apply(new EvalUser());
+        assertEquals(ActionResult.DONE, result);
+        assertTrue(result.hasDelay());
+        assertEquals(1, compiler.scheduled.size());
+        assertEquals("a0 ", trace.toString());
+
+        // Every delay is a state of the list it belongs to
+        compiler.scheduled.poll().run();
+        assertEquals("a0 a1 a2 ", trace.toString());
+        // The delayed inner list also delays the outer one
+        assertEquals(2, compiler.scheduled.size());
+        compiler.scheduled.poll().run();
+        assertEquals("a0 a1 a2 a3 ", trace.toString());
+        compiler.scheduled.poll().run();
+        assertEquals("a0 a1 a2 a3 a4 ", trace.toString());
+        assertTrue(compiler.scheduled.isEmpty());
+    }
+
+    @Test
+    public void testCancelDelayed() throws Throwable {
+        final UUID id = UUID.randomUUID();
+        final ScriptClass compiled = generator.generate(compiler, compiler.compileAction(List.of("a0", "done=5 MILLISECONDS", "a1")));
+        compiled.apply(new EvalUser().uniqueId(id));
+        assertEquals(1, compiler.getDelayedCount(id));
+        assertEquals(1, compiler.cancelDelayed(id));
+        compiler.scheduled.poll().run();
+        assertEquals("a0 ", trace.toString());
+    }
+
+    @Test
+    public void testLargeScript() {
+        // Long lists are split into chunk methods
+        final List<Object> script = new ArrayList<>();
+        for (int i = 0; i < 6000; i++) {
+            script.add(Map.of("if", "c" + (i % CONDITIONS), "run", "a" + (i % ACTIONS), "else", "a" + ((i + 1) % ACTIONS)));
+        }
+        final ScriptFunction<EvalUser, ActionResult> interpreted = compiler.compileAction(script);
+        final ScriptFunction<EvalUser, ActionResult> compiled = generator.compileAction(compiler, interpreted);
+        assertInstanceOf(ScriptClass.class, compiled);
+        for (int i = 0; i < CONDITIONS; i++) {
+            values[i] = i % 2 == 0;
+        }
+        results[3] = 6;
+        assertEquals(run(interpreted, new EvalUser()), run(compiled, new EvalUser()));
+    }
+
+    @Test
+    public void testFallback() {
+        // Hidden classes cannot be defined without full privilege access, the interpreted function is used
+        final ScriptClassGenerator generator = new ScriptClassGenerator(MethodHandles.publicLookup());
+        final ScriptFunction<EvalUser, ActionResult> interpreted = compiler.compileAction(List.of("a0", "a1"));
+        assertSame(interpreted, generator.compileAction(compiler, interpreted));
+    }
+
+    @Test
+    public void testBackend() {
+        assertNull(compiler.getBackend());
+        compiler.setBackend(generator);
+        assertInstanceOf(ScriptClass.class, compiler.compileScript(List.of("a0", "a1")));
+        // Single actions are not generated
+        assertSame(compiler.getCompiledAction("a0"), compiler.compileScript("a0"));
+    }
+
+    private static final class TestCompiler extends ScriptCompiler {
+
+        private final Queue<Runnable> scheduled = new ArrayDeque<>();
+
+        @Override
+        protected void run(long delay, @NotNull TimeUnit unit, @NotNull Runnable runnable) {
+            scheduled.add(runnable);
+        }
+    }
+}
@@ -304,6 +304,8 @@ public interface AdventureLang<SenderT> extends DisplaySupplier<SenderT> {
         private final AdventureLang<T> lang;
 
         public BossBarLoader(@NotNull AdventureLang<T> lang) {
+            // Bars are shared only between displays of the same provider
+            super(lang instanceof AbstractLang ? ((AbstractLang<?>) lang).getBossBarPool() : new BossBarPool());
             this.lang = lang;
         }
 
@@ -101,7 +101,7 @@ public abstract class MiniMessageDisplay<SenderT> implements Display<SenderT> {
             if (text.isEmpty()) {
                 return null;
             }
-            return new MiniMessageDisplay<>(Text.valueOf(text)) {
+            return new MiniMessageDisplay<>(Text.valueOf(Text.Kind.STRING, null, text)) {
                 @Override
                 protected void sendMiniMessage(@NotNull SenderT type, @NotNull Text text) {
                     final Audience audience = getAudience(type);
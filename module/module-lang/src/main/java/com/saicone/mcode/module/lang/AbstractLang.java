@@ -1,5 +1,6 @@
 package com.saicone.mcode.module.lang;
 
+import com.saicone.mcode.module.lang.display.BossBarPool;
 import com.saicone.mcode.util.DMap;
 import com.saicone.mcode.util.MLocale;
 import com.saicone.settings.SettingsData;
@@ -10,12 +11,20 @@ import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
 public abstract class AbstractLang<SenderT> extends DisplayHolder<SenderT> implements DisplaySupplier<SenderT> {
 
+    private static final int MAX_LOADER_THREADS = 4;
+    private static final long DEFAULT_WATCH_DELAY = 500L;
+
     // Object parameters
     private LangSupplier langSupplier;
     private final Class<?>[] langProviders;
@@ -23,11 +32,19 @@ public abstract class AbstractLang<SenderT> extends DisplayHolder<SenderT> imple
     // Instance fields parameters
     private List<Path> paths;
     private List<DisplayLoader<SenderT>> displayLoaders;
+    private transient volatile DisplayRegistry<SenderT> displayRegistry;
 
     // Mutable parameters
     private transient boolean useSettings;
+    private transient boolean useCache;
     private transient String displayType = Display.DEFAULT_TYPE;
-    private transient Map<Locale, DMap> objects = new HashMap<>();
+    private transient boolean reloading;
+    private final transient AtomicInteger loadGeneration = new AtomicInteger();
+    private transient volatile File langFolder;
+    private transient volatile List<LoadedFile<SenderT>> loadedFiles = List.of();
+    private transient LangWatcher watcher;
+    // Bars shown by this provider, hidden on the thread given by runSync()
+    private final transient BossBarPool bossBarPool = new BossBarPool(this::runSync);
 
     public AbstractLang(@NotNull Object... providers) {
         LangSupplier langSupplier = null;
@@ -53,7 +70,207 @@ public abstract class AbstractLang<SenderT> extends DisplayHolder<SenderT> imple
         if (langSupplier != null) {
             langSupplier.load();
         }
+        // Locale types or aliases may change on load
+        invalidateSenderLocales();
+
+        saveLangFolder(langFolder);
+
+        // Load objects into a new snapshot, senders keep using the current one until it's published
+        loadGeneration.incrementAndGet();
+        final long start = System.nanoTime();
+        final LangCache cache = readCache();
+        final List<LangFile> files = getLangFileList(langFolder);
+        final List<LoadedFile<SenderT>> loaded = new ArrayList<>(files.size());
+        for (LangFile file : files) {
+            loaded.add(loadFile(file, cache, null));
+        }
+        publish(langFolder, loaded, null);
+        writeCache(cache);
+        sendLog(4, "Loaded {0} lang files in {1}ms", files.size(), (System.nanoTime() - start) / 1000000L);
+    }
+
+    @NotNull
+    public CompletableFuture<LangSnapshot<SenderT>> loadAsync() {
+        return loadAsync(getRootFolder());
+    }
+
+    @NotNull
+    public CompletableFuture<LangSnapshot<SenderT>> loadAsync(@NotNull File langFolder) {
+        final int threads = Math.max(1, Math.min(MAX_LOADER_THREADS, Runtime.getRuntime().availableProcessors() - 1));
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "mcode-lang-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final CompletableFuture<LangSnapshot<SenderT>> future = loadAsync(langFolder, executor);
+        future.whenComplete((snapshot, throwable) -> executor.shutdown());
+        return future;
+    }
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<LangSnapshot<SenderT>> loadAsync(@NotNull File langFolder, @NotNull Executor executor) {
+        if (langSupplier != null) {
+            langSupplier.load();
+        }
+        // Locale types or aliases may change on load
+        invalidateSenderLocales();
+        // Compute lazy fields before any worker thread use them
+        getPaths();
+        getDisplayLoaders();
+
+        final int generation = loadGeneration.incrementAndGet();
+        final long start = System.nanoTime();
+        final CompletableFuture<LangSnapshot<SenderT>> result = new CompletableFuture<>();
+        final LangCache[] cache = new LangCache[1];
+        CompletableFuture.supplyAsync(() -> {
+            saveLangFolder(langFolder);
+            cache[0] = readCache();
+            return getLangFileList(langFolder);
+        }, executor).thenCompose(files -> {
+            final List<CompletableFuture<LoadedFile<SenderT>>> tasks = new ArrayList<>(files.size());
+            for (LangFile file : files) {
+                tasks.add(CompletableFuture.supplyAsync(() -> result.isDone() ? null : loadFile(file, cache[0], null), executor));
+            }
+            return CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).thenApply(v -> tasks);
+        }).whenComplete((tasks, throwable) -> {
+            if (result.isCancelled()) {
+                sendLog(3, "The lang loading was cancelled after {0}ms", (System.nanoTime() - start) / 1000000L);
+                return;
+            }
+            if (throwable != null) {
+                result.completeExceptionally(throwable);
+                return;
+            }
+            // Merge by file order, so the result doesn't depend on which task finished first
+            final List<LoadedFile<SenderT>> loaded = new ArrayList<>(tasks.size());
+            for (CompletableFuture<LoadedFile<SenderT>> task : tasks) {
+                final LoadedFile<SenderT> file = task.join();
+                if (file == null) {
+                    return;
+                }
+                loaded.add(file);
+            }
+            final LangSnapshot<SenderT> snapshot;
+            synchronized (this) {
+                if (generation == loadGeneration.get()) {
+                    snapshot = publish(langFolder, loaded, null);
+                } else {
+                    snapshot = build(newSnapshot(), loaded, null);
+                }
+            }
+            sendLog(4, "Loaded {0} lang files in {1}ms", tasks.size(), (System.nanoTime() - start) / 1000000L);
+            writeCache(cache[0]);
+            result.complete(snapshot);
+        });
+        return result;
+    }
+
+    public synchronized void reload(@NotNull Collection<File> changed) {
+        final File langFolder = this.langFolder;
+        if (langFolder == null) {
+            return;
+        }
+        final long start = System.nanoTime();
+        final Map<File, LoadedFile<SenderT>> previous = new HashMap<>();
+        for (LoadedFile<SenderT> file : loadedFiles) {
+            previous.put(file.file, file);
+        }
+        final Set<File> changedFiles = new HashSet<>();
+        for (File file : changed) {
+            changedFiles.add(file.getAbsoluteFile());
+        }
+        // A changed lang folder means that every file must be checked
+        final boolean all = changedFiles.contains(langFolder.getAbsoluteFile());
+
+        // Parse only new or modified files, every other file keeps its loaded displays
+        final Set<Locale> locales = new HashSet<>();
+        final List<LoadedFile<SenderT>> loaded = new ArrayList<>();
+        int count = 0;
+        for (LangFile file : getLangFileList(langFolder)) {
+            final LoadedFile<SenderT> old = previous.remove(file.file);
+            if (all || old == null || !old.locale.equals(file.locale) || changedFiles.contains(file.file.getAbsoluteFile())) {
+                loaded.add(loadFile(file, null, old));
+                locales.add(file.locale);
+                count++;
+            } else {
+                loaded.add(old);
+            }
+        }
+        // Deleted files
+        for (LoadedFile<SenderT> old : previous.values()) {
+            locales.add(old.locale);
+        }
+        if (locales.isEmpty()) {
+            return;
+        }
 
+        loadGeneration.incrementAndGet();
+        publish(langFolder, loaded, locales);
+        sendLog(4, "Reloaded {0} lang files for {1} locales in {2}ms", count, locales.size(), (System.nanoTime() - start) / 1000000L);
+    }
+
+    @NotNull
+    private synchronized LangSnapshot<SenderT> publish(@NotNull File langFolder, @NotNull List<LoadedFile<SenderT>> loaded, @Nullable Set<Locale> locales) {
+        final LangSnapshot.Builder<SenderT> builder = locales == null ? newSnapshot() : getSnapshot().toBuilder(this::getPathId);
+        final LangSnapshot<SenderT> snapshot = build(builder, loaded, locales);
+        setSnapshot(snapshot);
+        this.langFolder = langFolder;
+        this.loadedFiles = List.copyOf(loaded);
+        clearValues();
+        return snapshot;
+    }
+
+    @NotNull
+    private LangSnapshot<SenderT> build(@NotNull LangSnapshot.Builder<SenderT> builder, @NotNull List<LoadedFile<SenderT>> loaded, @Nullable Set<Locale> locales) {
+        if (locales != null) {
+            for (Locale locale : locales) {
+                builder.remove(locale);
+            }
+        }
+        for (LoadedFile<SenderT> file : loaded) {
+            if (locales == null || locales.contains(file.locale)) {
+                builder.putObjects(file.locale, file.objects);
+                file.displays.forEach((key, display) -> builder.put(file.locale, key, display));
+            }
+        }
+        return builder.build();
+    }
+
+    @NotNull
+    private LoadedFile<SenderT> loadFile(@NotNull LangFile file, @Nullable LangCache cache, @Nullable LoadedFile<SenderT> previous) {
+        final long start = System.nanoTime();
+        final DMap objects = readObjects(file.file, cache);
+        final Map<String, Object> sources = flattenObjects(objects);
+        final Map<String, Display<SenderT>> displays = new LinkedHashMap<>();
+        for (var entry : sources.entrySet()) {
+            // Reuse the display if its source object didn't change
+            if (previous != null && previous.displays.containsKey(entry.getKey()) && Objects.equals(previous.sources.get(entry.getKey()), entry.getValue())) {
+                displays.put(entry.getKey(), previous.displays.get(entry.getKey()));
+                continue;
+            }
+            final Display<SenderT> display = loadDisplayOrNull(entry.getValue());
+            if (display != null) {
+                displays.put(entry.getKey(), display);
+            }
+        }
+        sendLog(4, "Loaded lang file '{0}' in {1}ms", file.file.getPath(), (System.nanoTime() - start) / 1000000L);
+        return new LoadedFile<>(file.locale, file.file, objects, sources, displays);
+    }
+
+    protected void loadDisplays(@NotNull Locale locale, @NotNull File file) {
+        final LangSnapshot.Builder<SenderT> builder = getSnapshot().toBuilder(this::getPathId);
+        loadDisplays(builder, locale, file);
+        setSnapshot(builder.build());
+    }
+
+    protected void loadDisplays(@NotNull LangSnapshot.Builder<SenderT> snapshot, @NotNull Locale locale, @NotNull File file) {
+        final LoadedFile<SenderT> loaded = loadFile(new LangFile(locale, file), null, null);
+        snapshot.putObjects(locale, loaded.objects);
+        loaded.displays.forEach((key, display) -> snapshot.put(locale, key, display));
+    }
+
+    private void saveLangFolder(@NotNull File langFolder) {
         if (!langFolder.exists()) {
             langFolder.mkdirs();
         }
@@ -64,23 +281,51 @@ public abstract class AbstractLang<SenderT> extends DisplayHolder<SenderT> imple
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+    }
 
-        // Load objects
-        this.objects = new HashMap<>();
-        getLangFiles(langFolder).forEach((key, list) -> list.forEach(file -> loadDisplays(key, file)));
+    public void unload() {
+        stopWatching();
+        clear();
+        invalidateSenderLocales();
+        bossBarPool.clear();
     }
 
-    protected void loadDisplays(@NotNull Locale locale, @NotNull File file) {
-        for (var entry : getObjects(locale, file).entrySet()) {
-            final Display<SenderT> display = loadDisplayOrNull(entry.getValue());
-            if (display != null) {
-                this.put(locale, entry.getKey(), display);
-            }
+    public void startWatching() {
+        startWatching(DEFAULT_WATCH_DELAY);
+    }
+
+    public synchronized void startWatching(long delay) {
+        stopWatching();
+        final File langFolder = this.langFolder != null ? this.langFolder : getRootFolder();
+        final String cacheName = getCacheFile().getName();
+        try {
+            this.watcher = new LangWatcher(langFolder, delay, files -> {
+                files.removeIf(file -> file.getName().startsWith(cacheName));
+                if (files.isEmpty()) {
+                    return;
+                }
+                try {
+                    reload(files);
+                } catch (Throwable t) {
+                    sendLog(2, t, "Cannot reload changed lang files");
+                }
+            });
+            this.watcher.start();
+        } catch (IOException e) {
+            this.watcher = null;
+            sendLog(2, e, "Cannot watch lang folder " + langFolder.getPath());
         }
     }
 
-    public void unload() {
-        clear();
+    public synchronized void stopWatching() {
+        if (this.watcher != null) {
+            this.watcher.close();
+            this.watcher = null;
+        }
+    }
+
+    public boolean isWatching() {
+        return this.watcher != null;
     }
 
     public void reload() {
@@ -88,14 +333,42 @@ public abstract class AbstractLang<SenderT> extends DisplayHolder<SenderT> imple
     }
 
     public void reload(@NotNull File langFolder) {
-        clear();
+        // Clear cached settings, but keep the loaded displays until the new snapshot replaces them
+        reloading = true;
+        try {
+            clear();
+        } finally {
+            reloading = false;
+        }
         load(langFolder);
     }
 
+    @NotNull
+    public CompletableFuture<LangSnapshot<SenderT>> reloadAsync() {
+        return reloadAsync(getRootFolder());
+    }
+
+    @NotNull
+    public CompletableFuture<LangSnapshot<SenderT>> reloadAsync(@NotNull File langFolder) {
+        reloading = true;
+        try {
+            clear();
+        } finally {
+            reloading = false;
+        }
+        return loadAsync(langFolder);
+    }
+
     @Override
     public void clear() {
-        super.clear();
-        for (Path path : paths) {
+        if (!reloading) {
+            super.clear();
+        }
+        clearValues();
+    }
+
+    private void clearValues() {
+        for (Path path : getPaths()) {
             if (path instanceof Value) {
                 ((Value<?>) path).clear();
             }
@@ -112,6 +385,10 @@ public abstract class AbstractLang<SenderT> extends DisplayHolder<SenderT> imple
         this.useSettings = useSettings;
     }
 
+    public void setUseCache(boolean useCache) {
+        this.useCache = useCache;
+    }
+
     public void setDisplayType(@NotNull String displayType) {
         this.displayType = displayType;
     }
@@ -120,9 +397,18 @@ public abstract class AbstractLang<SenderT> extends DisplayHolder<SenderT> imple
         return useSettings;
     }
 
+    public boolean isUseCache() {
+        return useCache;
+    }
+
     @NotNull
     public abstract File getRootFolder();
 
+    @NotNull
+    protected File getCacheFile() {
+        return new File(getRootFolder(), ".lang-cache.bin");
+    }
+
     @NotNull
     protected Map<Locale, List<File>> getLangFiles(@NotNull File langFolder) {
         final Map<Locale, List<File>> map = new HashMap<>();
@@ -147,33 +433,81 @@ public abstract class AbstractLang<SenderT> extends DisplayHolder<SenderT> imple
 
     @NotNull
     public Map<Locale, DMap> getObjects() {
-        return objects;
+        return getSnapshot().getObjects();
     }
 
     @NotNull
-    private Map<String, Object> getObjects(@NotNull Locale locale, @NotNull File file) {
+    private List<LangFile> getLangFileList(@NotNull File langFolder) {
+        final List<LangFile> files = new ArrayList<>();
+        final String cacheName = getCacheFile().getName();
+        getLangFiles(langFolder).forEach((locale, list) -> {
+            for (File file : list) {
+                if (!file.getName().startsWith(cacheName)) {
+                    files.add(new LangFile(locale, file));
+                }
+            }
+        });
+        files.sort(Comparator.comparing(langFile -> langFile.file.getPath()));
+        return files;
+    }
+
+    @NotNull
+    private DMap readObjects(@NotNull File file, @Nullable LangCache cache) {
+        if (cache != null) {
+            final Map<String, Object> cached = cache.get(file, useSettings);
+            if (cached != null) {
+                return DMap.of(cached);
+            }
+        }
         final Map<String, Object> map;
         if (useSettings) {
             map = SettingsData.of(file.getName()).load(file.getParentFile()).asLiteralObject();
         } else {
             map = getFileObjects(file);
         }
-        final DMap objects = DMap.of(map);
-        if (this.objects.containsKey(locale)) {
-            this.objects.get(locale).merge(objects);
-        } else {
-            this.objects.put(locale, objects);
+        if (cache != null) {
+            cache.put(file, useSettings, map);
         }
-        return objects.asDeepPath(".", (pathKey, value) -> {
-            for (Path path : this.getPaths()) {
-                if (path.getPath().equals(pathKey) || path.getAliases().contains(pathKey)) {
-                    return false;
-                }
-            }
-            if (value instanceof Map) {
-                return DMap.of((Map<?, ?>) value).getIgnoreCase(Display.TYPE_KEY) == null;
+        return DMap.of(map);
+    }
+
+    @Nullable
+    private LangCache readCache() {
+        if (!useCache) {
+            return null;
+        }
+        final LangCache cache = new LangCache(getCacheFile());
+        try {
+            cache.read();
+        } catch (IOException e) {
+            sendLog(3, e, "Cannot read lang cache, every file will be parsed");
+        }
+        return cache;
+    }
+
+    private void writeCache(@Nullable LangCache cache) {
+        if (cache == null) {
+            return;
+        }
+        try {
+            cache.write();
+        } catch (IOException e) {
+            sendLog(2, e, "Cannot write lang cache");
+        }
+    }
+
+    @NotNull
+    private Map<String, Object> flattenObjects(@NotNull DMap objects) {
+        final Set<String> pathKeys = new HashSet<>();
+        for (Path path : this.getPaths()) {
+            pathKeys.add(path.getPath());
+            pathKeys.addAll(path.getAliases());
+        }
+        return objects.flatten((path, value) -> {
+            if (pathKeys.contains(path.toString())) {
+                return false;
             }
-            return true;
+            return DMap.of((Map<?, ?>) value).getIgnoreCase(Display.TYPE_KEY) == null;
         });
     }
 
@@ -190,6 +524,15 @@ public abstract class AbstractLang<SenderT> extends DisplayHolder<SenderT> imple
         return langProviders;
     }
 
+    @NotNull
+    public BossBarPool getBossBarPool() {
+        return bossBarPool;
+    }
+
+    protected void runSync(@NotNull Runnable runnable) {
+        runnable.run();
+    }
+
     @NotNull
     public List<Path> getPaths() {
         if (paths == null) {
@@ -207,6 +550,17 @@ public abstract class AbstractLang<SenderT> extends DisplayHolder<SenderT> imple
         return displayLoaders;
     }
 
+    @Override
+    public @Nullable DisplayLoader<SenderT> getDisplayLoaderOrNull(@NotNull String name) {
+        DisplayRegistry<SenderT> registry = displayRegistry;
+        if (registry == null || registry.getLoaders().size() != getDisplayLoaders().size()) {
+            // Compiled again if any loader was added into the list
+            registry = DisplayRegistry.of(getDisplayLoaders());
+            displayRegistry = registry;
+        }
+        return registry.get(name);
+    }
+
     @NotNull
     @Override
     public String getDisplayType() {
@@ -263,7 +617,7 @@ public abstract class AbstractLang<SenderT> extends DisplayHolder<SenderT> imple
 
     @Nullable
     public Object getValue(@Nullable Object language, @NotNull String... path) {
-        final DMap map = this.objects.get(getEffectiveLocale(language));
+        final DMap map = getObjects().get(getEffectiveLocale(language));
         if (map == null) {
             return null;
         }
@@ -312,8 +666,11 @@ public abstract class AbstractLang<SenderT> extends DisplayHolder<SenderT> imple
     }
 
     @SuppressWarnings("unchecked")
-    private void computeDisplayLoaders() {
-        displayLoaders = new ArrayList<>();
+    private synchronized void computeDisplayLoaders() {
+        if (displayLoaders != null) {
+            return;
+        }
+        final List<DisplayLoader<SenderT>> displayLoaders = new ArrayList<>();
         final Set<String> loaded = new HashSet<>();
         computeFields(getLangProviders(), DisplayLoader.class, (name, loader) -> {
             if (loaded.contains(name)) {
@@ -323,6 +680,8 @@ public abstract class AbstractLang<SenderT> extends DisplayHolder<SenderT> imple
             loaded.add(name);
             Displays.register(name.toLowerCase(), loader);
         });
+        this.displayRegistry = DisplayRegistry.of(displayLoaders);
+        this.displayLoaders = displayLoaders;
     }
 
     @SuppressWarnings("unchecked")
@@ -344,4 +703,32 @@ public abstract class AbstractLang<SenderT> extends DisplayHolder<SenderT> imple
             }
         }
     }
+
+    private static final class LangFile {
+
+        private final Locale locale;
+        private final File file;
+
+        LangFile(@NotNull Locale locale, @NotNull File file) {
+            this.locale = locale;
+            this.file = file;
+        }
+    }
+
+    private static final class LoadedFile<SenderT> {
+
+        private final Locale locale;
+        private final File file;
+        private final DMap objects;
+        private final Map<String, Object> sources;
+        private final Map<String, Display<SenderT>> displays;
+
+        LoadedFile(@NotNull Locale locale, @NotNull File file, @NotNull DMap objects, @NotNull Map<String, Object> sources, @NotNull Map<String, Display<SenderT>> displays) {
+            this.locale = locale;
+            this.file = file;
+            this.objects = objects;
+            this.sources = sources;
+            this.displays = displays;
+        }
+    }
 }
@@ -0,0 +1,40 @@
+package com.saicone.mcode.module.lang;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public enum BroadcastMode {
+
+    // Render once for every sender group when the display doesn't have sender placeholders
+    AUTO,
+    // Render once for every sender group, sender placeholders are not parsed
+    SHARED,
+    // Render for every sender
+    PER_SENDER;
+
+    public boolean isShared(@NotNull Display<?> display) {
+        switch (this) {
+            case AUTO:
+                return !display.isSenderRelative();
+            case SHARED:
+                return true;
+            case PER_SENDER:
+            default:
+                return false;
+        }
+    }
+
+    @NotNull
+    public BroadcastMode withArgs(@Nullable Object... args) {
+        if (this != AUTO || args == null) {
+            return this;
+        }
+        // Args are rendered into the text, so they may also carry sender placeholders
+        for (Object arg : args) {
+            if (String.valueOf(arg).indexOf('%') >= 0) {
+                return PER_SENDER;
+            }
+        }
+        return this;
+    }
+}
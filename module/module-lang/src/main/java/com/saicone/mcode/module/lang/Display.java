@@ -1,6 +1,7 @@
 package com.saicone.mcode.module.lang;
 
 import com.saicone.mcode.platform.Text;
+import com.saicone.mcode.util.text.TextTemplate;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -35,6 +36,14 @@ public interface Display<SenderT> {
         sendTo(senders, text -> text.args(args).parseAgent(agent), (player, text) -> text.parse(player));
     }
 
+    default void sendArgs(@NotNull Collection<? extends SenderT> senders, @NotNull BroadcastMode mode, @Nullable Object... args) {
+        sendTo(senders, text -> text.args(args), mode.withArgs(args));
+    }
+
+    default void sendArgsWith(@NotNull SenderT agent, @NotNull Collection<? extends SenderT> senders, @NotNull BroadcastMode mode, @Nullable Object... args) {
+        sendTo(senders, text -> text.args(args).parseAgent(agent), mode.withArgs(args));
+    }
+
     void sendTo(@NotNull SenderT type, @NotNull Function<Text, Text> parser);
 
     default void sendTo(@NotNull Collection<? extends SenderT> senders, @NotNull Function<Text, Text> parser) {
@@ -42,11 +51,31 @@ public interface Display<SenderT> {
     }
 
     default void sendTo(@NotNull Collection<? extends SenderT> senders, @NotNull Function<Text, Text> parser, @NotNull BiFunction<SenderT, Text, Text> playerParser) {
+        // Every text of this display is parsed once, only the player parser is applied for each sender
+        final Map<Text, Text> parsed = new IdentityHashMap<>();
         for (SenderT sender : senders) {
-            sendTo(sender, parser);
+            sendTo(sender, text -> playerParser.apply(sender, parsed.computeIfAbsent(text, parser)));
+        }
+    }
+
+    default void sendTo(@NotNull Collection<? extends SenderT> senders, @NotNull Function<Text, Text> parser, @NotNull BroadcastMode mode) {
+        if (mode.isShared(this)) {
+            // Every sender receives the same parsed text
+            sendTo(senders, parser, (player, text) -> text);
+        } else {
+            sendTo(senders, parser);
         }
     }
 
+    default boolean isSenderRelative() {
+        final Text text = getTextOrNull();
+        if (text == null) {
+            return false;
+        }
+        // Only string texts can be checked for placeholders without parsing them
+        return !text.isString() || text.getAsString().getTemplate().contains('%');
+    }
+
     default @Nullable Object get(@NotNull String field) {
         return null;
     }
@@ -57,6 +86,14 @@ public interface Display<SenderT> {
 
     default @Nullable Text getTextOrNull() {
         final Object object = get("text");
+        if (object instanceof Text) {
+            return (Text) object;
+        }
         return object == null ? null : Text.valueOf(object);
     }
+
+    default @Nullable TextTemplate getTemplate() {
+        final Text text = getTextOrNull();
+        return text != null && text.isString() ? text.getAsString().getTemplate() : null;
+    }
 }
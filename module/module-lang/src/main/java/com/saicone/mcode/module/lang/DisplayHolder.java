@@ -5,24 +5,69 @@ import com.saicone.mcode.util.text.Strings;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
 
 public abstract class DisplayHolder<SenderT> implements LangSupplier {
 
-    private final Map<Locale, Map<String, Display<SenderT>>> displays = new HashMap<>();
+    // Path ids are stable for the whole holder life, so paths can resolve them once
+    private final Map<String, Integer> pathIds = new ConcurrentHashMap<>();
+    private volatile LangSnapshot<SenderT> snapshot = LangSnapshot.empty();
+    // Effective locale of senders with id, only used when enabled and kept until the snapshot changes or the sender quits
+    private final Map<UUID, SenderLocale> senderLocales = new ConcurrentHashMap<>();
+    private volatile boolean cacheSenderLocales;
+    private final LongAdder senderLocaleHits = new LongAdder();
+    private final LongAdder senderLocaleMisses = new LongAdder();
 
     @Nullable
-    public Display<SenderT> put(@NotNull Locale locale, @NotNull String key, @NotNull Display<SenderT> display) {
-        if (!displays.containsKey(locale)) {
-            displays.put(locale, new HashMap<>());
+    public synchronized Display<SenderT> put(@NotNull Locale locale, @NotNull String key, @NotNull Display<SenderT> display) {
+        // Only the row of given locale is copied, bulk changes should use putAll() or a snapshot builder
+        final LangSnapshot<SenderT> snapshot = this.snapshot;
+        final int pathId = getPathId(key);
+        final Display<SenderT> previous = snapshot.get(locale, pathId);
+        this.snapshot = snapshot.with(locale, key, pathId, display);
+        return previous;
+    }
+
+    public synchronized void putAll(@NotNull Locale locale, @NotNull Map<String, Display<SenderT>> displays) {
+        final LangSnapshot.Builder<SenderT> builder = snapshot.toBuilder(this::getPathId);
+        displays.forEach((key, display) -> builder.put(locale, key, display));
+        this.snapshot = builder.build();
+    }
+
+    @NotNull
+    public LangSnapshot<SenderT> getSnapshot() {
+        return snapshot;
+    }
+
+    @NotNull
+    protected LangSnapshot.Builder<SenderT> newSnapshot() {
+        return LangSnapshot.builder(this::getPathId);
+    }
+
+    public synchronized void setSnapshot(@NotNull LangSnapshot<SenderT> snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public int getPathId(@NotNull String path) {
+        final Integer id = pathIds.get(path);
+        if (id != null) {
+            return id;
+        }
+        synchronized (pathIds) {
+            return pathIds.computeIfAbsent(path, key -> pathIds.size());
         }
-        return displays.get(locale).put(key, display);
     }
 
     @Override
@@ -30,6 +75,71 @@ public abstract class DisplayHolder<SenderT> implements LangSupplier {
         return DEFAULT_LOCALE;
     }
 
+    // Id of an online sender to cache its locale, null if the locale of given sender must not be cached
+    @Nullable
+    protected UUID getSenderId(@NotNull Object sender) {
+        return null;
+    }
+
+    public boolean isCacheSenderLocales() {
+        return cacheSenderLocales;
+    }
+
+    public void setCacheSenderLocales(boolean cacheSenderLocales) {
+        this.cacheSenderLocales = cacheSenderLocales;
+        senderLocales.clear();
+    }
+
+    @NotNull
+    public Locale getSenderLocale(@NotNull Object sender) {
+        return senderLocale(sender).locale;
+    }
+
+    @NotNull
+    SenderLocale senderLocale(@NotNull Object sender) {
+        final LangSnapshot<SenderT> snapshot = this.snapshot;
+        final UUID id = cacheSenderLocales ? getSenderId(sender) : null;
+        if (id == null) {
+            final Locale locale = getEffectiveLocale(sender);
+            return new SenderLocale(snapshot, locale, snapshot.getLocaleId(locale));
+        }
+        SenderLocale senderLocale = senderLocales.get(id);
+        if (senderLocale != null && senderLocale.snapshot == snapshot) {
+            senderLocaleHits.increment();
+            return senderLocale;
+        }
+        senderLocaleMisses.increment();
+        final Locale locale = getEffectiveLocale(getHolderLocale(sender));
+        senderLocale = new SenderLocale(snapshot, locale, snapshot.getLocaleId(locale));
+        senderLocales.put(id, senderLocale);
+        return senderLocale;
+    }
+
+    public long getSenderLocaleHits() {
+        return senderLocaleHits.sum();
+    }
+
+    public long getSenderLocaleMisses() {
+        return senderLocaleMisses.sum();
+    }
+
+    public void setSenderLocale(@NotNull UUID id, @NotNull Locale locale) {
+        if (!cacheSenderLocales) {
+            return;
+        }
+        final LangSnapshot<SenderT> snapshot = this.snapshot;
+        final Locale effective = getEffectiveLocale(locale);
+        senderLocales.put(id, new SenderLocale(snapshot, effective, snapshot.getLocaleId(effective)));
+    }
+
+    public void invalidateSenderLocale(@NotNull UUID id) {
+        senderLocales.remove(id);
+    }
+
+    public void invalidateSenderLocales() {
+        senderLocales.clear();
+    }
+
     @NotNull
     public Display<SenderT> getDisplay(@NotNull String key) {
         return getDisplay(getDefaultLocale(), key);
@@ -48,11 +158,16 @@ public abstract class DisplayHolder<SenderT> implements LangSupplier {
 
     @Nullable
     public Display<SenderT> getDisplayOrNull(@NotNull Locale locale, @NotNull String key) {
-        final Map<String, Display<SenderT>> displays = getDisplays(locale);
-        if (displays == null) {
+        final Integer id = pathIds.get(key);
+        if (id == null) {
             return null;
         }
-        return displays.get(key);
+        return snapshot.get(locale, id);
+    }
+
+    @Nullable
+    public Display<SenderT> getDisplayOrNull(@NotNull Locale locale, @NotNull Path path) {
+        return snapshot.get(locale, path.getId(this));
     }
 
     @NotNull
@@ -64,9 +179,39 @@ public abstract class DisplayHolder<SenderT> implements LangSupplier {
         return Display.empty();
     }
 
+    @NotNull
+    private Display<SenderT> getDisplayOrDefault(@NotNull SenderLocale senderLocale, @NotNull String key) {
+        final Integer id = pathIds.get(key);
+        return getDisplayOrDefault(senderLocale, id == null ? -1 : id);
+    }
+
+    @NotNull
+    private Display<SenderT> getDisplayOrDefault(@NotNull SenderLocale senderLocale, @NotNull Path path) {
+        return getDisplayOrDefault(senderLocale, path.getId(this));
+    }
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    private Display<SenderT> getDisplayOrDefault(@NotNull SenderLocale senderLocale, int pathId) {
+        final Display<SenderT> display = ((LangSnapshot<SenderT>) senderLocale.snapshot).get(senderLocale.localeId, pathId);
+        if (display != null) {
+            return display;
+        }
+        return Display.empty();
+    }
+
+    @NotNull
+    public Display<SenderT> getDisplayOrDefault(@NotNull Locale locale, @NotNull Path path) {
+        final Display<SenderT> display = getDisplayOrNull(locale, path);
+        if (display != null) {
+            return display;
+        }
+        return Display.empty();
+    }
+
     @Nullable
     public Map<String, Display<SenderT>> getDisplays(@NotNull Locale locale) {
-        return displays.get(locale);
+        return snapshot.getDisplays(locale);
     }
 
     @NotNull
@@ -75,21 +220,12 @@ public abstract class DisplayHolder<SenderT> implements LangSupplier {
     @NotNull
     protected abstract Collection<? extends SenderT> getSenders();
 
-    public void clear() {
-        for (var entry : displays.entrySet()) {
-            entry.getValue().clear();
-        }
-        displays.clear();
+    public synchronized void clear() {
+        this.snapshot = LangSnapshot.empty();
     }
 
-    public void clear(@NotNull Locale locale) {
-        displays.entrySet().removeIf(entry -> {
-            if (entry.getKey().equals(locale)) {
-                entry.getValue().clear();
-                return true;
-            }
-            return false;
-        });
+    public synchronized void clear(@NotNull Locale locale) {
+        this.snapshot = snapshot.toBuilder(this::getPathId).remove(locale).build();
     }
 
     @NotNull
@@ -136,7 +272,7 @@ public abstract class DisplayHolder<SenderT> implements LangSupplier {
     }
 
     public void sendTo(@NotNull SenderT sender, @NotNull String path, @Nullable Object... args) {
-        sendTo(sender, getHolderLocale(sender), path, args);
+        getDisplayOrDefault(senderLocale(sender), path).sendArgs(sender, args);
     }
 
     protected void sendTo(@NotNull SenderT sender, @NotNull Locale locale, @NotNull String path, @Nullable Object... args) {
@@ -144,15 +280,23 @@ public abstract class DisplayHolder<SenderT> implements LangSupplier {
     }
 
     public void sendTo(@NotNull SenderT sender, @NotNull String path, @NotNull UnaryOperator<String> parser) {
-        sendTo(sender, getHolderLocale(sender), path, text -> text.apply(parser));
+        getDisplayOrDefault(senderLocale(sender), path).sendTo(sender, text -> text.apply(parser));
     }
 
     protected void sendTo(@NotNull SenderT sender, @NotNull Locale locale, @NotNull String path, @NotNull Function<Text, Text> parser) {
         getDisplayOrDefault(getEffectiveLocale(locale), path).sendTo(sender, parser);
     }
 
+    public void sendTo(@NotNull SenderT sender, @NotNull Path path, @Nullable Object... args) {
+        getDisplayOrDefault(senderLocale(sender), path).sendArgs(sender, args);
+    }
+
+    public void sendWith(@NotNull SenderT agent, @NotNull SenderT sender, @NotNull Path path, @Nullable Object... args) {
+        getDisplayOrDefault(senderLocale(sender), path).sendArgsWith(agent, sender, args);
+    }
+
     public void sendWith(@NotNull SenderT agent, @NotNull SenderT sender, @NotNull String path, @Nullable Object... args) {
-        sendWith(agent, sender, getHolderLocale(sender), path, args);
+        getDisplayOrDefault(senderLocale(sender), path).sendArgsWith(agent, sender, args);
     }
 
     protected void sendWith(@NotNull SenderT agent, @NotNull SenderT sender, @NotNull Locale locale, @NotNull String path, @Nullable Object... args) {
@@ -171,6 +315,14 @@ public abstract class DisplayHolder<SenderT> implements LangSupplier {
         getDisplay(getHolderLocale(null), path).sendArgsWith(agent, getConsole(), args);
     }
 
+    public void sendToConsole(@NotNull Path path, @Nullable Object... args) {
+        getDisplayOrDefault(getHolderLocale(null), path).sendArgs(getConsole(), args);
+    }
+
+    public void sendToConsoleWith(@NotNull SenderT agent, @NotNull Path path, @Nullable Object... args) {
+        getDisplayOrDefault(getHolderLocale(null), path).sendArgsWith(agent, getConsole(), args);
+    }
+
     public void sendToAll(@NotNull String path, @Nullable Object... args) {
         getDisplay(getDefaultLocale(), path).sendArgs(getSenders(), args);
     }
@@ -195,6 +347,57 @@ public abstract class DisplayHolder<SenderT> implements LangSupplier {
         getDisplayOrDefault(getEffectiveLocale(locale), path).sendTo(getSenders(), parser, playerParser);
     }
 
+    public void sendToAll(@NotNull Path path, @Nullable Object... args) {
+        getDisplayOrDefault(getDefaultLocale(), path).sendArgs(getSenders(), args);
+    }
+
+    public void sendToAllWith(@NotNull SenderT agent, @NotNull Path path, @Nullable Object... args) {
+        getDisplayOrDefault(getDefaultLocale(), path).sendArgsWith(agent, getSenders(), args);
+    }
+
+    public void sendToAll(@NotNull String path, @NotNull BroadcastMode mode, @Nullable Object... args) {
+        final Integer id = pathIds.get(path);
+        if (id != null) {
+            broadcast(id, (display, senders) -> display.sendArgs(senders, mode, args));
+        }
+    }
+
+    public void sendToAll(@NotNull Path path, @NotNull BroadcastMode mode, @Nullable Object... args) {
+        broadcast(path.getId(this), (display, senders) -> display.sendArgs(senders, mode, args));
+    }
+
+    public void sendToAllWith(@NotNull SenderT agent, @NotNull String path, @NotNull BroadcastMode mode, @Nullable Object... args) {
+        final Integer id = pathIds.get(path);
+        if (id != null) {
+            broadcast(id, (display, senders) -> display.sendArgsWith(agent, senders, mode, args));
+        }
+    }
+
+    public void sendToAllWith(@NotNull SenderT agent, @NotNull Path path, @NotNull BroadcastMode mode, @Nullable Object... args) {
+        broadcast(path.getId(this), (display, senders) -> display.sendArgsWith(agent, senders, mode, args));
+    }
+
+    private void broadcast(int pathId, @NotNull BiConsumer<Display<SenderT>, List<SenderT>> action) {
+        final Collection<? extends SenderT> senders = getSenders();
+        if (senders.isEmpty()) {
+            return;
+        }
+        // Group senders by row, so every group is sent with a single display call
+        final LangSnapshot<SenderT> snapshot = this.snapshot;
+        final Map<Integer, List<SenderT>> groups = new HashMap<>();
+        for (SenderT sender : senders) {
+            final SenderLocale senderLocale = senderLocale(sender);
+            final int localeId = senderLocale.snapshot == snapshot ? senderLocale.localeId : snapshot.getLocaleId(senderLocale.locale);
+            groups.computeIfAbsent(localeId, key -> new ArrayList<>()).add(sender);
+        }
+        for (Map.Entry<Integer, List<SenderT>> entry : groups.entrySet()) {
+            final Display<SenderT> display = snapshot.get(entry.getKey(), pathId);
+            if (display != null) {
+                action.accept(display, entry.getValue());
+            }
+        }
+    }
+
     public void sendToAllWith(@NotNull SenderT agent, @NotNull String path, @Nullable Object... args) {
         getDisplay(getDefaultLocale(), path).sendArgsWith(agent, getSenders(), args);
     }
@@ -202,4 +405,17 @@ public abstract class DisplayHolder<SenderT> implements LangSupplier {
     public void sendToAllWith(@NotNull SenderT agent, @NotNull Locale locale, @NotNull String path, @Nullable Object... args) {
         getDisplayOrDefault(getEffectiveLocale(locale), path).sendArgsWith(agent, getSenders(), args);
     }
+
+    static final class SenderLocale {
+
+        final LangSnapshot<?> snapshot;
+        final Locale locale;
+        final int localeId;
+
+        SenderLocale(@NotNull LangSnapshot<?> snapshot, @NotNull Locale locale, int localeId) {
+            this.snapshot = snapshot;
+            this.locale = locale;
+            this.localeId = localeId;
+        }
+    }
 }
@@ -29,6 +29,23 @@ public class DisplayList<SenderT> implements Display<SenderT>, List<Display<Send
         }
     }
 
+    @Override
+    public void sendTo(@NotNull Collection<? extends SenderT> senders, @NotNull Function<Text, Text> parser, @NotNull BroadcastMode mode) {
+        for (Display<SenderT> display : list) {
+            display.sendTo(senders, parser, mode);
+        }
+    }
+
+    @Override
+    public boolean isSenderRelative() {
+        for (Display<SenderT> display : list) {
+            if (display.isSenderRelative()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     // Default list implementation
 
     @Override
@@ -0,0 +1,240 @@
+package com.saicone.mcode.module.lang;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnmodifiableView;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+public class DisplayRegistry<SenderT> {
+
+    private static final DisplayRegistry<?> EMPTY = new DisplayRegistry<>(List.of());
+    private static final int MAX_LITERALS = 64;
+    private static final int MAX_CACHED = 4096;
+    private static final Integer NOT_FOUND = -1;
+    private static final String GROUP = "mcodeloader";
+
+    private final List<DisplayLoader<SenderT>> loaders;
+    // Loader index by literal alias, exact and ASCII case-folded
+    private final Map<String, Integer> exact = new HashMap<>();
+    private final Map<String, Integer> folded = new HashMap<>();
+    // Loaders that can't be expanded into literals, combined into a single pattern
+    private final int[] regexLoaders;
+    private final Pattern combined;
+    // Loader index by every name seen
+    private final Map<String, Integer> cache = new ConcurrentHashMap<>();
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public static <T> DisplayRegistry<T> empty() {
+        return (DisplayRegistry<T>) EMPTY;
+    }
+
+    @NotNull
+    public static <T> DisplayRegistry<T> of(@NotNull Collection<DisplayLoader<T>> loaders) {
+        return loaders.isEmpty() ? empty() : new DisplayRegistry<>(loaders);
+    }
+
+    DisplayRegistry(@NotNull Collection<DisplayLoader<SenderT>> loaders) {
+        this.loaders = List.copyOf(loaders);
+        final List<Integer> regexLoaders = new ArrayList<>();
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < this.loaders.size(); i++) {
+            final String regex = this.loaders.get(i).getRegex();
+            final boolean ignoreCase = regex.startsWith("(?i)");
+            final List<String> literals = literals(ignoreCase ? regex.substring(4) : regex);
+            if (literals != null) {
+                for (String literal : literals) {
+                    // The first loader in order wins, like a linear scan
+                    (ignoreCase ? folded : exact).putIfAbsent(ignoreCase ? fold(literal) : literal, i);
+                }
+                continue;
+            }
+            if (builder.length() > 0) {
+                builder.append('|');
+            }
+            builder.append("(?<").append(GROUP).append(regexLoaders.size()).append(">(?:").append(regex).append("))");
+            regexLoaders.add(i);
+        }
+        this.regexLoaders = regexLoaders.stream().mapToInt(Integer::intValue).toArray();
+        this.combined = this.regexLoaders.length == 0 ? null : combine(builder.toString());
+    }
+
+    @Nullable
+    private Pattern combine(@NotNull String regex) {
+        // Back references can't be combined, their group numbers would change
+        for (int index : regexLoaders) {
+            final String s = loaders.get(index).getRegex();
+            if (s.contains("\\k<") || s.matches(".*\\\\[1-9].*")) {
+                return null;
+            }
+        }
+        try {
+            return Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            return null;
+        }
+    }
+
+    @NotNull
+    @UnmodifiableView
+    public List<DisplayLoader<SenderT>> getLoaders() {
+        return loaders;
+    }
+
+    @Nullable
+    public DisplayLoader<SenderT> get(@NotNull String name) {
+        Integer index = cache.get(name);
+        if (index == null) {
+            index = find(name);
+            if (cache.size() >= MAX_CACHED) {
+                cache.clear();
+            }
+            cache.put(name, index);
+        }
+        return index < 0 ? null : loaders.get(index);
+    }
+
+    @NotNull
+    private Integer find(@NotNull String name) {
+        int index = Integer.MAX_VALUE;
+        Integer literal = exact.get(name);
+        if (literal != null) {
+            index = literal;
+        }
+        literal = folded.get(fold(name));
+        if (literal != null && literal < index) {
+            index = literal;
+        }
+        // Regex loaders only matter when they're declared before the matched literal
+        if (regexLoaders.length > 0 && regexLoaders[0] < index) {
+            final int regex = findRegex(name);
+            if (regex >= 0 && regex < index) {
+                index = regex;
+            }
+        }
+        return index == Integer.MAX_VALUE ? NOT_FOUND : index;
+    }
+
+    private int findRegex(@NotNull String name) {
+        if (combined == null) {
+            for (int index : regexLoaders) {
+                if (loaders.get(index).matches(name)) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+        final Matcher matcher = combined.matcher(name);
+        if (!matcher.matches()) {
+            return -1;
+        }
+        for (int i = 0; i < regexLoaders.length; i++) {
+            if (matcher.start(GROUP + i) >= 0) {
+                return regexLoaders[i];
+            }
+        }
+        return -1;
+    }
+
+    @NotNull
+    private static String fold(@NotNull String s) {
+        // Same as (?i) without UNICODE_CASE, only ASCII letters are case-insensitive
+        char[] chars = null;
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                if (chars == null) {
+                    chars = s.toCharArray();
+                }
+                chars[i] = (char) (c + 32);
+            }
+        }
+        return chars == null ? s : new String(chars);
+    }
+
+    // Expand a regex made of literal chars, optional chars and groups into every string it matches
+
+    @Nullable
+    static List<String> literals(@NotNull String regex) {
+        final int[] pos = {0};
+        final List<String> list = alternation(regex, pos);
+        return list != null && pos[0] == regex.length() ? list : null;
+    }
+
+    @Nullable
+    private static List<String> alternation(@NotNull String regex, int[] pos) {
+        final List<String> list = new ArrayList<>();
+        while (true) {
+            final List<String> sequence = sequence(regex, pos);
+            if (sequence == null) {
+                return null;
+            }
+            list.addAll(sequence);
+            if (list.size() > MAX_LITERALS) {
+                return null;
+            }
+            if (pos[0] < regex.length() && regex.charAt(pos[0]) == '|') {
+                pos[0]++;
+                continue;
+            }
+            return list;
+        }
+    }
+
+    @Nullable
+    private static List<String> sequence(@NotNull String regex, int[] pos) {
+        List<String> options = List.of("");
+        while (pos[0] < regex.length()) {
+            final char c = regex.charAt(pos[0]);
+            final List<String> atom;
+            if (c == '|' || c == ')') {
+                break;
+            } else if (c == '(') {
+                pos[0]++;
+                if (regex.startsWith("?:", pos[0])) {
+                    pos[0] += 2;
+                } else if (pos[0] < regex.length() && regex.charAt(pos[0]) == '?') {
+                    // Flags, lookarounds or named groups
+                    return null;
+                }
+                atom = alternation(regex, pos);
+                if (atom == null || pos[0] >= regex.length() || regex.charAt(pos[0]) != ')') {
+                    return null;
+                }
+                pos[0]++;
+            } else if (c < 128 && (Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == ' ')) {
+                atom = List.of(String.valueOf(c));
+                pos[0]++;
+            } else {
+                return null;
+            }
+            final boolean optional = pos[0] < regex.length() && regex.charAt(pos[0]) == '?';
+            if (optional) {
+                pos[0]++;
+            }
+            final List<String> next = new ArrayList<>();
+            for (String option : options) {
+                for (String s : atom) {
+                    next.add(option + s);
+                }
+                if (optional) {
+                    next.add(option);
+                }
+            }
+            if (next.size() > MAX_LITERALS) {
+                return null;
+            }
+            options = next;
+        }
+        return options;
+    }
+}
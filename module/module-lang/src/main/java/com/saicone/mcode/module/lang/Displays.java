@@ -4,15 +4,28 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnmodifiableView;
 
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 @SuppressWarnings("unchecked")
 public class Displays {
 
-    private static final Map<String, DisplayLoader<Object>> LOADER_TYPES = new HashMap<>();
-    private static final DisplaySupplier<Object> DISPLAY_HOLDER = LOADER_TYPES::values;
+    private static final Map<String, DisplayLoader<Object>> LOADER_TYPES = new LinkedHashMap<>();
+    // Compiled again on every register, lookups never lock
+    private static volatile DisplayRegistry<Object> REGISTRY = DisplayRegistry.empty();
+    private static final DisplaySupplier<Object> DISPLAY_HOLDER = new DisplaySupplier<>() {
+        @Override
+        public @NotNull Collection<DisplayLoader<Object>> getDisplayLoaders() {
+            return REGISTRY.getLoaders();
+        }
+
+        @Override
+        public @Nullable DisplayLoader<Object> getDisplayLoaderOrNull(@NotNull String name) {
+            return REGISTRY.get(name);
+        }
+    };
 
     Displays() {
     }
@@ -30,7 +43,7 @@ public class Displays {
     @UnmodifiableView
     @NotNull
     public static List<DisplayLoader<Object>> loaders() {
-        return List.copyOf(LOADER_TYPES.values());
+        return REGISTRY.getLoaders();
     }
 
     @NotNull
@@ -60,11 +73,23 @@ public class Displays {
 
     @Nullable
     public static DisplayLoader<?> register(@NotNull String name, @NotNull DisplayLoader<?> loader) {
-        return LOADER_TYPES.put(name.toLowerCase(), (DisplayLoader<Object>) loader);
+        synchronized (LOADER_TYPES) {
+            final DisplayLoader<?> previous = LOADER_TYPES.put(name.toLowerCase(), (DisplayLoader<Object>) loader);
+            if (previous != loader) {
+                REGISTRY = DisplayRegistry.of(LOADER_TYPES.values());
+            }
+            return previous;
+        }
     }
 
     @Nullable
     public static DisplayLoader<?> unregister(@NotNull String name) {
-        return LOADER_TYPES.remove(name.toLowerCase());
+        synchronized (LOADER_TYPES) {
+            final DisplayLoader<?> previous = LOADER_TYPES.remove(name.toLowerCase());
+            if (previous != null) {
+                REGISTRY = DisplayRegistry.of(LOADER_TYPES.values());
+            }
+            return previous;
+        }
     }
 }
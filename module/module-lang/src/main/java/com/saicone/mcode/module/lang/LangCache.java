@@ -0,0 +1,304 @@
+package com.saicone.mcode.module.lang;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+
+public class LangCache {
+
+    private static final int MAGIC = 0x4D4C4E47; // MLNG
+    private static final int VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte TRUE = 2;
+    private static final byte FALSE = 3;
+    private static final byte INT = 4;
+    private static final byte LONG = 5;
+    private static final byte FLOAT = 6;
+    private static final byte DOUBLE = 7;
+    private static final byte LIST = 8;
+    private static final byte MAP = 9;
+
+    private final File file;
+    // Entries read from disk, by source path
+    private final Map<String, Entry> cached = new ConcurrentHashMap<>();
+    // Entries to write, only the source files seen on current load are kept
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean dirty;
+
+    public LangCache(@NotNull File file) {
+        this.file = file;
+    }
+
+    @NotNull
+    public File getFile() {
+        return file;
+    }
+
+    public void read() throws IOException {
+        cached.clear();
+        if (!file.isFile()) {
+            return;
+        }
+        // Read into the heap, a mapped file would stay open until GC and block the replace on write()
+        final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return;
+            }
+            final int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                final byte[] utf = new byte[buffer.getInt()];
+                buffer.get(utf);
+                final String path = new String(utf, StandardCharsets.UTF_8);
+                final long size = buffer.getLong();
+                final long modified = buffer.getLong();
+                final int hash = buffer.getInt();
+                final boolean settings = buffer.get() != 0;
+                final byte[] payload = new byte[buffer.getInt()];
+                buffer.get(payload);
+                cached.put(path, new Entry(size, modified, hash, settings, payload));
+            }
+        } catch (RuntimeException e) {
+            // Corrupted or truncated file, every source will be parsed again
+            cached.clear();
+        }
+    }
+
+    @Nullable
+    public Map<String, Object> get(@NotNull File source, boolean settings) {
+        final String path = source.getPath();
+        final Entry entry = cached.get(path);
+        if (entry == null || entry.settings != settings || entry.size != source.length() || entry.modified != source.lastModified()) {
+            return null;
+        }
+        try {
+            if (entry.hash != hash(source)) {
+                return null;
+            }
+            final Map<String, Object> objects = decode(entry.payload);
+            entries.put(path, entry);
+            return objects;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    public void put(@NotNull File source, boolean settings, @NotNull Map<String, Object> objects) {
+        final byte[] payload = encode(objects);
+        if (payload == null) {
+            return;
+        }
+        try {
+            entries.put(source.getPath(), new Entry(source.length(), source.lastModified(), hash(source), settings, payload));
+            dirty = true;
+        } catch (IOException ignored) { }
+    }
+
+    public void write() throws IOException {
+        if (!dirty && entries.keySet().equals(cached.keySet())) {
+            return;
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                final Entry entry = e.getValue();
+                final byte[] path = e.getKey().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(path.length);
+                out.write(path);
+                out.writeLong(entry.size);
+                out.writeLong(entry.modified);
+                out.writeInt(entry.hash);
+                out.writeByte(entry.settings ? 1 : 0);
+                out.writeInt(entry.payload.length);
+                out.write(entry.payload);
+            }
+        }
+        final File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        final File temp = new File(parent, file.getName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp.toPath())) {
+            bytes.writeTo(out);
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        dirty = false;
+    }
+
+    private static int hash(@NotNull File file) throws IOException {
+        final CRC32C crc = new CRC32C();
+        crc.update(Files.readAllBytes(file.toPath()));
+        return (int) crc.getValue();
+    }
+
+    // Payload: string table followed by a single typed value
+
+    @Nullable
+    private static byte[] encode(@NotNull Map<String, Object> objects) {
+        final Map<String, Integer> strings = new LinkedHashMap<>();
+        final ByteArrayOutputStream value = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(value)) {
+            if (!encode(out, objects, strings)) {
+                return null;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(value.size() + strings.size() * 16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(strings.size());
+            for (String s : strings.keySet()) {
+                final byte[] utf = s.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(utf.length);
+                out.write(utf);
+            }
+            value.writeTo(out);
+        } catch (IOException e) {
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+
+    private static boolean encode(@NotNull DataOutputStream out, @Nullable Object object, @NotNull Map<String, Integer> strings) throws IOException {
+        if (object == null) {
+            out.writeByte(NULL);
+        } else if (object instanceof String) {
+            out.writeByte(STRING);
+            out.writeInt(strings.computeIfAbsent((String) object, s -> strings.size()));
+        } else if (object instanceof Boolean) {
+            out.writeByte((Boolean) object ? TRUE : FALSE);
+        } else if (object instanceof Integer) {
+            out.writeByte(INT);
+            out.writeInt((Integer) object);
+        } else if (object instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) object);
+        } else if (object instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float) object);
+        } else if (object instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) object);
+        } else if (object instanceof List) {
+            final List<?> list = (List<?>) object;
+            out.writeByte(LIST);
+            out.writeInt(list.size());
+            for (Object o : list) {
+                if (!encode(out, o, strings)) {
+                    return false;
+                }
+            }
+        } else if (object instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) object;
+            out.writeByte(MAP);
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!(entry.getKey() instanceof String)) {
+                    return false;
+                }
+                out.writeInt(strings.computeIfAbsent((String) entry.getKey(), s -> strings.size()));
+                if (!encode(out, entry.getValue(), strings)) {
+                    return false;
+                }
+            }
+        } else {
+            // Any other type can't be restored as the same object
+            return false;
+        }
+        return true;
+    }
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> decode(@NotNull byte[] payload) {
+        final ByteBuffer buffer = ByteBuffer.wrap(payload);
+        final String[] strings = new String[buffer.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            final byte[] utf = new byte[buffer.getInt()];
+            buffer.get(utf);
+            strings[i] = new String(utf, StandardCharsets.UTF_8);
+        }
+        final Object value = decode(buffer, strings);
+        if (!(value instanceof Map)) {
+            throw new IllegalStateException("The cached value is not a map");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    @Nullable
+    private static Object decode(@NotNull ByteBuffer buffer, @NotNull String[] strings) {
+        final byte type = buffer.get();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return strings[buffer.getInt()];
+            case TRUE:
+                return true;
+            case FALSE:
+                return false;
+            case INT:
+                return buffer.getInt();
+            case LONG:
+                return buffer.getLong();
+            case FLOAT:
+                return buffer.getFloat();
+            case DOUBLE:
+                return buffer.getDouble();
+            case LIST:
+                final int length = buffer.getInt();
+                final List<Object> list = new ArrayList<>(length);
+                for (int i = 0; i < length; i++) {
+                    list.add(decode(buffer, strings));
+                }
+                return list;
+            case MAP:
+                final int size = buffer.getInt();
+                final Map<String, Object> map = new LinkedHashMap<>(Math.max(16, (int) (size / 0.75f) + 1));
+                for (int i = 0; i < size; i++) {
+                    final String key = strings[buffer.getInt()];
+                    map.put(key, decode(buffer, strings));
+                }
+                return map;
+            default:
+                throw new IllegalStateException("Invalid cached type: " + type);
+        }
+    }
+
+    private static final class Entry {
+
+        private final long size;
+        private final long modified;
+        private final int hash;
+        private final boolean settings;
+        private final byte[] payload;
+
+        Entry(long size, long modified, int hash, boolean settings, @NotNull byte[] payload) {
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+            this.settings = settings;
+            this.payload = payload;
+        }
+    }
+}
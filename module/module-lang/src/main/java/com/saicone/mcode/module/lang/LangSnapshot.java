@@ -0,0 +1,257 @@
+package com.saicone.mcode.module.lang;
+
+import com.saicone.mcode.util.DMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnmodifiableView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+public class LangSnapshot<SenderT> {
+
+    private static final LangSnapshot<?> EMPTY = new LangSnapshot<>(new Locale[0], newMatrix(0), Map.of(), Map.of());
+
+    // Loaded locales, the index of every locale is the first dimension of displays
+    private final Locale[] locales;
+    // Displays by [locale][path id]
+    private final Display<SenderT>[][] displays;
+    private final Map<Locale, Map<String, Display<SenderT>>> keys;
+    private final Map<Locale, DMap> objects;
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public static <T> LangSnapshot<T> empty() {
+        return (LangSnapshot<T>) EMPTY;
+    }
+
+    @NotNull
+    public static <T> Builder<T> builder(@NotNull ToIntFunction<String> pathIds) {
+        return new Builder<>(pathIds);
+    }
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    private static <T> Display<T>[][] newMatrix(int length) {
+        return (Display<T>[][]) new Display<?>[length][];
+    }
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    private static <T> Display<T>[] newRow(int length) {
+        return (Display<T>[]) new Display<?>[length];
+    }
+
+    LangSnapshot(@NotNull Locale[] locales, @NotNull Display<SenderT>[][] displays, @NotNull Map<Locale, Map<String, Display<SenderT>>> keys, @NotNull Map<Locale, DMap> objects) {
+        this.locales = locales;
+        this.displays = displays;
+        this.keys = keys;
+        this.objects = objects;
+    }
+
+    @NotNull
+    public Locale[] getLocales() {
+        return locales.clone();
+    }
+
+    public int getLocaleCount() {
+        return locales.length;
+    }
+
+    public int getLocaleId(@NotNull Locale locale) {
+        // Locales are usually few and the same instances, so a scan is faster than hashing
+        for (int i = 0; i < locales.length; i++) {
+            if (locales[i] == locale) {
+                return i;
+            }
+        }
+        for (int i = 0; i < locales.length; i++) {
+            if (locales[i].equals(locale)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Nullable
+    public Display<SenderT> get(int localeId, int pathId) {
+        if (localeId < 0 || pathId < 0) {
+            return null;
+        }
+        final Display<SenderT>[] array = displays[localeId];
+        return pathId < array.length ? array[pathId] : null;
+    }
+
+    @Nullable
+    public Display<SenderT> get(@NotNull Locale locale, int pathId) {
+        return get(getLocaleId(locale), pathId);
+    }
+
+    @Nullable
+    @UnmodifiableView
+    public Map<String, Display<SenderT>> getDisplays(@NotNull Locale locale) {
+        return keys.get(locale);
+    }
+
+    @NotNull
+    @UnmodifiableView
+    public Map<Locale, DMap> getObjects() {
+        return objects;
+    }
+
+    @NotNull
+    LangSnapshot<SenderT> with(@NotNull Locale locale, @NotNull String key, int pathId, @NotNull Display<SenderT> display) {
+        // Copy of this snapshot that only copies the row of given locale
+        int localeId = getLocaleId(locale);
+        final Locale[] locales;
+        final Display<SenderT>[][] displays;
+        if (localeId < 0) {
+            localeId = this.locales.length;
+            locales = Arrays.copyOf(this.locales, localeId + 1);
+            locales[localeId] = locale;
+            displays = Arrays.copyOf(this.displays, localeId + 1);
+            displays[localeId] = newRow(pathId + 1);
+        } else {
+            locales = this.locales;
+            displays = this.displays.clone();
+            displays[localeId] = Arrays.copyOf(displays[localeId], Math.max(displays[localeId].length, pathId + 1));
+        }
+        displays[localeId][pathId] = display;
+
+        final Map<String, Display<SenderT>> row = keys.get(locale);
+        final Map<String, Display<SenderT>> map = row == null ? new HashMap<>() : new HashMap<>(row);
+        map.put(key, display);
+        final Map<Locale, Map<String, Display<SenderT>>> keys = new HashMap<>(this.keys);
+        keys.put(locale, Collections.unmodifiableMap(map));
+        return new LangSnapshot<>(locales, displays, Collections.unmodifiableMap(keys), objects);
+    }
+
+    @NotNull
+    public Builder<SenderT> toBuilder(@NotNull ToIntFunction<String> pathIds) {
+        final Builder<SenderT> builder = new Builder<>(pathIds);
+        for (Map.Entry<Locale, Map<String, Display<SenderT>>> entry : keys.entrySet()) {
+            builder.displays.put(entry.getKey(), new LinkedHashMap<>(entry.getValue()));
+        }
+        builder.objects.putAll(objects);
+        return builder;
+    }
+
+    public static class Builder<SenderT> {
+
+        private final ToIntFunction<String> pathIds;
+        private final Map<Locale, Map<String, Display<SenderT>>> displays = new LinkedHashMap<>();
+        private final Map<Locale, DMap> objects = new HashMap<>();
+        private final Set<Locale> merged = new HashSet<>();
+
+        Builder(@NotNull ToIntFunction<String> pathIds) {
+            this.pathIds = pathIds;
+        }
+
+        @Nullable
+        public Display<SenderT> put(@NotNull Locale locale, @NotNull String key, @NotNull Display<SenderT> display) {
+            return displays.computeIfAbsent(locale, l -> new LinkedHashMap<>()).put(key, display);
+        }
+
+        @NotNull
+        public Builder<SenderT> remove(@NotNull Locale locale) {
+            displays.remove(locale);
+            objects.remove(locale);
+            merged.remove(locale);
+            return this;
+        }
+
+        @Nullable
+        public DMap getObjects(@NotNull Locale locale) {
+            return objects.get(locale);
+        }
+
+        @NotNull
+        public Builder<SenderT> putObjects(@NotNull Locale locale, @NotNull DMap objects) {
+            DMap current = this.objects.get(locale);
+            if (current == null) {
+                this.objects.put(locale, objects);
+                return this;
+            }
+            // Merge into copies, so the objects of every loaded file are never modified
+            if (!merged.contains(locale)) {
+                current = new DMap(copy(current.getMap()));
+                this.objects.put(locale, current);
+                merged.add(locale);
+            }
+            current.merge(copy(objects.getMap()));
+            return this;
+        }
+
+        @NotNull
+        private static Map<String, Object> copy(@NotNull Map<String, Object> map) {
+            final Map<String, Object> copy = new HashMap<>(Math.max(16, (int) (map.size() / 0.75f) + 1));
+            for (Map.Entry<String, Object> entry : map.entrySet()) {
+                copy.put(entry.getKey(), copy(entry.getValue()));
+            }
+            return copy;
+        }
+
+        @Nullable
+        @SuppressWarnings("unchecked")
+        private static Object copy(@Nullable Object object) {
+            if (object instanceof Map) {
+                return copy((Map<String, Object>) object);
+            } else if (object instanceof List) {
+                final List<Object> list = new ArrayList<>(((List<?>) object).size());
+                for (Object o : (List<?>) object) {
+                    list.add(copy(o));
+                }
+                return list;
+            }
+            return object;
+        }
+
+        @NotNull
+        public LangSnapshot<SenderT> build() {
+            // Locales with objects only also get an id, so values parsed from them can be cached by id
+            final Set<Locale> localeSet = new LinkedHashSet<>(displays.keySet());
+            localeSet.addAll(objects.keySet());
+            final Locale[] locales = localeSet.toArray(new Locale[0]);
+            final Display<SenderT>[][] matrix = newMatrix(locales.length);
+            final Map<Locale, Map<String, Display<SenderT>>> keys = new HashMap<>();
+            for (int i = 0; i < locales.length; i++) {
+                final Map<String, Display<SenderT>> map = displays.get(locales[i]);
+                if (map == null) {
+                    matrix[i] = newRow(0);
+                    continue;
+                }
+                final int[] ids = new int[map.size()];
+                int max = -1;
+                int j = 0;
+                for (String key : map.keySet()) {
+                    ids[j] = pathIds.applyAsInt(key);
+                    max = Math.max(max, ids[j]);
+                    j++;
+                }
+                final Display<SenderT>[] array = newRow(max + 1);
+                j = 0;
+                for (Display<SenderT> display : map.values()) {
+                    array[ids[j++]] = display;
+                }
+                matrix[i] = array;
+                keys.put(locales[i], Collections.unmodifiableMap(new HashMap<>(map)));
+            }
+            // Immutable copies, the snapshot can't be modified and nested paths are resolved by an index
+            final Map<Locale, DMap> objects = new HashMap<>();
+            for (Map.Entry<Locale, DMap> entry : this.objects.entrySet()) {
+                objects.put(entry.getKey(), DMap.copyOf(entry.getValue()));
+            }
+            return new LangSnapshot<>(locales, matrix, Collections.unmodifiableMap(keys), Collections.unmodifiableMap(objects));
+        }
+    }
+}
@@ -6,11 +6,14 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnmodifiableView;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -86,8 +89,11 @@ public interface LangSupplier {
         private BiFunction<Object, Object, T> parser;
         private boolean memoize;
 
-        private transient Map<Locale, Object> values;
-        private transient final Map<Locale, T> cache = new HashMap<>();
+        private transient final DMap.Path[] keys;
+        // Values set by hand, kept across reloads until clear
+        private volatile Map<Locale, Object> overrides = Map.of();
+        // Values of a single snapshot, replaced once the holder loads a new one
+        private transient volatile Memo memo;
 
         @NotNull
         public static <T> Value<T> path(@NotNull String path, @NotNull String... aliases) {
@@ -96,6 +102,13 @@ public interface LangSupplier {
 
         public Value(@NotNull String path, @NotNull String... aliases) {
             super(path, aliases);
+            final DMap.Path[] keys = new DMap.Path[getAliases().size() + 1];
+            keys[0] = DMap.Path.of(path);
+            int i = 1;
+            for (String alias : getAliases()) {
+                keys[i++] = DMap.Path.of(alias);
+            }
+            this.keys = keys;
         }
 
         @NotNull
@@ -122,70 +135,116 @@ public interface LangSupplier {
             return this;
         }
 
+        @SuppressWarnings("unchecked")
         public <SenderT> T get(@NotNull SenderT sender) {
-            if (this.memoize) {
-                final Locale locale = getHolder().getEffectiveLocale(sender);
-                T cached = this.cache.get(locale);
-                if (cached == null) {
-                    cached = this.parser.apply(sender, getValue(locale));
-                    this.cache.put(locale, cached);
+            final DisplayHolder.SenderLocale senderLocale = getHolder().senderLocale(sender);
+            final Memo memo = memo(senderLocale.snapshot);
+            if (!this.memoize) {
+                return this.parser.apply(sender, memo.getValue(senderLocale.locale));
+            }
+            final int index = memo.index(senderLocale);
+            if (index < 0) {
+                return this.parser.apply(sender, memo.getValue(senderLocale.locale));
+            }
+            T cached = (T) memo.cache.get(index);
+            if (cached == null) {
+                cached = this.parser.apply(sender, memo.getValue(senderLocale.locale));
+                if (cached != null && !memo.cache.compareAndSet(index, null, cached)) {
+                    // Another thread was faster, every reader must get the same object
+                    cached = (T) memo.cache.get(index);
                 }
-                return cached;
             }
-            return this.parser.apply(sender, getValue(getHolder().getEffectiveLocale(sender)));
+            return cached;
         }
 
         @NotNull
-        public Map<Locale, Object> getValues() {
-            if (values == null) {
-                values = new HashMap<>();
-                if (getHolder() instanceof AbstractLang) {
-                    final AbstractLang<?> lang = (AbstractLang<?>) getHolder();
-                    for (Map.Entry<Locale, DMap> entry : lang.getObjects().entrySet()) {
-                        final Object value = compute(entry.getKey(), entry.getValue());
-                        if (value != null) {
-                            values.put(entry.getKey(), value);
-                        }
+        private Memo memo(@NotNull LangSnapshot<?> snapshot) {
+            Memo memo = this.memo;
+            if (memo == null || memo.snapshot != snapshot) {
+                final Map<Locale, Object> values = new HashMap<>();
+                for (Map.Entry<Locale, DMap> entry : snapshot.getObjects().entrySet()) {
+                    final Object value = compute(entry.getKey(), entry.getValue());
+                    if (value != null) {
+                        values.put(entry.getKey(), value);
                     }
                 }
+                values.putAll(this.overrides);
+                // Benign race, any memo of the same snapshot has the same values
+                memo = new Memo(snapshot, Collections.unmodifiableMap(values), getHolder().getDefaultLocale());
+                this.memo = memo;
             }
-            return values;
+            return memo;
+        }
+
+        @NotNull
+        @UnmodifiableView
+        public Map<Locale, Object> getValues() {
+            return memo(getHolder().getSnapshot()).values;
         }
 
         @Nullable
         public Object compute(@NotNull Locale locale, @NotNull DMap map) {
-            Object value = map.getDeep(getPath().split("\\."));
-            if (value == null) {
-                for (String alias : getAliases()) {
-                    value = map.getDeep(alias.split("\\."));
-                    if (value != null) {
-                        break;
-                    }
+            for (DMap.Path key : this.keys) {
+                final Object value = map.getDeep(key);
+                if (value != null) {
+                    return value;
                 }
             }
-            return value;
+            return null;
         }
 
         @Nullable
         public Object getValue(@NotNull Locale locale) {
-            final Object value = getValues().get(locale);
-            if (value != null) {
-                return value;
-            }
-            return getValues().get(getHolder().getDefaultLocale());
+            return memo(getHolder().getSnapshot()).getValue(locale);
         }
 
         public void setValue(@Nullable Object value) {
             setValue(getHolder().getDefaultLocale(), value);
         }
 
-        public void setValue(@NotNull Locale locale, @Nullable Object value) {
-            getValues().put(locale, value);
+        public synchronized void setValue(@NotNull Locale locale, @Nullable Object value) {
+            final Map<Locale, Object> overrides = new HashMap<>(this.overrides);
+            overrides.put(locale, value);
+            this.overrides = overrides;
+            this.memo = null;
         }
 
-        public void clear() {
-            this.values = null;
-            this.cache.clear();
+        public synchronized void clear() {
+            this.overrides = Map.of();
+            this.memo = null;
+        }
+
+        private static final class Memo {
+
+            private final LangSnapshot<?> snapshot;
+            private final Map<Locale, Object> values;
+            private final Locale defaultLocale;
+            // Parsed values by snapshot locale id, the last one is for locales without values
+            private final AtomicReferenceArray<Object> cache;
+
+            Memo(@NotNull LangSnapshot<?> snapshot, @NotNull Map<Locale, Object> values, @NotNull Locale defaultLocale) {
+                this.snapshot = snapshot;
+                this.values = values;
+                this.defaultLocale = defaultLocale;
+                this.cache = new AtomicReferenceArray<>(snapshot.getLocaleCount() + 1);
+            }
+
+            int index(@NotNull DisplayHolder.SenderLocale senderLocale) {
+                if (senderLocale.localeId >= 0) {
+                    return senderLocale.localeId;
+                }
+                // Values of locales that are not in the snapshot are not cached
+                return values.containsKey(senderLocale.locale) ? -1 : cache.length() - 1;
+            }
+
+            @Nullable
+            Object getValue(@NotNull Locale locale) {
+                final Object value = values.get(locale);
+                if (value != null) {
+                    return value;
+                }
+                return values.get(defaultLocale);
+            }
         }
     }
 
@@ -195,6 +254,7 @@ public interface LangSupplier {
         private final Set<String> aliases;
 
         private DisplayHolder<?> holder = null;
+        private transient int id = -1;
 
         @NotNull
         public static Path of(@NotNull String path, @NotNull String... aliases) {
@@ -223,6 +283,20 @@ public interface LangSupplier {
         @ApiStatus.Internal
         public void setHolder(@Nullable DisplayHolder<?> holder) {
             this.holder = holder;
+            this.id = -1;
+        }
+
+        @ApiStatus.Internal
+        public int getId(@NotNull DisplayHolder<?> holder) {
+            if (holder != this.holder) {
+                return holder.getPathId(path);
+            }
+            int id = this.id;
+            if (id < 0) {
+                id = holder.getPathId(path);
+                this.id = id;
+            }
+            return id;
         }
 
         @SuppressWarnings("unchecked")
@@ -231,7 +305,7 @@ public interface LangSupplier {
         }
 
         public <SenderT> void sendTo(@NotNull SenderT sender, @Nullable Object... args) {
-            holder().sendTo(sender, path, args);
+            holder().sendTo(sender, this, args);
         }
 
         public <SenderT> void sendTo(@NotNull SenderT sender, @NotNull Function<String, String> parser) {
@@ -239,11 +313,11 @@ public interface LangSupplier {
         }
 
         public <SenderT> void sendWith(@NotNull SenderT agent, @NotNull SenderT sender, @Nullable Object... args) {
-            holder().sendWith(agent, sender, path, args);
+            holder().sendWith(agent, sender, this, args);
         }
 
         public void sendToConsole(@Nullable Object... args) {
-            holder.sendToConsole(path, args);
+            holder.sendToConsole(this, args);
         }
 
         public void sendToConsole(@NotNull Function<String, String> parser) {
@@ -251,11 +325,15 @@ public interface LangSupplier {
         }
 
         public <SenderT> void sendToConsoleWith(@NotNull SenderT agent, @Nullable Object... args) {
-            holder().sendToConsoleWith(agent, path, args);
+            holder().sendToConsoleWith(agent, this, args);
         }
 
         public void sendToAll(@Nullable Object... args) {
-            holder.sendToAll(path, args);
+            holder.sendToAll(this, args);
+        }
+
+        public void sendToAll(@NotNull BroadcastMode mode, @Nullable Object... args) {
+            holder.sendToAll(this, mode, args);
         }
 
         public void sendToAll(@NotNull String language, @Nullable Object... args) {
@@ -279,7 +357,11 @@ public interface LangSupplier {
         }
 
         public <SenderT> void sendToAllWith(@NotNull SenderT agent, @Nullable Object... args) {
-            holder().sendToAllWith(agent, path, args);
+            holder().sendToAllWith(agent, this, args);
+        }
+
+        public <SenderT> void sendToAllWith(@NotNull SenderT agent, @NotNull BroadcastMode mode, @Nullable Object... args) {
+            holder().sendToAllWith(agent, this, mode, args);
         }
 
         public <SenderT> void sendToAllWith(@NotNull SenderT agent, @NotNull String language, @Nullable Object... args) {
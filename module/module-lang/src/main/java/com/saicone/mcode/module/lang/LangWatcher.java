@@ -0,0 +1,123 @@
+package com.saicone.mcode.module.lang;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+public class LangWatcher implements AutoCloseable {
+
+    private final File folder;
+    private final long delay;
+    private final Consumer<Set<File>> consumer;
+
+    private final WatchService service;
+    private final Map<WatchKey, Path> keys = new HashMap<>();
+    private Thread thread;
+    private volatile boolean closed;
+
+    public LangWatcher(@NotNull File folder, long delay, @NotNull Consumer<Set<File>> consumer) throws IOException {
+        this.folder = folder;
+        this.delay = delay;
+        this.consumer = consumer;
+        this.service = FileSystems.getDefault().newWatchService();
+    }
+
+    @NotNull
+    public File getFolder() {
+        return folder;
+    }
+
+    public synchronized void start() throws IOException {
+        if (thread != null) {
+            return;
+        }
+        if (!folder.exists()) {
+            folder.mkdirs();
+        }
+        register(folder.toPath());
+        thread = new Thread(this::run, "mcode-lang-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void register(@NotNull Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                keys.put(dir.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE), dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private void run() {
+        final Set<File> changed = new LinkedHashSet<>();
+        try {
+            while (!closed) {
+                WatchKey key = service.take();
+                // Debounce: collect every event until the folder is quiet for the given delay
+                while (key != null) {
+                    poll(key, changed);
+                    key = service.poll(delay, TimeUnit.MILLISECONDS);
+                }
+                if (!changed.isEmpty() && !closed) {
+                    consumer.accept(new LinkedHashSet<>(changed));
+                    changed.clear();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+            // Watcher closed
+        }
+    }
+
+    private void poll(@NotNull WatchKey key, @NotNull Set<File> changed) {
+        final Path dir = keys.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (dir == null || event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // Events were lost, so every file must be checked
+                changed.add(folder);
+                continue;
+            }
+            final Path path = dir.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                try {
+                    register(path);
+                } catch (IOException ignored) { }
+            }
+            changed.add(path.toFile());
+        }
+        if (!key.reset()) {
+            keys.remove(key);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        try {
+            service.close();
+        } catch (IOException ignored) { }
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.saicone.mcode.module.lang.display;
 
+import com.saicone.mcode.module.lang.BroadcastMode;
 import com.saicone.mcode.module.lang.Display;
 import com.saicone.mcode.module.lang.DisplayLoader;
 import com.saicone.mcode.platform.Text;
@@ -21,13 +22,19 @@ public abstract class BossBarDisplay<SenderT> implements Display<SenderT> {
     private final Color color;
     private final Division division;
     private final Set<Flag> flags;
+    private final long duration;
 
     public BossBarDisplay(float progress, @NotNull Text text, @NotNull Color color, @NotNull Division division, @NotNull Set<Flag> flags) {
+        this(progress, text, color, division, flags, 0L);
+    }
+
+    public BossBarDisplay(float progress, @NotNull Text text, @NotNull Color color, @NotNull Division division, @NotNull Set<Flag> flags, long duration) {
         this.progress = progress;
         this.text = text;
         this.color = color;
         this.division = division;
         this.flags = flags;
+        this.duration = duration;
     }
 
     @Override
@@ -50,6 +57,8 @@ public abstract class BossBarDisplay<SenderT> implements Display<SenderT> {
                 return flags.isEmpty() ? null : flags.iterator().next().name();
             case "flags":
                 return flags.stream().map(Flag::name).collect(Collectors.joining("\n"));
+            case "duration":
+                return duration;
             default:
                 return null;
         }
@@ -79,6 +88,15 @@ public abstract class BossBarDisplay<SenderT> implements Display<SenderT> {
         return flags;
     }
 
+    public long getDuration() {
+        return duration;
+    }
+
+    @Nullable
+    public BossBarPool getPool() {
+        return null;
+    }
+
     @Override
     public void sendTo(@NotNull SenderT type, @NotNull Function<Text, Text> parser) {
         createHolder(parser).showTo(type);
@@ -92,6 +110,28 @@ public abstract class BossBarDisplay<SenderT> implements Display<SenderT> {
         }
     }
 
+    @Override
+    public void sendTo(@NotNull Collection<? extends SenderT> senders, @NotNull Function<Text, Text> parser, @NotNull BroadcastMode mode) {
+        final BossBarPool pool = getPool();
+        if (pool == null) {
+            Display.super.sendTo(senders, parser, mode);
+            return;
+        }
+        if (mode == BroadcastMode.PER_SENDER) {
+            sendTo(senders, parser);
+            return;
+        }
+        // Senders that see the same bar share a single holder from pool
+        final Text text = parser.apply(this.text);
+        if (mode.isShared(this)) {
+            pool.show(this, text, senders);
+        } else {
+            for (SenderT player : senders) {
+                pool.show(this, text.parse(player), List.of(player));
+            }
+        }
+    }
+
     @NotNull
     public Holder createHolder() {
         return createHolder(text);
@@ -173,8 +213,20 @@ public abstract class BossBarDisplay<SenderT> implements Display<SenderT> {
 
     public static abstract class Loader<SenderT> extends DisplayLoader<SenderT> {
 
+        private final BossBarPool pool;
+
         public Loader() {
+            this(new BossBarPool());
+        }
+
+        public Loader(@NotNull BossBarPool pool) {
             super("(?i)boss(-?bar)?", Map.of("text", "", "progress", 1.0f, "color", "RED", "style", "FLAT"));
+            this.pool = pool;
+        }
+
+        @NotNull
+        public BossBarPool getPool() {
+            return pool;
         }
 
         @Override
@@ -194,13 +246,20 @@ public abstract class BossBarDisplay<SenderT> implements Display<SenderT> {
 
         @Override
         public @Nullable BossBarDisplay<SenderT> load(@NotNull DMap map) {
+            final Object[] values = map.getRegexAll(
+                    "(?i)progress|percent",
+                    "(?i)value|text|title",
+                    "(?i)division|overlay|style",
+                    "(?i)flags?",
+                    "(?i)duration|time"
+            );
             final float progress = map.getBy(
                     o -> Float.parseFloat(String.valueOf(o)),
-                    m -> m.getRegex("(?i)progress|percent"),
+                    m -> values[0],
                     1.0f);
             final String text = map.getBy(
                     String::valueOf,
-                    m -> m.getRegex("(?i)value|text|title"),
+                    m -> values[1],
                     "");
             if (text.isBlank()) {
                 return null;
@@ -211,9 +270,9 @@ public abstract class BossBarDisplay<SenderT> implements Display<SenderT> {
                     Color.RED);
             final Division division = map.getBy(
                     o -> Division.of(String.valueOf(o), Division.NO_DIVISION),
-                    m -> m.getRegex("(?i)division|overlay|style"),
+                    m -> values[2],
                     Division.NO_DIVISION);
-            final Object obj = map.getRegex("(?i)flags?");
+            final Object obj = values[3];
             final Set<Flag> flags;
             if (obj instanceof Iterable) {
                 flags = new HashSet<>();
@@ -231,7 +290,16 @@ public abstract class BossBarDisplay<SenderT> implements Display<SenderT> {
                     flags = Set.of();
                 }
             }
-            return new BossBarDisplay<>(progress, Text.valueOf(text), color, division, flags) {
+            final long duration = map.getBy(
+                    o -> Long.parseLong(String.valueOf(o)),
+                    m -> values[4],
+                    0L);
+            return new BossBarDisplay<>(progress, Text.valueOf(text), color, division, flags, duration) {
+                @Override
+                public @NotNull BossBarPool getPool() {
+                    return pool;
+                }
+
                 @Override
                 public @NotNull Holder createHolder(@NotNull Text text) {
                     return newHolder(getProgress(), text, getColor(), getDivision(), getFlags());
@@ -0,0 +1,410 @@
+package com.saicone.mcode.module.lang.display;
+
+import com.saicone.mcode.platform.Text;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnmodifiableView;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+public class BossBarPool {
+
+    private static final long SWEEP_PERIOD = 50L; // 1 tick
+
+    private final LongSupplier clock;
+    // Platform bars are only hidden on the thread given by this executor
+    private final Executor sync;
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    // Bars by rendered state, viewers of the same state share a single bar
+    private final Map<State, Bar> bars = new ConcurrentHashMap<>();
+    // Every shown bar, an updated bar may share its state with another one
+    private final Set<Bar> all = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> sweeper;
+
+    public BossBarPool() {
+        this(Runnable::run);
+    }
+
+    public BossBarPool(@NotNull Executor sync) {
+        this(System::currentTimeMillis, sync);
+    }
+
+    public BossBarPool(@NotNull LongSupplier clock, @NotNull Executor sync) {
+        this.clock = clock;
+        this.sync = sync;
+    }
+
+    public int size() {
+        return all.size();
+    }
+
+    @NotNull
+    @UnmodifiableView
+    public Collection<Bar> getBars() {
+        return all;
+    }
+
+    @NotNull
+    public Bar show(@NotNull BossBarDisplay<?> display, @NotNull Text text, @NotNull Iterable<?> viewers) {
+        return show(display, text, viewers, display.getDuration());
+    }
+
+    @NotNull
+    public Bar show(@NotNull BossBarDisplay<?> display, @NotNull Text text, @NotNull Iterable<?> viewers, long duration) {
+        final State state = new State(display.getProgress(), text.isEmpty() ? "" : String.valueOf(text.getValue()), display.getColor(), display.getDivision(), display.getFlags());
+        Bar bar = bars.get(state);
+        if (bar == null) {
+            synchronized (bars) {
+                bar = bars.get(state);
+                if (bar == null) {
+                    bar = new Bar(display.createHolder(text), state);
+                    bars.put(state, bar);
+                    all.add(bar);
+                }
+            }
+        }
+        for (Object viewer : viewers) {
+            bar.showTo(viewer);
+        }
+        if (duration > 0) {
+            bar.expire(clock.getAsLong() + duration * 50L);
+            startSweeper();
+        }
+        return bar;
+    }
+
+    public void hideTo(@NotNull Object viewer) {
+        for (Bar bar : all) {
+            if (bar.viewers.contains(viewer)) {
+                bar.hideTo(viewer);
+            }
+        }
+    }
+
+    public void clear() {
+        for (Bar bar : all) {
+            bar.hideToAll();
+        }
+        bars.clear();
+        all.clear();
+        shutdownSweeper();
+    }
+
+    public void sweep() {
+        final long now = clock.getAsLong();
+        boolean expiring = false;
+        for (Bar bar : all) {
+            if (bar.expire <= 0) {
+                continue;
+            }
+            if (bar.expire <= now) {
+                bar.hideToAll();
+            } else {
+                expiring = true;
+            }
+        }
+        if (!expiring) {
+            stopSweeperIfIdle();
+        }
+    }
+
+    private synchronized void stopSweeperIfIdle() {
+        // Checked again with the lock held, a bar may be shown with a duration meanwhile
+        for (Bar bar : all) {
+            if (bar.expire > 0) {
+                return;
+            }
+        }
+        stopSweeper();
+    }
+
+    private void requestSweep() {
+        // The sweeper thread only keeps the time, a single sweep is queued into sync executor at once
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sync.execute(() -> {
+                try {
+                    sweep();
+                } finally {
+                    sweeping.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            // Rejected by the executor, retried on next period
+            sweeping.set(false);
+        }
+    }
+
+    private synchronized void startSweeper() {
+        if (sweeper != null) {
+            return;
+        }
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "mcode-bossbar-sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        sweeper = executor.scheduleAtFixedRate(this::requestSweep, SWEEP_PERIOD, SWEEP_PERIOD, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void stopSweeper() {
+        if (sweeper != null) {
+            sweeper.cancel(false);
+            sweeper = null;
+        }
+    }
+
+    private synchronized void shutdownSweeper() {
+        stopSweeper();
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    private void rekey(@NotNull Bar bar, @NotNull State previous) {
+        synchronized (bars) {
+            bars.remove(previous, bar);
+            if (all.contains(bar)) {
+                bars.putIfAbsent(bar.state, bar);
+            }
+        }
+    }
+
+    private void register(@NotNull Bar bar) {
+        synchronized (bars) {
+            all.add(bar);
+            bars.putIfAbsent(bar.state, bar);
+        }
+    }
+
+    private void remove(@NotNull Bar bar) {
+        synchronized (bars) {
+            bars.remove(bar.state, bar);
+            all.remove(bar);
+        }
+    }
+
+    // Holder wrapper that only sends the properties that changed
+    public final class Bar implements BossBarDisplay.Holder {
+
+        private final BossBarDisplay.Holder holder;
+        private final Set<Object> viewers = ConcurrentHashMap.newKeySet();
+        private volatile State state;
+        private volatile boolean visible = true;
+        private volatile long expire;
+
+        Bar(@NotNull BossBarDisplay.Holder holder, @NotNull State state) {
+            this.holder = holder;
+            this.state = state;
+        }
+
+        @NotNull
+        public BossBarDisplay.Holder getHolder() {
+            return holder;
+        }
+
+        @NotNull
+        @UnmodifiableView
+        public Set<Object> getViewers() {
+            return viewers;
+        }
+
+        public long getExpire() {
+            return expire;
+        }
+
+        void expire(long time) {
+            if (time > expire) {
+                expire = time;
+            }
+        }
+
+        @Override
+        public boolean isVisible() {
+            return visible;
+        }
+
+        @Override
+        public boolean hasFlag(@NotNull BossBarDisplay.Flag flag) {
+            return state.flags.contains(flag);
+        }
+
+        @Override
+        public float getProgress() {
+            return state.progress;
+        }
+
+        @Override
+        public @NotNull String getText() {
+            return state.text;
+        }
+
+        @Override
+        public @NotNull BossBarDisplay.Color getColor() {
+            return state.color;
+        }
+
+        @Override
+        public @NotNull BossBarDisplay.Division getDivision() {
+            return state.division;
+        }
+
+        @Override
+        public @UnmodifiableView @NotNull Set<BossBarDisplay.Flag> getFlags() {
+            return state.flags;
+        }
+
+        @Override
+        public synchronized void setProgress(float progress) {
+            final State state = this.state;
+            if (Float.compare(state.progress, progress) != 0) {
+                holder.setProgress(progress);
+                update(state, new State(progress, state.text, state.color, state.division, state.flags));
+            }
+        }
+
+        @Override
+        public synchronized void setText(@NotNull String text) {
+            final State state = this.state;
+            if (!state.text.equals(text)) {
+                holder.setText(text);
+                update(state, new State(state.progress, text, state.color, state.division, state.flags));
+            }
+        }
+
+        @Override
+        public synchronized void setColor(@NotNull BossBarDisplay.Color color) {
+            final State state = this.state;
+            if (state.color != color) {
+                holder.setColor(color);
+                update(state, new State(state.progress, state.text, color, state.division, state.flags));
+            }
+        }
+
+        @Override
+        public synchronized void setDivision(@NotNull BossBarDisplay.Division division) {
+            final State state = this.state;
+            if (state.division != division) {
+                holder.setDivision(division);
+                update(state, new State(state.progress, state.text, state.color, division, state.flags));
+            }
+        }
+
+        @Override
+        public synchronized void setVisible(boolean visible) {
+            if (this.visible != visible) {
+                holder.setVisible(visible);
+                this.visible = visible;
+            }
+        }
+
+        @Override
+        public synchronized void addFlag(@NotNull BossBarDisplay.Flag flag) {
+            final State state = this.state;
+            if (!state.flags.contains(flag)) {
+                holder.addFlag(flag);
+                final Set<BossBarDisplay.Flag> flags = EnumSet.of(flag);
+                flags.addAll(state.flags);
+                update(state, new State(state.progress, state.text, state.color, state.division, flags));
+            }
+        }
+
+        @Override
+        public synchronized void removeFlag(@NotNull BossBarDisplay.Flag flag) {
+            final State state = this.state;
+            if (state.flags.contains(flag)) {
+                holder.removeFlag(flag);
+                final Set<BossBarDisplay.Flag> flags = EnumSet.noneOf(BossBarDisplay.Flag.class);
+                flags.addAll(state.flags);
+                flags.remove(flag);
+                update(state, new State(state.progress, state.text, state.color, state.division, flags));
+            }
+        }
+
+        private void update(@NotNull State previous, @NotNull State state) {
+            this.state = state;
+            rekey(this, previous);
+        }
+
+        @Override
+        public synchronized void showTo(@NotNull Object type) {
+            if (viewers.add(type)) {
+                holder.showTo(type);
+                if (!all.contains(this)) {
+                    // Shown again after being swept
+                    register(this);
+                }
+            }
+        }
+
+        @Override
+        public synchronized void hideTo(@NotNull Object type) {
+            if (viewers.remove(type)) {
+                holder.hideTo(type);
+                if (viewers.isEmpty()) {
+                    remove(this);
+                }
+            }
+        }
+
+        @Override
+        public synchronized void hideToAll() {
+            viewers.clear();
+            holder.hideToAll();
+            expire = 0;
+            remove(this);
+        }
+    }
+
+    private static final class State {
+
+        private final float progress;
+        private final String text;
+        private final BossBarDisplay.Color color;
+        private final BossBarDisplay.Division division;
+        private final Set<BossBarDisplay.Flag> flags;
+        private final int hash;
+
+        State(float progress, @NotNull String text, @NotNull BossBarDisplay.Color color, @NotNull BossBarDisplay.Division division, @NotNull Set<BossBarDisplay.Flag> flags) {
+            this.progress = progress;
+            this.text = text;
+            this.color = color;
+            this.division = division;
+            this.flags = flags.isEmpty() ? Set.of() : Set.copyOf(flags);
+            this.hash = Objects.hash(progress, text, color, division, this.flags);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            if (this == o) return true;
+            if (!(o instanceof State)) return false;
+
+            final State state = (State) o;
+            return Float.compare(progress, state.progress) == 0 && text.equals(state.text) && color == state.color && division == state.division && flags.equals(state.flags);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
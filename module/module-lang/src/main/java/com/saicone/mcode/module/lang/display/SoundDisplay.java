@@ -72,6 +72,12 @@ public abstract class SoundDisplay<SenderT> implements Display<SenderT> {
         }
     }
 
+    @Override
+    public boolean isSenderRelative() {
+        // Sender parser is never applied to sounds
+        return false;
+    }
+
     @Nullable
     protected abstract Object parseSound(@NotNull Text s, float volume, float pitch);
 
@@ -107,7 +113,7 @@ public abstract class SoundDisplay<SenderT> implements Display<SenderT> {
             final float volume = map.getBy(o -> Float.parseFloat(String.valueOf(o)), m -> m.getIgnoreCase("volume"), 1.0f);
             final float pitch = map.getBy(o -> Float.parseFloat(String.valueOf(o)), m -> m.getIgnoreCase("pitch"), 1.0f);
 
-            return new SoundDisplay<>(Text.valueOf(sound), volume, pitch) {
+            return new SoundDisplay<>(Text.valueOf(Text.Kind.STRING, null, sound), volume, pitch) {
                 @Override
                 protected @Nullable Object parseSound(@NotNull Text s, float volume, float pitch) {
                     return Loader.this.parseSound(s.getAsString().getValue(), volume, pitch);
@@ -1,5 +1,6 @@
 package com.saicone.mcode.module.lang.display;
 
+import com.saicone.mcode.module.lang.BroadcastMode;
 import com.saicone.mcode.module.lang.Display;
 import com.saicone.mcode.module.lang.DisplayLoader;
 import com.saicone.mcode.platform.MC;
@@ -7,6 +8,7 @@ import com.saicone.mcode.platform.Text;
 import com.saicone.mcode.util.DMap;
 import com.saicone.mcode.util.text.MStrings;
 import com.saicone.mcode.util.text.Strings;
+import com.saicone.mcode.util.text.TextTemplate;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -18,13 +20,89 @@ import java.util.stream.Collectors;
 public abstract class TextDisplay<SenderT> implements Display<SenderT> {
 
     private final Text text;
+    private final TextTemplate template;
     private final int centerWidth;
     private final Map<String, Set<Event>> events;
+    // Text split by event blocks at load time, null if it must be parsed on every send
+    private final Span[] spans;
+    private final Text[] spanTexts;
+    private final boolean parseEvents;
 
     public TextDisplay(@NotNull Text text, int centerWidth, @NotNull Map<String, Set<Event>> events) {
         this.text = text;
+        this.template = text.isString() ? text.getAsString().getTemplate() : null;
         this.centerWidth = centerWidth;
         this.events = events;
+        this.spans = events.isEmpty() || template == null ? null : compile(text, events);
+        if (this.spans == null) {
+            this.spanTexts = null;
+        } else {
+            this.spanTexts = new Text[spans.length];
+            for (int i = 0; i < spans.length; i++) {
+                spanTexts[i] = spans[i].text;
+            }
+        }
+        this.parseEvents = hasText(events);
+    }
+
+    @Nullable
+    private static Span[] compile(@NotNull Text text, @NotNull Map<String, Set<Event>> events) {
+        final List<Span> spans = new ArrayList<>();
+        final boolean[] valid = { true };
+        Strings.findInside(text.getAsString().getValue(), "<event.", "</event>", (s, found) -> {
+            if (found) {
+                final int index = s.indexOf('>');
+                if (index > 0 && index + 1 < s.length()) {
+                    final String id = s.substring(0, index);
+                    final String str = s.substring(index + 1);
+                    valid[0] &= isSafe(id) && isSafe(str) && !str.contains("<event.");
+                    spans.add(new Span(Text.valueOf(text.getType(), text.getVersion(), str), id, events.getOrDefault(id, Set.of())));
+                } else {
+                    valid[0] = false;
+                }
+            } else {
+                valid[0] &= isSafe(s) && !s.contains("<event.");
+                spans.add(new Span(Text.valueOf(text.getType(), text.getVersion(), s), null, Set.of()));
+            }
+        });
+        return valid[0] ? spans.toArray(new Span[0]) : null;
+    }
+
+    private static boolean isSafe(@NotNull String s) {
+        // Every placeholder and argument must start and end inside the same block
+        int percent = 0;
+        int braces = 0;
+        for (int i = 0; i < s.length(); i++) {
+            final char c = s.charAt(i);
+            if (c == '%') {
+                percent++;
+            } else if (c == '{') {
+                braces++;
+            } else if (c == '}') {
+                if (--braces < 0) {
+                    return false;
+                }
+            }
+        }
+        return percent % 2 == 0 && braces == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean hasText(@NotNull Map<String, Set<Event>> events) {
+        for (Set<Event> set : events.values()) {
+            for (Event event : set) {
+                if (event.getValue() instanceof Text) {
+                    return true;
+                } else if (event.getValue() instanceof Map) {
+                    for (Object value : ((Map<String, Object>) event.getValue()).values()) {
+                        if (value instanceof Text) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
     }
 
     @Override
@@ -46,6 +124,11 @@ public abstract class TextDisplay<SenderT> implements Display<SenderT> {
         return text;
     }
 
+    @Override
+    public @Nullable TextTemplate getTemplate() {
+        return template;
+    }
+
     public int getCenterWidth() {
         return centerWidth;
     }
@@ -62,6 +145,9 @@ public abstract class TextDisplay<SenderT> implements Display<SenderT> {
 
     @NotNull
     public Map<String, Set<Event>> getParsedEvents(@NotNull Function<Text, Text> parser) {
+        if (!parseEvents) {
+            return events;
+        }
         final Map<String, Set<Event>> map = new HashMap<>();
         for (var entry : events.entrySet()) {
             map.put(entry.getKey(), entry.getValue().stream().map(event -> event.parse(parser)).collect(Collectors.toSet()));
@@ -69,17 +155,78 @@ public abstract class TextDisplay<SenderT> implements Display<SenderT> {
         return map;
     }
 
+    @NotNull
+    @SuppressWarnings("unchecked")
+    private Set<Event>[] getParsedSpanEvents(@NotNull Function<Text, Text> parser) {
+        final Set<Event>[] array = (Set<Event>[]) new Set[spans.length];
+        for (int i = 0; i < spans.length; i++) {
+            final Set<Event> events = spans[i].events;
+            if (parseEvents && !events.isEmpty()) {
+                final Set<Event> set = new HashSet<>();
+                for (Event event : events) {
+                    set.add(event.parse(parser));
+                }
+                array[i] = set;
+            } else {
+                array[i] = events;
+            }
+        }
+        return array;
+    }
+
+    @Nullable
+    private Text[] parseSpans(@NotNull Text[] texts, @NotNull Function<Text, Text> parser) {
+        final Text[] parsed = new Text[texts.length];
+        for (int i = 0; i < texts.length; i++) {
+            Text text = parser.apply(texts[i]);
+            if (text.isEmpty()) {
+                text = Text.valueOf(texts[i].getType(), texts[i].getVersion(), "");
+            } else if (!text.isString()) {
+                return null;
+            }
+            final String s = text.getAsString().getValue();
+            // Event blocks added by arguments can only be found on the full text
+            if (s.contains("<event.") || (spans[i].id != null && s.contains("</event>"))) {
+                return null;
+            }
+            parsed[i] = text;
+        }
+        return parsed;
+    }
+
     @Override
     public void sendTo(@NotNull SenderT type, @NotNull Function<Text, Text> parser) {
         if (events.isEmpty()) {
             sendParsed(type, parser.apply(text));
-        } else {
-            sendParsed(type, parser.apply(text), getParsedEvents(parser));
+            return;
+        }
+        if (spans != null) {
+            final Text[] texts = parseSpans(spanTexts, parser);
+            if (texts != null) {
+                build(newBuilder(), type, texts, getParsedSpanEvents(parser)).sendTo(type, centerWidth);
+                return;
+            }
         }
+        sendParsed(type, parser.apply(text), getParsedEvents(parser));
     }
 
     @Override
     public void sendTo(@NotNull Collection<? extends SenderT> senders, @NotNull Function<Text, Text> parser, @NotNull BiFunction<SenderT, Text, Text> playerParser) {
+        if (spans != null) {
+            final Text[] texts = parseSpans(spanTexts, parser);
+            if (texts != null) {
+                final Set<Event>[] events = getParsedSpanEvents(parser);
+                for (SenderT player : senders) {
+                    final Text[] playerTexts = parseSpans(texts, text -> playerParser.apply(player, text));
+                    if (playerTexts != null) {
+                        build(newBuilder(), player, playerTexts, events).sendTo(player, centerWidth);
+                    } else {
+                        sendParsed(player, playerParser.apply(player, parser.apply(this.text)), getParsedEvents(parser));
+                    }
+                }
+                return;
+            }
+        }
         final Text text = parser.apply(this.text);
         if (events.isEmpty()) {
             for (SenderT player : senders) {
@@ -93,6 +240,36 @@ public abstract class TextDisplay<SenderT> implements Display<SenderT> {
         }
     }
 
+    @Override
+    public void sendTo(@NotNull Collection<? extends SenderT> senders, @NotNull Function<Text, Text> parser, @NotNull BroadcastMode mode) {
+        if (events.isEmpty() || !mode.isShared(this)) {
+            Display.super.sendTo(senders, parser, mode);
+            return;
+        }
+        // Build the message once for every protocol and send it to every sender
+        final Text[] texts = spans == null ? null : parseSpans(spanTexts, parser);
+        final Set<Event>[] spanEvents = texts == null ? null : getParsedSpanEvents(parser);
+        final Text text = texts == null ? parser.apply(this.text) : null;
+        final Map<String, Set<Event>> events = texts == null ? getParsedEvents(parser) : null;
+        final Map<Integer, Builder<SenderT>> builders = new HashMap<>();
+        final Builder<SenderT> protocols = newBuilder();
+        for (SenderT player : senders) {
+            final int protocol = protocols.protocol(player);
+            Builder<SenderT> builder = builders.get(protocol);
+            if (builder == null) {
+                builder = texts == null ? build(newBuilder(), player, text, events) : build(newBuilder(), player, texts, spanEvents);
+                builder.center(centerWidth);
+                builders.put(protocol, builder);
+            }
+            builder.sendTo(player);
+        }
+    }
+
+    @Override
+    public boolean isSenderRelative() {
+        return template == null || template.contains('%');
+    }
+
     private void sendParsed(@NotNull SenderT type, @NotNull Text text) {
         if (centerWidth > 0) {
             sendText(type, text.center(centerWidth));
@@ -102,7 +279,11 @@ public abstract class TextDisplay<SenderT> implements Display<SenderT> {
     }
 
     private void sendParsed(@NotNull SenderT type, @NotNull Text text, @NotNull Map<String, Set<Event>> events) {
-        final Builder<SenderT> builder = newBuilder();
+        build(newBuilder(), type, text, events).sendTo(type, centerWidth);
+    }
+
+    @NotNull
+    private Builder<SenderT> build(@NotNull Builder<SenderT> builder, @NotNull SenderT type, @NotNull Text text, @NotNull Map<String, Set<Event>> events) {
         Strings.findInside(text.getAsString().getValue(), "<event.", "</event>", (s, found) -> {
             if (found) {
                 final int index = s.indexOf('>');
@@ -117,13 +298,46 @@ public abstract class TextDisplay<SenderT> implements Display<SenderT> {
                 builder.append(s);
             }
         });
-        builder.sendTo(type, centerWidth);
+        return builder;
+    }
+
+    @NotNull
+    private Builder<SenderT> build(@NotNull Builder<SenderT> builder, @NotNull SenderT type, @NotNull Text[] texts, @NotNull Set<Event>[] events) {
+        for (int i = 0; i < spans.length; i++) {
+            final String s = texts[i].getAsString().getValue();
+            final String id = spans[i].id;
+            if (id == null) {
+                // Same as the full text search, that never emits empty parts
+                if (!s.isEmpty() || spans.length == 1) {
+                    builder.append(s);
+                }
+            } else if (s.isEmpty()) {
+                builder.append("<event." + id + "></event>");
+            } else {
+                builder.sum(MStrings.getFontLength(s));
+                builder.append(type, s, events[i]);
+            }
+        }
+        return builder;
     }
 
     protected abstract void sendText(@NotNull SenderT type, @NotNull Text text);
 
     protected abstract Builder<SenderT> newBuilder();
 
+    private static final class Span {
+
+        private final Text text;
+        private final String id;
+        private final Set<Event> events;
+
+        Span(@NotNull Text text, @Nullable String id, @NotNull Set<Event> events) {
+            this.text = text;
+            this.id = id;
+            this.events = events;
+        }
+    }
+
     public static abstract class Builder<SenderT> {
 
         private int widthCount = 0;
@@ -147,13 +361,17 @@ public abstract class TextDisplay<SenderT> implements Display<SenderT> {
         }
 
         public void sendTo(@NotNull SenderT type, int width) {
+            center(width);
+            sendTo(type);
+        }
+
+        public void center(int width) {
             if (width > 0) {
                 final String s = MStrings.spacesToCenter(widthCount, width);
                 if (!s.isEmpty()) {
                     append(s, true);
                 }
             }
-            sendTo(type);
         }
     }
 
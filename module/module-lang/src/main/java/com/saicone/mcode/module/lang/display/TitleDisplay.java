@@ -90,6 +90,15 @@ public abstract class TitleDisplay<SenderT> implements Display<SenderT> {
         }
     }
 
+    @Override
+    public boolean isSenderRelative() {
+        return isSenderRelative(title) || isSenderRelative(subtitle);
+    }
+
+    private static boolean isSenderRelative(@NotNull Text text) {
+        return !text.isString() || text.getAsString().getTemplate().contains('%');
+    }
+
     protected void sendTitle(@NotNull SenderT type, @NotNull Text title, @NotNull Text subtitle) {
         sendTitle(type, title, subtitle, fadeIn, stay, fadeOut);
     }
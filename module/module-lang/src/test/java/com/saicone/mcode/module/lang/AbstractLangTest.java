@@ -0,0 +1,100 @@
+package com.saicone.mcode.module.lang;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AbstractLangTest {
+
+    private static final String[] LOCALES = {"en_us", "es_es", "de_de", "fr_fr"};
+
+    private File folder;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        folder = Files.createTempDirectory("lang").toFile();
+        for (int i = 0; i < 40; i++) {
+            final String[] lines = new String[20];
+            for (int j = 0; j < lines.length; j++) {
+                // Files of the same locale override the same keys, so the merge order matters
+                lines[j] = "section" + (j % 4) + ".key" + (j % 10) + "=value " + i + " " + j;
+            }
+            TestLang.write(new File(folder, "dir" + i + "/" + LOCALES[i % LOCALES.length] + ".yml"), lines);
+        }
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        try (Stream<Path> stream = Files.walk(folder.toPath())) {
+            stream.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testLoadAsyncLikeLoad() throws Exception {
+        final TestLang sync = new TestLang(folder);
+        sync.load();
+        assertEquals(4, sync.getObjects().size());
+
+        for (int i = 0; i < 5; i++) {
+            final TestLang async = new TestLang(folder);
+            final LangSnapshot<String> snapshot = async.loadAsync().get();
+            assertSame(snapshot, async.getSnapshot());
+            assertEquals(sync.getObjects(), snapshot.getObjects());
+            assertEquals(40, async.getParsed());
+        }
+        // Last file by path wins
+        assertEquals("value 8 19", sync.getValue(Locale.US, "section3", "key9"));
+    }
+
+    @Test
+    public void testLoadAsyncCancelled() {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final Executor executor = tasks::add;
+        final TestLang lang = new TestLang(folder);
+        final CompletableFuture<LangSnapshot<String>> future = lang.loadAsync(folder, executor);
+        future.cancel(false);
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+        assertTrue(future.isCancelled());
+        assertTrue(lang.getObjects().isEmpty());
+        // Files queued after the cancellation are not parsed
+        assertEquals(0, lang.getParsed());
+    }
+
+    @Test
+    public void testLoadAsyncOutdated() throws Exception {
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final Executor executor = tasks::add;
+        final TestLang lang = new TestLang(folder);
+        final CompletableFuture<LangSnapshot<String>> future = lang.loadAsync(folder, executor);
+
+        // A newer load is published first, the previous one must not replace it
+        TestLang.write(new File(folder, "dir0/en_us.yml"), "section0.key0=newer");
+        lang.load();
+        final LangSnapshot<String> published = lang.getSnapshot();
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+        assertTrue(future.isDone());
+        assertNotSame(published, future.get());
+        assertSame(published, lang.getSnapshot());
+    }
+}
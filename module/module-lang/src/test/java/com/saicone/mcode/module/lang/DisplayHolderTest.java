@@ -0,0 +1,162 @@
+package com.saicone.mcode.module.lang;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DisplayHolderTest {
+
+    private static final Locale SPANISH = new Locale("es", "ES");
+
+    private final Sender steve = new Sender();
+
+    @Test
+    public void testCacheDisabled() {
+        final Holder holder = new Holder();
+        holder.join(steve, SPANISH);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(SPANISH, holder.getSenderLocale(steve));
+        }
+        assertEquals(3, holder.resolved.get());
+        assertEquals(0, holder.getSenderLocaleHits() + holder.getSenderLocaleMisses());
+
+        // Changes are seen right away
+        holder.locales.put(steve, Locale.US);
+        assertEquals(Locale.US, holder.getSenderLocale(steve));
+    }
+
+    @Test
+    public void testCache() {
+        final Holder holder = new Holder();
+        holder.setCacheSenderLocales(true);
+        holder.join(steve, SPANISH);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(SPANISH, holder.getSenderLocale(steve));
+        }
+        assertEquals(1, holder.resolved.get());
+        assertEquals(2, holder.getSenderLocaleHits());
+        assertEquals(1, holder.getSenderLocaleMisses());
+
+        // Explicit locale change
+        holder.setSenderLocale(holder.ids.get(steve), Locale.US);
+        assertEquals(Locale.US, holder.getSenderLocale(steve));
+        assertEquals(1, holder.resolved.get());
+    }
+
+    @Test
+    public void testCacheSnapshotChange() {
+        final Holder holder = new Holder();
+        holder.setCacheSenderLocales(true);
+        holder.join(steve, SPANISH);
+        assertEquals(SPANISH, holder.getSenderLocale(steve));
+
+        // The overridden locale is resolved again with every new snapshot
+        holder.locales.put(steve, Locale.US);
+        assertEquals(SPANISH, holder.getSenderLocale(steve));
+        holder.put(Locale.US, "key", Display.empty());
+        assertEquals(Locale.US, holder.getSenderLocale(steve));
+        assertEquals(2, holder.resolved.get());
+    }
+
+    @Test
+    public void testCacheOfflineSender() {
+        final Holder holder = new Holder();
+        holder.setCacheSenderLocales(true);
+        holder.join(steve, SPANISH);
+        holder.getSenderLocale(steve);
+        holder.quit(steve);
+
+        // Senders that already quit are never cached again
+        for (int i = 0; i < 3; i++) {
+            assertEquals(SPANISH, holder.getSenderLocale(steve));
+        }
+        assertEquals(4, holder.resolved.get());
+        assertEquals(1, holder.getSenderLocaleMisses());
+
+        holder.join(steve, SPANISH);
+        holder.getSenderLocale(steve);
+        holder.getSenderLocale(steve);
+        assertEquals(5, holder.resolved.get());
+    }
+
+    @Test
+    public void testSetCacheSenderLocales() {
+        final Holder holder = new Holder();
+        holder.setSenderLocale(UUID.randomUUID(), Locale.US);
+        holder.setCacheSenderLocales(true);
+        holder.join(steve, SPANISH);
+        holder.getSenderLocale(steve);
+        holder.setCacheSenderLocales(false);
+        holder.setCacheSenderLocales(true);
+        holder.getSenderLocale(steve);
+        assertEquals(2, holder.resolved.get());
+    }
+
+    private static final class Sender {
+    }
+
+    private static final class Holder extends DisplayHolder<Sender> {
+
+        private final Map<Sender, Locale> locales = new HashMap<>();
+        private final Map<Sender, UUID> ids = new HashMap<>();
+        private final Set<Sender> online = new HashSet<>();
+        private final AtomicInteger resolved = new AtomicInteger();
+
+        void join(@NotNull Sender sender, @NotNull Locale locale) {
+            locales.put(sender, locale);
+            ids.computeIfAbsent(sender, key -> UUID.randomUUID());
+            online.add(sender);
+        }
+
+        void quit(@NotNull Sender sender) {
+            online.remove(sender);
+            invalidateSenderLocale(ids.get(sender));
+        }
+
+        @Override
+        protected @Nullable UUID getSenderId(@NotNull Object sender) {
+            return online.contains(sender) ? ids.get(sender) : null;
+        }
+
+        @Override
+        public @NotNull Locale getHolderLocale(@Nullable Object holder) {
+            resolved.incrementAndGet();
+            return locales.getOrDefault(holder, getDefaultLocale());
+        }
+
+        @Override
+        public @NotNull Locale getEffectiveLocale(@NotNull Locale locale) {
+            return locale;
+        }
+
+        @Override
+        protected @NotNull Sender getConsole() {
+            return new Sender();
+        }
+
+        @Override
+        protected @NotNull Collection<? extends Sender> getSenders() {
+            return List.of();
+        }
+
+        @Override
+        protected void log(int level, @NotNull String msg) {
+        }
+
+        @Override
+        protected void log(int level, @NotNull String msg, @NotNull Throwable exception) {
+        }
+    }
+}
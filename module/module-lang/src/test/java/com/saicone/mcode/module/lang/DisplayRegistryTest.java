@@ -0,0 +1,93 @@
+package com.saicone.mcode.module.lang;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DisplayRegistryTest {
+
+    // Built-in loader patterns and a few that can't be indexed by literals
+    private static final List<String> REGEXES = List.of(
+            "(?i)mini-?(message|msg)s?",
+            "(?i)actionbars?",
+            "(?i)boss(-?bar)?",
+            "(?i)text|messages?|msg",
+            "(?i)(play-?)?sound?",
+            "(?i)(sub-?)?titles?",
+            "Title",
+            "msg",
+            "custom-[a-z]+",
+            "(?i)[a-z]+bar",
+            "(\\w)\\1+",
+            "(?i)(?:toast|advancement)s?",
+            ".*"
+    );
+    private static final List<String> NAMES = List.of(
+            "minimessage", "MiniMsg", "mini-messages", "actionbar", "ActionBars", "boss", "BOSS-BAR", "bossbar", "text", "TEXT",
+            "message", "Messages", "msg", "MSG", "sound", "Play-Sound", "sounds", "title", "Title", "subtitles", "SUB-TITLE",
+            "custom-x", "custom-", "hotbar", "aa", "zzz", "toast", "Advancements", "", "unknown", "\u017found", "t\u0131tle"
+    );
+
+    private static DisplayLoader<String> linearScan(List<DisplayLoader<String>> loaders, String name) {
+        for (DisplayLoader<String> loader : loaders) {
+            if (loader.matches(name)) {
+                return loader;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testLiterals() {
+        assertEquals(List.of("actionbars", "actionbar"), DisplayRegistry.literals("actionbars?"));
+        assertEquals(List.of("play-sound", "play-soun", "playsound", "playsoun", "sound", "soun"), DisplayRegistry.literals("(play-?)?sound?"));
+        assertEquals(List.of("text", "messages", "message", "msg"), DisplayRegistry.literals("text|messages?|msg"));
+        assertNull(DisplayRegistry.literals("custom-[a-z]+"));
+        assertNull(DisplayRegistry.literals("(?<name>a)"));
+        assertNull(DisplayRegistry.literals("(a|b"));
+    }
+
+    @Test
+    public void testGet() {
+        final List<DisplayLoader<String>> loaders = new ArrayList<>();
+        for (String regex : REGEXES) {
+            loaders.add(new DisplayLoader<>(regex, Map.of()));
+        }
+        final DisplayRegistry<String> registry = DisplayRegistry.of(loaders);
+        assertSame(loaders.get(0), registry.get("MiniMessage"));
+        assertSame(loaders.get(3), registry.get("msg"));
+        assertSame(loaders.get(5), registry.get("Title"));
+        assertSame(loaders.get(8), registry.get("custom-abc"));
+        assertSame(loaders.get(9), registry.get("hotbar"));
+        assertSame(loaders.get(12), registry.get("anything"));
+        assertNull(DisplayRegistry.of(loaders.subList(0, 6)).get("anything"));
+        assertNull(DisplayRegistry.<String>of(List.of()).get("text"));
+    }
+
+    @Test
+    public void testLikeLinearScan() {
+        final Random random = new Random(18);
+        for (int i = 0; i < 500; i++) {
+            final List<DisplayLoader<String>> loaders = new ArrayList<>();
+            for (String regex : REGEXES) {
+                if (random.nextInt(3) > 0) {
+                    loaders.add(new DisplayLoader<>(regex, Map.of()));
+                }
+            }
+            Collections.shuffle(loaders, random);
+            final DisplayRegistry<String> registry = DisplayRegistry.of(loaders);
+            // Twice, the second lookup comes from the name cache
+            for (int j = 0; j < 2; j++) {
+                for (String name : NAMES) {
+                    assertSame(linearScan(loaders, name), registry.get(name), name);
+                }
+            }
+        }
+    }
+}
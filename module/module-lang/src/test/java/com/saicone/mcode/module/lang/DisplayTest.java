@@ -0,0 +1,71 @@
+package com.saicone.mcode.module.lang;
+
+import com.saicone.mcode.platform.MC;
+import com.saicone.mcode.platform.Text;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DisplayTest {
+
+    private static final List<String> SENDERS = List.of("Steve", "Alex", "Notch");
+
+    @Test
+    public void testSendToPlayerParser() {
+        final Sent display = new Sent("Hello");
+        final AtomicInteger parsed = new AtomicInteger();
+        display.sendTo(SENDERS, text -> {
+            parsed.incrementAndGet();
+            return new Text.PlainText(text.getVersion(), text.getAsString().getValue() + "!");
+        }, (player, text) -> new Text.PlainText(text.getVersion(), text.getAsString().getValue() + " " + player));
+
+        assertEquals(List.of("Steve: Hello! Steve", "Alex: Hello! Alex", "Notch: Hello! Notch"), display.sent);
+        // Shared parser is applied once
+        assertEquals(1, parsed.get());
+    }
+
+    @Test
+    public void testSendToShared() {
+        final Sent display = new Sent("Hello");
+        final List<Text> texts = new ArrayList<>();
+        display.sendTo(SENDERS, text -> new Text.PlainText(text.getVersion(), text.getAsString().getValue() + "!"), (player, text) -> {
+            texts.add(text);
+            return text;
+        });
+        assertEquals(List.of("Steve: Hello!", "Alex: Hello!", "Notch: Hello!"), display.sent);
+        assertSame(texts.get(0), texts.get(1));
+        assertSame(texts.get(0), texts.get(2));
+    }
+
+    @Test
+    public void testSendToList() {
+        final Sent first = new Sent("First");
+        final Sent second = new Sent("Second");
+        final DisplayList<String> list = new DisplayList<>(new ArrayList<>(List.of(first, second)));
+        list.sendTo(SENDERS, Function.identity(), (player, text) -> new Text.PlainText(text.getVersion(), text.getAsString().getValue() + " " + player));
+        assertEquals(List.of("Steve: First Steve", "Alex: First Alex", "Notch: First Notch"), first.sent);
+        assertEquals(List.of("Steve: Second Steve", "Alex: Second Alex", "Notch: Second Notch"), second.sent);
+    }
+
+    // Display without its own broadcast implementation
+    private static final class Sent implements Display<String> {
+
+        private final Text text;
+        private final List<String> sent = new ArrayList<>();
+
+        Sent(@NotNull String text) {
+            this.text = new Text.PlainText(MC.V_1_20_4, text);
+        }
+
+        @Override
+        public void sendTo(@NotNull String type, @NotNull Function<Text, Text> parser) {
+            sent.add(type + ": " + parser.apply(text).getAsString().getValue());
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.saicone.mcode.module.lang;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LangCacheTest {
+
+    private File folder;
+    private File source;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        folder = Files.createTempDirectory("lang").toFile();
+        source = new File(folder, "en_us.yml");
+        TestLang.write(source, "key=value");
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        try (Stream<Path> stream = Files.walk(folder.toPath())) {
+            stream.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private static Map<String, Object> objects() {
+        final Map<String, Object> section = new LinkedHashMap<>();
+        section.put("text", "Hello \u00e9\u4e16");
+        section.put("none", null);
+        section.put("lines", Arrays.asList("a", 1, 2L, 1.5f, 2.5d, true, false, null, List.of("nested")));
+        final Map<String, Object> map = new LinkedHashMap<>();
+        map.put("section", section);
+        map.put("text", "Hello \u00e9\u4e16");
+        map.put("empty", Map.of());
+        return map;
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        final File file = new File(folder, "cache.bin");
+        final LangCache cache = new LangCache(file);
+        cache.read();
+        assertNull(cache.get(source, false));
+        cache.put(source, false, objects());
+        cache.write();
+
+        final LangCache read = new LangCache(file);
+        read.read();
+        assertEquals(objects(), read.get(source, false));
+        assertEquals(List.copyOf(objects().keySet()), List.copyOf(read.get(source, false).keySet()));
+        // Settings and plain files are parsed differently
+        assertNull(read.get(source, true));
+    }
+
+    @Test
+    public void testModifiedSource() throws IOException {
+        final File file = new File(folder, "cache.bin");
+        final LangCache cache = new LangCache(file);
+        cache.put(source, false, objects());
+        cache.write();
+
+        // Same size and modification time, only the content hash changes
+        final long modified = source.lastModified();
+        TestLang.write(source, "key=other");
+        assertTrue(source.setLastModified(modified));
+        final LangCache read = new LangCache(file);
+        read.read();
+        assertNull(read.get(source, false));
+
+        TestLang.write(source, "key=value changed");
+        assertNull(read.get(source, false));
+    }
+
+    @Test
+    public void testUnsupportedValue() throws IOException {
+        final File file = new File(folder, "cache.bin");
+        final LangCache cache = new LangCache(file);
+        final Map<String, Object> map = objects();
+        map.put("id", UUID.randomUUID());
+        cache.put(source, false, map);
+        cache.write();
+
+        final LangCache read = new LangCache(file);
+        read.read();
+        assertNull(read.get(source, false));
+    }
+
+    @Test
+    public void testCorruptedFile() throws IOException {
+        final File file = new File(folder, "cache.bin");
+        final LangCache cache = new LangCache(file);
+        cache.put(source, false, objects());
+        cache.write();
+
+        final byte[] bytes = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length / 2));
+        final LangCache read = new LangCache(file);
+        read.read();
+        assertNull(read.get(source, false));
+
+        Files.write(file.toPath(), new byte[] {1, 2, 3});
+        read.read();
+        assertNull(read.get(source, false));
+    }
+
+    @Test
+    public void testLangLoad() throws IOException {
+        for (int i = 0; i < 10; i++) {
+            TestLang.write(new File(folder, "dir" + i + "/es_es.yml"), "section.key" + i + "=value " + i, "text=file " + i);
+        }
+        final TestLang cold = new TestLang(folder);
+        cold.setUseCache(true);
+        cold.load();
+        assertEquals(11, cold.getParsed());
+        assertTrue(new File(folder, ".lang-cache.bin").isFile());
+
+        final TestLang warm = new TestLang(folder);
+        warm.setUseCache(true);
+        warm.load();
+        assertEquals(0, warm.getParsed());
+        assertEquals(cold.getObjects(), warm.getObjects());
+
+        TestLang.write(new File(folder, "dir3/es_es.yml"), "section.key3=changed");
+        final TestLang modified = new TestLang(folder);
+        modified.setUseCache(true);
+        modified.load();
+        assertEquals(1, modified.getParsed());
+        assertEquals("changed", modified.getValue(new Locale("es", "ES"), "section", "key3"));
+    }
+}
@@ -0,0 +1,160 @@
+package com.saicone.mcode.module.lang;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LangValueTest {
+
+    private File folder;
+    private TestLang lang;
+    private final AtomicInteger parsed = new AtomicInteger();
+
+    @BeforeEach
+    public void setup() throws IOException {
+        folder = Files.createTempDirectory("lang").toFile();
+        TestLang.write(new File(folder, "en_us.yml"), "msg.greeting=Hello", "msg.old=Old");
+        TestLang.write(new File(folder, "es_es.yml"), "msg.greeting=Hola");
+        lang = new TestLang(folder);
+        lang.load();
+    }
+
+    @AfterEach
+    public void cleanup() throws IOException {
+        try (Stream<Path> stream = Files.walk(folder.toPath())) {
+            stream.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @NotNull
+    private LangSupplier.Value<String> value(@NotNull String path, @NotNull String... aliases) {
+        return lang.<String>value(path, aliases).parser(object -> {
+            parsed.incrementAndGet();
+            return new String(String.valueOf(object));
+        });
+    }
+
+    @Test
+    public void testMemo() {
+        final LangSupplier.Value<String> value = value("msg.greeting");
+        final String english = value.get("en_us");
+        assertEquals("Hello", english);
+        assertEquals("Hola", value.get("es_es"));
+        for (int i = 0; i < 10; i++) {
+            assertSame(english, value.get("en_us"));
+        }
+        assertEquals(2, parsed.get());
+
+        // Unknown locales resolve to the default one and share its parsed value
+        assertSame(english, value.get("ja_jp"));
+        assertEquals(2, parsed.get());
+    }
+
+    @Test
+    public void testAlias() {
+        final LangSupplier.Value<String> value = value("msg.missing", "msg.old");
+        assertEquals("Old", value.get("en_us"));
+        // The default locale value is used when the alias is missing
+        assertEquals("Old", value.get("es_es"));
+    }
+
+    @Test
+    public void testSenderParser() {
+        final AtomicInteger calls = new AtomicInteger();
+        final LangSupplier.Value<String> value = lang.<String>value("msg.greeting").parser((String sender, Object object) -> {
+            calls.incrementAndGet();
+            return sender + ": " + object;
+        });
+        assertEquals("es_es: Hola", value.get("es_es"));
+        assertEquals("es_es: Hola", value.get("es_es"));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testConcurrentGet() throws Exception {
+        final LangSupplier.Value<String> value = value("msg.greeting");
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<List<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                final String sender = i % 2 == 0 ? "en_us" : "es_es";
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    final List<String> results = new ArrayList<>();
+                    for (int j = 0; j < 1000; j++) {
+                        results.add(value.get(sender));
+                    }
+                    return results;
+                }));
+            }
+            start.countDown();
+
+            final String english = futures.get(0).get(10, TimeUnit.SECONDS).get(0);
+            final String spanish = futures.get(1).get(10, TimeUnit.SECONDS).get(0);
+            for (int i = 0; i < threads; i++) {
+                final String expected = i % 2 == 0 ? english : spanish;
+                for (String result : futures.get(i).get(10, TimeUnit.SECONDS)) {
+                    // Every reader gets the same parsed object, even when two threads parsed it at once
+                    assertSame(expected, result);
+                }
+            }
+            assertEquals("Hello", english);
+            assertEquals("Hola", spanish);
+            assertTrue(parsed.get() <= threads);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testReload() throws IOException {
+        final LangSupplier.Value<String> value = value("msg.greeting");
+        final String before = value.get("es_es");
+        assertEquals("Hola", before);
+
+        TestLang.write(new File(folder, "es_es.yml"), "msg.greeting=Buenas");
+        lang.load();
+        // The memo is bound to the snapshot it was computed from
+        assertEquals("Buenas", value.get("es_es"));
+        assertEquals("Buenas", value.getValue(new Locale("es", "ES")));
+        assertEquals(2, parsed.get());
+    }
+
+    @Test
+    public void testSetValue() throws IOException {
+        final LangSupplier.Value<String> value = value("msg.greeting");
+        assertEquals("Hola", value.get("es_es"));
+        value.setValue(new Locale("es", "ES"), "Saludos");
+        assertEquals("Saludos", value.get("es_es"));
+
+        value.clear();
+        assertEquals("Hola", value.get("es_es"));
+
+        // Values of the lang are cleared on every load
+        value.setValue(new Locale("es", "ES"), "Saludos");
+        TestLang.write(new File(folder, "es_es.yml"), "msg.greeting=Buenas");
+        lang.load();
+        assertEquals("Buenas", value.get("es_es"));
+    }
+}
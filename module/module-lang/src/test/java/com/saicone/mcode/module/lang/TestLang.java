@@ -0,0 +1,84 @@
+package com.saicone.mcode.module.lang;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Lang provider that reads "path.to.key=value" lines
+public class TestLang extends AbstractLang<String> {
+
+    private final File root;
+    private final AtomicInteger parsed = new AtomicInteger();
+
+    public TestLang(@NotNull File root) {
+        this.root = root;
+    }
+
+    public static void write(@NotNull File file, @NotNull String... lines) throws IOException {
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), List.of(lines));
+    }
+
+    public int getParsed() {
+        return parsed.get();
+    }
+
+    @Override
+    protected @NotNull String getConsole() {
+        return "console";
+    }
+
+    @Override
+    protected @NotNull Collection<? extends String> getSenders() {
+        return List.of();
+    }
+
+    @Override
+    protected void log(int level, @NotNull String msg) {
+    }
+
+    @Override
+    protected void log(int level, @NotNull String msg, @NotNull Throwable exception) {
+    }
+
+    @Override
+    protected void saveFiles(@NotNull File folder) {
+    }
+
+    @Override
+    public @NotNull File getRootFolder() {
+        return root;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected @NotNull Map<String, Object> getFileObjects(@NotNull File file) {
+        parsed.incrementAndGet();
+        final Map<String, Object> map = new LinkedHashMap<>();
+        try {
+            for (String line : Files.readAllLines(file.toPath())) {
+                final int index = line.indexOf('=');
+                if (index < 1) {
+                    continue;
+                }
+                final String[] path = line.substring(0, index).split("\\.");
+                Map<String, Object> current = map;
+                for (int i = 0; i < path.length - 1; i++) {
+                    current = (Map<String, Object>) current.computeIfAbsent(path[i], key -> new LinkedHashMap<String, Object>());
+                }
+                current.put(path[path.length - 1], line.substring(index + 1));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return map;
+    }
+}
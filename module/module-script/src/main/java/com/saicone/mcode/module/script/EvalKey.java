@@ -38,11 +38,7 @@ public class EvalKey {
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null) return false;
-        if (o instanceof String) {
-            return compare((String) o);
-        }
-        if (getClass() != o.getClass()) return false;
+        if (o == null || getClass() != o.getClass()) return false;
 
         EvalKey evalKey = (EvalKey) o;
 
@@ -6,18 +6,93 @@ import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayDeque;
 import java.util.Map;
 import java.util.UUID;
 import java.util.function.Function;
 
 public class EvalUser {
 
+    private static final int MAX_POOLED = 16;
+    // Released users by thread, a script may run other scripts so every thread keeps a small stack
+    private static final ThreadLocal<ArrayDeque<EvalUser>> POOL = ThreadLocal.withInitial(ArrayDeque::new);
+
     private UUID uniqueId;
     private Object subject;
     private Object agent;
     private Object[] indexedArgs;
     private Map<String, Object> mappedArgs;
 
+    private boolean pooled;
+    private boolean released;
+
+    @NotNull
+    public static EvalUser acquire() {
+        final EvalUser user = POOL.get().pollLast();
+        if (user != null) {
+            user.released = false;
+            return user;
+        }
+        final EvalUser created = new EvalUser();
+        created.pooled = true;
+        return created;
+    }
+
+    public void release() {
+        if (!pooled || released) {
+            return;
+        }
+        reset(null, null, (Object[]) null);
+        released = true;
+        final ArrayDeque<EvalUser> pool = POOL.get();
+        if (pool.size() < MAX_POOLED) {
+            pool.addLast(this);
+        }
+    }
+
+    public boolean isPooled() {
+        return pooled;
+    }
+
+    @NotNull
+    @Contract("_, _, _ -> this")
+    public EvalUser reset(@Nullable Object subject, @Nullable Object agent, @Nullable Object[] args) {
+        this.uniqueId = null;
+        this.subject = subject;
+        this.agent = agent;
+        this.indexedArgs = args;
+        this.mappedArgs = null;
+        return this;
+    }
+
+    @NotNull
+    @Contract("_, _, _ -> this")
+    public EvalUser reset(@Nullable Object subject, @Nullable Object agent, @Nullable Map<String, Object> args) {
+        this.uniqueId = null;
+        this.subject = subject;
+        this.agent = agent;
+        this.indexedArgs = null;
+        this.mappedArgs = args;
+        return this;
+    }
+
+    @NotNull
+    public EvalUser copy() {
+        final EvalUser user = new EvalUser();
+        user.uniqueId = uniqueId;
+        user.subject = subject;
+        user.agent = agent;
+        user.indexedArgs = indexedArgs;
+        user.mappedArgs = mappedArgs;
+        return user;
+    }
+
+    @NotNull
+    public EvalUser detach() {
+        // Pooled users are reset once released, so anything that outlives the current run must use a copy
+        return pooled ? copy() : this;
+    }
+
     @NotNull
     @Contract("_ -> this")
     public EvalUser uniqueId(@NotNull UUID uniqueId) {
@@ -55,7 +130,9 @@ public class EvalUser {
         if (uniqueId != null) {
             return uniqueId;
         }
-        return Platform.getInstance().getUserId(getAgent());
+        // Users evaluated without a platform, like tests or standalone scripts, have no id
+        final Platform platform = Platform.getInstance();
+        return platform == null ? null : platform.getUserId(getAgent());
     }
 
     @Nullable
@@ -85,19 +162,14 @@ public class EvalUser {
 
     @NotNull
     public String parse(@Nullable String s, boolean color) {
-        return parse(s, (text) -> {
-            text = text.parseAgent(subject, agent);
-            if (indexedArgs != null) {
-                text = text.args(indexedArgs);
-            }
-            if (mappedArgs != null) {
-                text = text.args(mappedArgs);
-            }
-            if (color) {
-                text = text.color();
-            }
-            return text;
-        });
+        if (s == null) {
+            return "null";
+        }
+        // Without placeholder or argument delimiters the text is never modified
+        if (!color && s.indexOf('%') < 0 && s.indexOf('{') < 0 && s.indexOf('}') < 0) {
+            return s;
+        }
+        return parse(Text.plain(s), color).getAsString().getValue();
     }
 
     @NotNull
@@ -78,6 +78,16 @@ public class Script {
         return run(user, ActionResult.DONE);
     }
 
+    @NotNull
+    public ActionResult run(@Nullable Object subject, @Nullable Object agent, @Nullable Object... args) {
+        final EvalUser user = EvalUser.acquire().reset(subject, agent, args);
+        try {
+            return run(user, ActionResult.DONE);
+        } finally {
+            user.release();
+        }
+    }
+
     @Nullable
     @Contract("_, !null -> !null")
     public ActionResult run(@NotNull EvalUser user, @Nullable ActionResult def) {
@@ -88,6 +98,15 @@ public class Script {
         return eval(user, false);
     }
 
+    public boolean eval(@Nullable Object subject, @Nullable Object agent, @Nullable Object... args) {
+        final EvalUser user = EvalUser.acquire().reset(subject, agent, args);
+        try {
+            return eval(user, false);
+        } finally {
+            user.release();
+        }
+    }
+
     @Nullable
     @Contract("_, !null -> !null")
     public Boolean eval(@NotNull EvalUser user, @Nullable Boolean def) {
@@ -100,11 +119,11 @@ public class Script {
     }
 
     public void loadAction(@Nullable Object object) {
-        load(object, compiler.compileAction(object));
+        load(object, compiler.compileScript(object));
     }
 
     public void loadAction(@Nullable Object action, @Nullable Object object) {
-        load(action, compiler.compileAction(action, object));
+        load(action, compiler.compileScript(action, object));
     }
 
     public void loadCondition(@Nullable Object condition) {
@@ -0,0 +1,11 @@
+package com.saicone.mcode.module.script;
+
+import org.jetbrains.annotations.NotNull;
+
+@FunctionalInterface
+public interface ScriptBackend {
+
+    // Generates an equivalent function of a compiled action tree, or returns the same function if it can't
+    @NotNull
+    ScriptFunction<EvalUser, ActionResult> compileAction(@NotNull ScriptCompiler compiler, @NotNull ScriptFunction<EvalUser, ActionResult> function);
+}
@@ -6,17 +6,68 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ScriptCompiler extends ScriptRegistry {
 
     private static final ScriptCompiler INSTANCE = new ScriptCompiler();
+    // Shared by every compiler, a single thread for all the delayed actions
+    private static final ScriptTimer TIMER = new ScriptTimer();
+    // Bytecode backend from module-env, only used with -Dmcode.script.bytecode=true
+    private static final ScriptBackend BYTECODE_BACKEND = loadBytecodeBackend();
+
+    // Pending delayed actions by user
+    private final Map<UUID, Set<Delayed>> delayed = new ConcurrentHashMap<>();
+    private ScriptBackend backend = BYTECODE_BACKEND;
 
     @NotNull
     public static ScriptCompiler compiler() {
         return INSTANCE;
     }
 
+    @NotNull
+    public static ScriptTimer timer() {
+        return TIMER;
+    }
+
+    @Nullable
+    private static ScriptBackend loadBytecodeBackend() {
+        if (!Boolean.getBoolean("mcode.script.bytecode")) {
+            return null;
+        }
+        try {
+            return (ScriptBackend) Class.forName("com.saicone.mcode.env.asm.ScriptClassGenerator").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    public ScriptBackend getBackend() {
+        return backend;
+    }
+
+    public void setBackend(@Nullable ScriptBackend backend) {
+        this.backend = backend;
+    }
+
+    @Nullable
+    public ScriptFunction<EvalUser, ActionResult> compileScript(@Nullable Object action) {
+        return compileScript(action, null);
+    }
+
+    @Nullable
+    public ScriptFunction<EvalUser, ActionResult> compileScript(@Nullable Object action, @Nullable Object object) {
+        final ScriptFunction<EvalUser, ActionResult> function = compileAction(action, object);
+        // Only the whole script is given to the backend, nested actions are part of its tree
+        if (function == null || backend == null) {
+            return function;
+        }
+        return backend.compileAction(this, function);
+    }
+
     @Nullable
     public ScriptFunction<EvalUser, ActionResult> compileAction(@Nullable Object action) {
         return compileAction(action, null);
@@ -29,6 +80,8 @@ public class ScriptCompiler extends ScriptRegistry {
             ScriptFunction<EvalUser, ActionResult> run = null;
             ScriptFunction<EvalUser, Boolean> condition = null;
             ScriptFunction<EvalUser, ActionResult> orElse = null;
+            // Concatenated once, so long action maps are flattened in linear time
+            final List<ScriptFunction<EvalUser, ActionResult>> sequence = new ArrayList<>();
             for (var entry : ((Map<?, ?>) action).entrySet()) {
                 final String key = String.valueOf(entry.getKey());
                 switch (getCleanId(key)) {
@@ -56,22 +109,25 @@ public class ScriptCompiler extends ScriptRegistry {
                         orElse = compileAction(entry.getValue(), object);
                         break;
                     default:
-                        function = concat(function, getAction(key, entry.getValue(), object));
+                        final ScriptFunction<EvalUser, ActionResult> act = getAction(key, entry.getValue(), object);
+                        if (act != null) {
+                            sequence.add(act);
+                        }
                         break;
                 }
             }
             if (condition != null) {
                 if (orElse != null) {
-                    if (run == null) {
-                        run = (user) -> ActionResult.DONE;
-                    }
-                    run = run.ifAnd(condition, ActionResult.CONTINUE, orElse);
+                    run = new Branch(condition, run == null ? Action.DONE : run, orElse);
                 } else if (run != null) {
-                    run = run.ifElse(condition, null);
+                    run = new Branch(condition, run, null);
                 }
             }
 
-            function = concat(function, run);
+            if (run != null) {
+                sequence.add(run);
+            }
+            function = Sequence.of(sequence);
         } else if (action instanceof Iterable) {
             final List<ScriptFunction<EvalUser, ActionResult>> actions = new ArrayList<>();
             for (Object o : (Iterable<?>) action) {
@@ -81,7 +137,7 @@ public class ScriptCompiler extends ScriptRegistry {
                 }
             }
             if (!actions.isEmpty()) {
-                function = (user) -> run(user, actions, 0);
+                function = new ActionList(this, actions);
             }
         } else if (action instanceof Object[]) {
             function = getAction(asString((Object[]) action), object);
@@ -112,25 +168,10 @@ public class ScriptCompiler extends ScriptRegistry {
         if (conditions.isEmpty()) {
             return null;
         }
-        if (all) {
-            return (user) -> { // Compare by &&
-                for (ScriptFunction<EvalUser, Boolean> function : conditions) {
-                    if (!function.apply(user)) {
-                        return false;
-                    }
-                }
-                return true;
-            };
-        } else {
-            return (user) -> { // Compare by ||
-                for (ScriptFunction<EvalUser, Boolean> function : conditions) {
-                    if (function.apply(user)) {
-                        return true;
-                    }
-                }
-                return false;
-            };
+        if (conditions.size() == 1) {
+            return conditions.get(0);
         }
+        return new Conditions(conditions, all);
     }
 
     @Override
@@ -323,7 +364,7 @@ public class ScriptCompiler extends ScriptRegistry {
             return null;
         }
         if (negative) {
-            return (user) -> !function.apply(user);
+            return new Not(function);
         }
         return function;
     }
@@ -336,7 +377,7 @@ public class ScriptCompiler extends ScriptRegistry {
         if (base == null) {
             return other;
         }
-        return base.ifAnd(ActionResult.DONE, other);
+        return Sequence.of(List.of(base, other));
     }
 
     @NotNull
@@ -353,17 +394,19 @@ public class ScriptCompiler extends ScriptRegistry {
         for (int i = start; i < actions.size(); i++) {
             final var act = actions.get(i);
             final ActionResult result = act.apply(user);
-            if (result == ActionResult.BREAK) {
+            // Delayed results are copies, so they must be compared by id
+            if (ActionResult.BREAK.equals(result)) {
                 if (result.hasDelay()) {
                     return result.transfer("DONE");
                 }
                 break;
-            } else if (result != ActionResult.DONE) {
+            } else if (!ActionResult.DONE.equals(result)) {
                 return result;
             } else if (result.hasDelay()) {
                 if (i + 1 < actions.size()) {
                     final int newStart = i + 1;
-                    run(result.getDelay(), result.getTimeUnit(), () -> run(user, actions, newStart));
+                    final EvalUser detached = user.detach();
+                    run(detached, result.getDelay(), result.getTimeUnit(), () -> run(detached, actions, newStart));
                 }
                 return result;
             }
@@ -371,15 +414,282 @@ public class ScriptCompiler extends ScriptRegistry {
         return ActionResult.DONE;
     }
 
+    protected void run(@NotNull EvalUser user, long delay, @NotNull TimeUnit unit, @NotNull Runnable runnable) {
+        final UUID uniqueId = user.getUniqueId();
+        if (uniqueId == null) {
+            run(delay, unit, runnable);
+            return;
+        }
+        final Delayed task = new Delayed(uniqueId, runnable);
+        delayed.compute(uniqueId, (id, set) -> {
+            if (set == null) {
+                set = new HashSet<>();
+            }
+            set.add(task);
+            return set;
+        });
+        run(delay, unit, task);
+    }
+
+    // Used by backends to continue a delayed script, tracked by user like any delayed action list
+    public void schedule(@NotNull EvalUser user, long delay, @NotNull TimeUnit unit, @NotNull Runnable runnable) {
+        run(user, delay, unit, runnable);
+    }
+
     protected void run(long delay, @NotNull TimeUnit unit, @NotNull Runnable runnable) {
-        // Dirty delay, must be overridden
-        new Thread(() -> {
-            try {
-                Thread.sleep(unit.toMillis(delay));
-                runnable.run();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+        final ScriptTimer.Timeout timeout = TIMER.schedule(runnable, delay, unit);
+        bindCancel(runnable, timeout::cancel);
+    }
+
+    // Implementations that schedule with their own scheduler must bind a cancel action, so cancelled actions don't wait for their deadline
+    protected void bindCancel(@NotNull Runnable runnable, @NotNull Runnable cancel) {
+        if (runnable instanceof Delayed) {
+            ((Delayed) runnable).bind(cancel);
+        }
+    }
+
+    public int getDelayedCount(@NotNull UUID uniqueId) {
+        final Set<Delayed> set = delayed.get(uniqueId);
+        return set == null ? 0 : set.size();
+    }
+
+    public int cancelDelayed(@NotNull UUID uniqueId) {
+        final Set<Delayed> set = delayed.remove(uniqueId);
+        if (set == null) {
+            return 0;
+        }
+        int count = 0;
+        for (Delayed task : set) {
+            if (task.cancel()) {
+                count++;
             }
-        }).start();
+        }
+        return count;
+    }
+
+    public void cancelDelayed() {
+        for (UUID uniqueId : delayed.keySet()) {
+            cancelDelayed(uniqueId);
+        }
+    }
+
+    private final class Delayed implements Runnable {
+
+        private final UUID uniqueId;
+        private final Runnable runnable;
+        private final AtomicBoolean done = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private volatile Runnable cancel;
+
+        Delayed(@NotNull UUID uniqueId, @NotNull Runnable runnable) {
+            this.uniqueId = uniqueId;
+            this.runnable = runnable;
+        }
+
+        void bind(@NotNull Runnable cancel) {
+            this.cancel = cancel;
+            // Cancelled before it was scheduled
+            if (cancelled) {
+                cancel.run();
+            }
+        }
+
+        boolean cancel() {
+            if (!done.compareAndSet(false, true)) {
+                return false;
+            }
+            cancelled = true;
+            final Runnable cancel = this.cancel;
+            if (cancel != null) {
+                cancel.run();
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            delayed.computeIfPresent(uniqueId, (id, set) -> {
+                set.remove(this);
+                return set.isEmpty() ? null : set;
+            });
+            runnable.run();
+        }
+    }
+
+    // Compiled script nodes are public, so a backend can read the tree and generate the same logic
+
+    // Flat version of chained base.ifAnd(DONE, other) calls, without a closure for every concatenated action
+    public static final class Sequence implements ScriptFunction<EvalUser, ActionResult> {
+
+        private final List<ScriptFunction<EvalUser, ActionResult>> functions;
+
+        @Nullable
+        static ScriptFunction<EvalUser, ActionResult> of(@NotNull List<ScriptFunction<EvalUser, ActionResult>> functions) {
+            final List<ScriptFunction<EvalUser, ActionResult>> list = new ArrayList<>(functions.size());
+            for (ScriptFunction<EvalUser, ActionResult> function : functions) {
+                if (function instanceof Sequence) {
+                    list.addAll(((Sequence) function).functions);
+                } else {
+                    list.add(function);
+                }
+            }
+            switch (list.size()) {
+                case 0:
+                    return null;
+                case 1:
+                    return list.get(0);
+                default:
+                    return new Sequence(List.copyOf(list));
+            }
+        }
+
+        Sequence(@NotNull List<ScriptFunction<EvalUser, ActionResult>> functions) {
+            this.functions = functions;
+        }
+
+        @NotNull
+        public List<ScriptFunction<EvalUser, ActionResult>> getFunctions() {
+            return functions;
+        }
+
+        @Override
+        public ActionResult apply(EvalUser user) {
+            ActionResult result = null;
+            for (int i = 0; i < functions.size(); i++) {
+                result = functions.get(i).apply(user);
+                // Same as ifAnd, only the main DONE instance continues
+                if (result != ActionResult.DONE) {
+                    return result;
+                }
+            }
+            return result;
+        }
+    }
+
+    // Same as run.ifElse(condition, null) without else, or run.ifAnd(condition, CONTINUE, orElse) with it
+    public static final class Branch implements ScriptFunction<EvalUser, ActionResult> {
+
+        private final ScriptFunction<EvalUser, Boolean> condition;
+        private final ScriptFunction<EvalUser, ActionResult> run;
+        private final ScriptFunction<EvalUser, ActionResult> orElse;
+
+        Branch(@NotNull ScriptFunction<EvalUser, Boolean> condition, @NotNull ScriptFunction<EvalUser, ActionResult> run, @Nullable ScriptFunction<EvalUser, ActionResult> orElse) {
+            this.condition = condition;
+            this.run = run;
+            this.orElse = orElse;
+        }
+
+        @NotNull
+        public ScriptFunction<EvalUser, Boolean> getCondition() {
+            return condition;
+        }
+
+        @NotNull
+        public ScriptFunction<EvalUser, ActionResult> getRun() {
+            return run;
+        }
+
+        @Nullable
+        public ScriptFunction<EvalUser, ActionResult> getOrElse() {
+            return orElse;
+        }
+
+        @Override
+        public ActionResult apply(EvalUser user) {
+            if (condition.apply(user)) {
+                final ActionResult result = run.apply(user);
+                if (orElse != null && result.equals(ActionResult.CONTINUE)) {
+                    return orElse.apply(user);
+                }
+                return result;
+            } else if (orElse != null) {
+                return orElse.apply(user);
+            } else {
+                return null;
+            }
+        }
+    }
+
+    // Action list that can be delayed, every delay continues from the next action
+    public static final class ActionList implements ScriptFunction<EvalUser, ActionResult> {
+
+        private final ScriptCompiler compiler;
+        private final List<ScriptFunction<EvalUser, ActionResult>> actions;
+
+        ActionList(@NotNull ScriptCompiler compiler, @NotNull List<ScriptFunction<EvalUser, ActionResult>> actions) {
+            this.compiler = compiler;
+            this.actions = actions;
+        }
+
+        @NotNull
+        public List<ScriptFunction<EvalUser, ActionResult>> getActions() {
+            return actions;
+        }
+
+        @Override
+        public ActionResult apply(EvalUser user) {
+            return compiler.run(user, actions, 0);
+        }
+    }
+
+    public static final class Conditions implements ScriptFunction<EvalUser, Boolean> {
+
+        private final List<ScriptFunction<EvalUser, Boolean>> conditions;
+        private final boolean all;
+
+        Conditions(@NotNull List<ScriptFunction<EvalUser, Boolean>> conditions, boolean all) {
+            this.conditions = conditions;
+            this.all = all;
+        }
+
+        @NotNull
+        public List<ScriptFunction<EvalUser, Boolean>> getConditions() {
+            return conditions;
+        }
+
+        public boolean isAll() {
+            return all;
+        }
+
+        @Override
+        public Boolean apply(EvalUser user) {
+            if (all) { // Compare by &&
+                for (ScriptFunction<EvalUser, Boolean> function : conditions) {
+                    if (!function.apply(user)) {
+                        return false;
+                    }
+                }
+                return true;
+            } else { // Compare by ||
+                for (ScriptFunction<EvalUser, Boolean> function : conditions) {
+                    if (function.apply(user)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }
+    }
+
+    public static final class Not implements ScriptFunction<EvalUser, Boolean> {
+
+        private final ScriptFunction<EvalUser, Boolean> condition;
+
+        Not(@NotNull ScriptFunction<EvalUser, Boolean> condition) {
+            this.condition = condition;
+        }
+
+        @NotNull
+        public ScriptFunction<EvalUser, Boolean> getCondition() {
+            return condition;
+        }
+
+        @Override
+        public Boolean apply(EvalUser user) {
+            return !condition.apply(user);
+        }
     }
 }
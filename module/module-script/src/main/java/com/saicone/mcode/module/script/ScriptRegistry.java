@@ -3,69 +3,77 @@ package com.saicone.mcode.module.script;
 import com.saicone.mcode.util.function.ThrowableFunction;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnmodifiableView;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiPredicate;
 import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 public class ScriptRegistry {
 
-    private final Map<EvalKey, EvalBuilder<? extends Action>> actions = new HashMap<>();
-    private final Map<EvalKey, EvalBuilder<? extends Condition>> conditions = new HashMap<>();
-    private final Map<EvalKey, ScriptFunction<EvalUser, ActionResult>> compiledActions = new HashMap<>();
-    private final Map<EvalKey, ScriptFunction<EvalUser, Boolean>> compiledConditions = new HashMap<>();
+    private final Index<EvalBuilder<? extends Action>> actions = new Index<>();
+    private final Index<EvalBuilder<? extends Condition>> conditions = new Index<>();
+    private final Index<ScriptFunction<EvalUser, ActionResult>> compiledActions = new Index<>();
+    private final Index<ScriptFunction<EvalUser, Boolean>> compiledConditions = new Index<>();
 
-    @SuppressWarnings("all")
     public boolean containsAnyAction(@NotNull Object key) {
-        return actions.containsKey(key) || compiledActions.containsKey(key);
+        return actions.get(key) != null || compiledActions.get(key) != null;
     }
 
-    @SuppressWarnings("all")
     public boolean containsAnyCondition(@NotNull Object key) {
-        return conditions.containsKey(key) || compiledConditions.containsKey(key);
+        return conditions.get(key) != null || compiledConditions.get(key) != null;
     }
 
     @NotNull
+    @UnmodifiableView
     public Map<EvalKey, EvalBuilder<? extends Action>> getActions() {
-        return actions;
+        return actions.getMap();
     }
 
     @Nullable
-    @SuppressWarnings("all")
     public EvalBuilder<? extends Action> getAction(@NotNull Object key) {
         return actions.get(key);
     }
 
     @NotNull
+    @UnmodifiableView
     public Map<EvalKey, EvalBuilder<? extends Condition>> getConditions() {
-        return conditions;
+        return conditions.getMap();
     }
 
     @Nullable
-    @SuppressWarnings("all")
     public EvalBuilder<? extends Condition> getCondition(@NotNull Object key) {
         return conditions.get(key);
     }
 
     @NotNull
+    @UnmodifiableView
     public Map<EvalKey, ScriptFunction<EvalUser, ActionResult>> getCompiledActions() {
-        return compiledActions;
+        return compiledActions.getMap();
     }
 
     @Nullable
-    @SuppressWarnings("all")
     public ScriptFunction<EvalUser, ActionResult> getCompiledAction(@NotNull Object key) {
         return compiledActions.get(key);
     }
 
     @NotNull
+    @UnmodifiableView
     public Map<EvalKey, ScriptFunction<EvalUser, Boolean>> getCompiledConditions() {
-        return compiledConditions;
+        return compiledConditions.getMap();
     }
 
     @Nullable
-    @SuppressWarnings("all")
     public ScriptFunction<EvalUser, Boolean> getCompiledCondition(@NotNull Object key) {
         return compiledConditions.get(key);
     }
@@ -125,25 +133,163 @@ public class ScriptRegistry {
         return putCondition(key, object -> Condition.ofValue(object, valueMapper, predicate));
     }
 
-    @SuppressWarnings("all")
     public boolean removeAction(@NotNull Object key) {
-        Object result = actions.remove(key);
-        if (result != null) {
-            compiledActions.remove(key);
-        } else {
-            result = compiledActions.remove(key);
-        }
-        return result != null;
+        boolean result = actions.remove(key);
+        result |= compiledActions.remove(key);
+        return result;
     }
 
-    @SuppressWarnings("all")
     public boolean removeCondition(@NotNull Object key) {
-        Object result = conditions.remove(key);
-        if (result != null) {
-            compiledConditions.remove(key);
-        } else {
-            result = compiledConditions.remove(key);
+        boolean result = conditions.remove(key);
+        result |= compiledConditions.remove(key);
+        return result;
+    }
+
+    // Copy-on-write key index, exact ids are hashed by lower case and every regex is combined into a single pattern
+    private static final class Index<V> {
+
+        private volatile State<V> state = new State<>(new LinkedHashMap<>());
+
+        @NotNull
+        public Map<EvalKey, V> getMap() {
+            return state.view;
+        }
+
+        @Nullable
+        public V get(@NotNull Object key) {
+            return state.get(key);
+        }
+
+        @Nullable
+        public synchronized V put(@NotNull EvalKey key, @NotNull V value) {
+            final Map<EvalKey, V> map = new LinkedHashMap<>(state.map);
+            final V previous = map.put(key, value);
+            state = new State<>(map);
+            return previous;
+        }
+
+        public synchronized boolean remove(@NotNull Object key) {
+            final EvalKey found = key instanceof EvalKey ? (EvalKey) key : state.find(String.valueOf(key));
+            if (found == null || !state.map.containsKey(found)) {
+                return false;
+            }
+            final Map<EvalKey, V> map = new LinkedHashMap<>(state.map);
+            map.remove(found);
+            state = new State<>(map);
+            return true;
+        }
+    }
+
+    private static final class State<V> {
+
+        private static final String GROUP = "mcodekey";
+        private static final int MAX_CACHED = 4096;
+        private static final EvalKey NOT_FOUND = new EvalKey("");
+
+        private final Map<EvalKey, V> map;
+        private final Map<EvalKey, V> view;
+        private final Map<String, EvalKey> exact = new HashMap<>();
+        private final EvalKey.Regex[] regex;
+        // Compiled on first lookup, so registering many keys doesn't compile the pattern every time
+        private volatile Pattern combined;
+        private volatile boolean linear;
+        // Found key by every id seen, ids are usually the same few words on every script
+        private final Map<String, EvalKey> cache = new ConcurrentHashMap<>();
+
+        State(@NotNull Map<EvalKey, V> map) {
+            this.map = map;
+            this.view = Collections.unmodifiableMap(map);
+            final List<EvalKey.Regex> regex = new ArrayList<>();
+            for (EvalKey key : map.keySet()) {
+                if (key instanceof EvalKey.Regex) {
+                    regex.add((EvalKey.Regex) key);
+                } else {
+                    // The first registered key wins
+                    exact.putIfAbsent(key.getId().toLowerCase(Locale.ROOT), key);
+                }
+            }
+            this.regex = regex.toArray(new EvalKey.Regex[0]);
+        }
+
+        @Nullable
+        V get(@NotNull Object key) {
+            if (key instanceof EvalKey) {
+                return map.get(key);
+            }
+            final EvalKey found = find(String.valueOf(key));
+            return found == null ? null : map.get(found);
+        }
+
+        @Nullable
+        EvalKey find(@NotNull String s) {
+            EvalKey key = cache.get(s);
+            if (key == null) {
+                key = search(s);
+                if (cache.size() >= MAX_CACHED) {
+                    cache.clear();
+                }
+                cache.put(s, key == null ? NOT_FOUND : key);
+            }
+            return key == NOT_FOUND ? null : key;
+        }
+
+        @Nullable
+        private EvalKey search(@NotNull String s) {
+            final EvalKey key = exact.get(s.toLowerCase(Locale.ROOT));
+            if (key != null && key.compare(s)) {
+                return key;
+            }
+            if (regex.length == 0) {
+                return null;
+            }
+            final Pattern pattern = combined();
+            if (pattern == null) {
+                for (EvalKey.Regex r : regex) {
+                    if (r.compare(s)) {
+                        return r;
+                    }
+                }
+                return null;
+            }
+            final Matcher matcher = pattern.matcher(s);
+            if (!matcher.matches()) {
+                return null;
+            }
+            for (int i = 0; i < regex.length; i++) {
+                if (matcher.start(GROUP + i) >= 0) {
+                    return regex[i];
+                }
+            }
+            return null;
+        }
+
+        @Nullable
+        private Pattern combined() {
+            Pattern pattern = combined;
+            if (pattern != null || linear) {
+                return pattern;
+            }
+            final StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < regex.length; i++) {
+                final String s = regex[i].getId();
+                // Back references can't be combined, their group numbers would change
+                if (s.contains("\\k<") || s.matches(".*\\\\[1-9].*")) {
+                    linear = true;
+                    return null;
+                }
+                if (i > 0) {
+                    builder.append('|');
+                }
+                builder.append("(?<").append(GROUP).append(i).append(">(?:").append(s).append("))");
+            }
+            try {
+                pattern = Pattern.compile(builder.toString());
+            } catch (PatternSyntaxException e) {
+                linear = true;
+                return null;
+            }
+            combined = pattern;
+            return pattern;
         }
-        return result != null;
     }
 }
@@ -0,0 +1,223 @@
+package com.saicone.mcode.module.script;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+public class ScriptTimer {
+
+    private static final long DEFAULT_TICK = 50L; // 1 tick
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private final long tickDuration;
+    private final Bucket[] wheel;
+    private final int mask;
+    // Timeouts added from any thread, moved into the wheel by the worker on every tick
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private volatile Thread thread;
+    private volatile boolean stopped;
+    private volatile long startTime;
+    private long tick;
+
+    public ScriptTimer() {
+        this(DEFAULT_TICK, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE);
+    }
+
+    public ScriptTimer(long tickDuration, @NotNull TimeUnit unit, int wheelSize) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("The tick duration must be positive");
+        }
+        this.tickDuration = unit.toNanos(tickDuration);
+        // Power of two, so the bucket is found with a mask
+        int length = 1;
+        while (length < wheelSize) {
+            length <<= 1;
+        }
+        this.wheel = new Bucket[length];
+        for (int i = 0; i < length; i++) {
+            this.wheel[i] = new Bucket();
+        }
+        this.mask = length - 1;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    @NotNull
+    public Timeout schedule(@NotNull Runnable runnable, long delay, @NotNull TimeUnit unit) {
+        start();
+        final Timeout timeout = new Timeout(runnable, System.nanoTime() + Math.max(0L, unit.toNanos(delay)) - startTime);
+        size.incrementAndGet();
+        pending.add(timeout);
+        return timeout;
+    }
+
+    private void start() {
+        if (thread != null) {
+            return;
+        }
+        synchronized (this) {
+            if (stopped) {
+                throw new IllegalStateException("The timer is already stopped");
+            }
+            if (thread == null) {
+                startTime = System.nanoTime();
+                final Thread thread = new Thread(this::run, "mcode-script-timer");
+                thread.setDaemon(true);
+                thread.start();
+                this.thread = thread;
+            }
+        }
+    }
+
+    public synchronized void stop() {
+        stopped = true;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        while (!stopped) {
+            final long deadline = tickDuration * (tick + 1);
+            long sleep;
+            while ((sleep = deadline - (System.nanoTime() - startTime)) > 0 && !stopped) {
+                LockSupport.parkNanos(this, sleep);
+            }
+            if (stopped) {
+                break;
+            }
+            transfer();
+            wheel[(int) (tick & mask)].expire(deadline);
+            tick++;
+        }
+    }
+
+    private void transfer() {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.state != Timeout.INIT) {
+                continue;
+            }
+            final long calculated = timeout.deadline / tickDuration;
+            timeout.rounds = (calculated - tick) / wheel.length;
+            // Timeouts that are already late are expired on current tick
+            wheel[(int) (Math.max(calculated, tick) & mask)].add(timeout);
+        }
+    }
+
+    private final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        void add(@NotNull Timeout timeout) {
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire(long deadline) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                final Timeout next = timeout.next;
+                if (timeout.state != Timeout.INIT) {
+                    remove(timeout);
+                } else if (timeout.rounds <= 0 && timeout.deadline <= deadline) {
+                    remove(timeout);
+                    timeout.expire();
+                } else {
+                    timeout.rounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(@NotNull Timeout timeout) {
+            final Timeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+        }
+    }
+
+    public final class Timeout {
+
+        private static final int INIT = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE = AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        // Released on cancel, so the cancelled action is not held until its bucket is reached
+        private Runnable runnable;
+        private final long deadline;
+        private volatile int state = INIT;
+
+        // Only accessed by the worker thread
+        private long rounds;
+        private Timeout prev;
+        private Timeout next;
+
+        Timeout(@NotNull Runnable runnable, long deadline) {
+            this.runnable = runnable;
+            this.deadline = deadline;
+        }
+
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, INIT, CANCELLED)) {
+                return false;
+            }
+            runnable = null;
+            // Removed from its bucket once the worker reaches it
+            size.decrementAndGet();
+            return true;
+        }
+
+        void expire() {
+            if (!STATE.compareAndSet(this, INIT, EXPIRED)) {
+                return;
+            }
+            size.decrementAndGet();
+            try {
+                runnable.run();
+            } catch (Throwable t) {
+                t.printStackTrace();
+            }
+        }
+    }
+}
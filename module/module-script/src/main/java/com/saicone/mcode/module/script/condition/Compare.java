@@ -4,6 +4,7 @@ import com.saicone.mcode.module.script.Condition;
 import com.saicone.mcode.module.script.EvalUser;
 import com.saicone.mcode.module.script.ScriptFunction;
 import com.saicone.mcode.util.text.Strings;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.regex.Pattern;
@@ -21,50 +22,207 @@ public class Compare extends Condition {
         }
         final String[] split = Strings.splitBySpaces(getValue());
         if (split.length < 3) {
-            return (user) -> user.parseBoolean(getValue(), false);
+            return fold((user) -> user.parseBoolean(getValue(), false), new Operand(getValue()));
         }
 
+        final Operand a = new Operand(split[0]);
+        final Operand b = new Operand(split[2]);
         switch (split[1].replace("-" , "").replace(" ", "")) {
             case "==":
             case "=":
             case "is":
             case "equals":
-                return (user) -> user.parse(split[0]).equals(user.parse(split[2]));
+                return fold((user) -> a.get(user).equals(b.get(user)), a, b);
             case "-eq":
             case "numberequals":
-                return user -> user.parseBy(Double::parseDouble, split[0], 0D).equals(user.parseBy(Double::parseDouble, split[2], 0));
+                return fold((user) -> {
+                    final Double left = a.getDouble(user);
+                    final Double right = b.getDouble(user);
+                    // An invalid right number was never equal, its default value was an Integer
+                    return right != null && Double.compare(left == null ? 0D : left, right) == 0;
+                }, a, b);
             case "!=":
             case "isnot":
             case "isnotequals":
-                return (user) -> !user.parse(split[0]).equals(user.parse(split[2]));
+                return fold((user) -> !a.get(user).equals(b.get(user)), a, b);
             case "-=":
             case "equalsignorecase":
-                return (user) -> user.parse(split[0]).equalsIgnoreCase(user.parse(split[2]));
+                return fold((user) -> a.get(user).equalsIgnoreCase(b.get(user)), a, b);
             case ">":
             case "-gt":
             case "upperthan":
             case "morethan":
-                return (user) -> user.parseInt(split[0], 0) > user.parseInt(split[2], 0);
+                return fold((user) -> a.getInt(user) > b.getInt(user), a, b);
             case ">=":
             case "upperthanorequal":
             case "morethanorequal":
-                return (user) -> user.parseInt(split[0], 0) >= user.parseInt(split[2], 0);
+                return fold((user) -> a.getInt(user) >= b.getInt(user), a, b);
             case "<":
             case "-lt":
             case "lowerthan":
             case "lessthan":
-                return (user) -> user.parseInt(split[0], 0) < user.parseInt(split[2], 0);
+                return fold((user) -> a.getInt(user) < b.getInt(user), a, b);
             case "<=":
             case "lowerthanorequal":
             case "lessthanorequal":
-                return (user) -> user.parseInt(split[0], 0) <= user.parseInt(split[2], 0);
+                return fold((user) -> a.getInt(user) <= b.getInt(user), a, b);
             case "$=":
             case "=~":
             case "matches":
                 final Pattern pattern = Pattern.compile(split[0]);
-                return (user) -> pattern.matcher(user.parse(split[2])).matches();
+                return fold((user) -> pattern.matcher(b.get(user)).matches(), b);
             default:
                 return null;
         }
     }
+
+    @NotNull
+    private static ScriptFunction<EvalUser, Boolean> fold(@NotNull ScriptFunction<EvalUser, Boolean> function, @NotNull Operand... operands) {
+        for (Operand operand : operands) {
+            if (!operand.isLiteral()) {
+                return function;
+            }
+        }
+        // Literal operands never read the user
+        return function.apply(new EvalUser()) ? Condition.TRUE : Condition.FALSE;
+    }
+
+    // Exception free version of Integer#parseInt
+    private static int parseInt(@NotNull String s, int def) {
+        final int length = s.length();
+        if (length == 0) {
+            return def;
+        }
+        int i = 0;
+        boolean negative = false;
+        int limit = -Integer.MAX_VALUE;
+        final char first = s.charAt(0);
+        if (first < '0') {
+            if (first == '-') {
+                negative = true;
+                limit = Integer.MIN_VALUE;
+            } else if (first != '+') {
+                return def;
+            }
+            if (length == 1) {
+                return def;
+            }
+            i++;
+        }
+        final int multmin = limit / 10;
+        int result = 0;
+        while (i < length) {
+            final int digit = Character.digit(s.charAt(i++), 10);
+            if (digit < 0 || result < multmin) {
+                return def;
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                return def;
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    // Same as Double#parseDouble, but invalid decimal numbers are checked before parsing
+    @Nullable
+    private static Double parseDouble(@NotNull String s) {
+        final String str = s.trim();
+        final int length = str.length();
+        int i = 0;
+        if (i < length && (str.charAt(i) == '-' || str.charAt(i) == '+')) {
+            i++;
+        }
+        if ((str.startsWith("NaN", i) && length == i + 3) || (str.startsWith("Infinity", i) && length == i + 8)) {
+            return Double.parseDouble(str);
+        }
+        if (str.startsWith("0x", i) || str.startsWith("0X", i)) {
+            // Hexadecimal numbers are rare enough
+            try {
+                return Double.parseDouble(str);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        int digits = 0;
+        while (i < length && isDigit(str.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < length && str.charAt(i) == '.') {
+            i++;
+            while (i < length && isDigit(str.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return null;
+        }
+        if (i < length && (str.charAt(i) == 'e' || str.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (str.charAt(i) == '-' || str.charAt(i) == '+')) {
+                i++;
+            }
+            final int start = i;
+            while (i < length && isDigit(str.charAt(i))) {
+                i++;
+            }
+            if (i == start) {
+                return null;
+            }
+        }
+        if (i < length) {
+            switch (str.charAt(i)) {
+                case 'f':
+                case 'F':
+                case 'd':
+                case 'D':
+                    i++;
+                    break;
+                default:
+                    return null;
+            }
+        }
+        return i == length ? Double.parseDouble(str) : null;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static final class Operand {
+
+        private final String value;
+        // Values without placeholder or argument delimiters are never modified by EvalUser#parse
+        private final boolean literal;
+        private final int intValue;
+        private final Double doubleValue;
+
+        Operand(@NotNull String value) {
+            this.value = value;
+            this.literal = value.indexOf('%') < 0 && value.indexOf('{') < 0 && value.indexOf('}') < 0;
+            this.intValue = literal ? parseInt(value, 0) : 0;
+            this.doubleValue = literal ? parseDouble(value) : null;
+        }
+
+        boolean isLiteral() {
+            return literal;
+        }
+
+        @NotNull
+        String get(@NotNull EvalUser user) {
+            return literal ? value : user.parse(value);
+        }
+
+        int getInt(@NotNull EvalUser user) {
+            return literal ? intValue : parseInt(user.parse(value), 0);
+        }
+
+        @Nullable
+        Double getDouble(@NotNull EvalUser user) {
+            return literal ? doubleValue : parseDouble(user.parse(value));
+        }
+    }
 }
@@ -0,0 +1,169 @@
+package com.saicone.mcode.module.script;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EvalUserPoolTest {
+
+    @Test
+    public void testRelease() {
+        final EvalUser user = EvalUser.acquire().reset("subject", "agent", new Object[] {"arg"}).uniqueId(UUID.randomUUID());
+        assertTrue(user.isPooled());
+        user.release();
+        // Released users are reset and reused by the same thread
+        final EvalUser reused = EvalUser.acquire();
+        assertSame(user, reused);
+        assertNull(reused.getSubject());
+        assertNull(reused.getAgent());
+        assertNull(reused.getIndexedArgs());
+        assertNull(reused.getMappedArgs());
+        reused.release();
+    }
+
+    @Test
+    public void testReleaseTwice() {
+        final EvalUser user = EvalUser.acquire();
+        user.release();
+        user.release();
+        // Only pooled once, so it's never given to two callers
+        final EvalUser first = EvalUser.acquire();
+        final EvalUser second = EvalUser.acquire();
+        assertSame(user, first);
+        assertNotSame(first, second);
+        second.release();
+        first.release();
+    }
+
+    @Test
+    public void testNested() {
+        final EvalUser outer = EvalUser.acquire().subject("outer");
+        final EvalUser inner = EvalUser.acquire().subject("inner");
+        assertNotSame(outer, inner);
+        inner.release();
+        assertEquals("outer", outer.getSubject());
+        outer.release();
+        assertSame(outer, EvalUser.acquire());
+        assertSame(inner, EvalUser.acquire());
+        inner.release();
+        outer.release();
+    }
+
+    @Test
+    public void testNotPooled() {
+        final EvalUser user = new EvalUser().subject("subject");
+        assertFalse(user.isPooled());
+        assertSame(user, user.detach());
+        user.release();
+        assertEquals("subject", user.getSubject());
+        final EvalUser acquired = EvalUser.acquire();
+        assertNotSame(user, acquired);
+        acquired.release();
+    }
+
+    @Test
+    public void testMaxPooled() {
+        final List<EvalUser> users = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            users.add(EvalUser.acquire());
+        }
+        final Set<EvalUser> released = Collections.newSetFromMap(new IdentityHashMap<>());
+        released.addAll(users);
+        assertEquals(40, released.size());
+        users.forEach(EvalUser::release);
+
+        int reused = 0;
+        final List<EvalUser> acquired = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            final EvalUser user = EvalUser.acquire();
+            acquired.add(user);
+            if (released.contains(user)) {
+                reused++;
+            }
+        }
+        assertEquals(16, reused);
+        acquired.forEach(EvalUser::release);
+    }
+
+    @Test
+    public void testPoolByThread() throws InterruptedException {
+        final EvalUser user = EvalUser.acquire();
+        final AtomicReference<EvalUser> other = new AtomicReference<>();
+        final Thread thread = new Thread(() -> {
+            user.release();
+            other.set(EvalUser.acquire());
+        });
+        thread.start();
+        thread.join();
+        // Released on the other thread, so it's only reused there
+        assertSame(user, other.get());
+        final EvalUser acquired = EvalUser.acquire();
+        assertNotSame(user, acquired);
+        acquired.release();
+    }
+
+    @Test
+    public void testDetach() {
+        final Object[] args = {"arg"};
+        final UUID uniqueId = UUID.randomUUID();
+        final EvalUser user = EvalUser.acquire().reset("subject", "agent", args).uniqueId(uniqueId);
+        final EvalUser detached = user.detach();
+        assertNotSame(user, detached);
+        assertFalse(detached.isPooled());
+        user.release();
+
+        // The copy keeps its values once the pooled user is reset
+        assertEquals("subject", detached.getSubject());
+        assertEquals("agent", detached.getAgent());
+        assertSame(args, detached.getIndexedArgs());
+        assertEquals(uniqueId, detached.getUniqueId());
+        assertNull(user.getSubject());
+    }
+
+    @Test
+    public void testDelayedScript() {
+        final QueuedCompiler compiler = new QueuedCompiler();
+        final List<String> trace = new ArrayList<>();
+        compiler.putActionFunction("record", user -> {
+            trace.add(user.getSubject() + " " + user.getIndexedArgs()[0]);
+            return ActionResult.DONE;
+        });
+        final Script script = new Script(compiler);
+        script.loadAction(List.of("record", "done=5 MILLISECONDS", "record"));
+
+        final ActionResult result = script.run("subject", null, "arg");
+        assertEquals(ActionResult.DONE, result);
+        assertTrue(result.hasDelay());
+        assertEquals(List.of("subject arg"), trace);
+
+        // Another run reuses the pooled user before the delayed actions continue
+        final EvalUser reused = EvalUser.acquire();
+        assertNull(reused.getSubject());
+        reused.reset("other", null, new Object[] {"other"});
+        compiler.scheduled.poll().run();
+        assertEquals(List.of("subject arg", "subject arg"), trace);
+        reused.release();
+    }
+
+    private static final class QueuedCompiler extends ScriptCompiler {
+
+        private final Queue<Runnable> scheduled = new ArrayDeque<>();
+
+        @Override
+        protected void run(long delay, @NotNull TimeUnit unit, @NotNull Runnable runnable) {
+            scheduled.add(runnable);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.saicone.mcode.module.script;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScriptCompilerDelayTest {
+
+    private final ScriptCompiler compiler = new ScriptCompiler();
+    private final AtomicInteger count = new AtomicInteger();
+    private final CountDownLatch latch = new CountDownLatch(1);
+
+    public ScriptCompilerDelayTest() {
+        compiler.putActionFunction("count", user -> {
+            count.incrementAndGet();
+            return ActionResult.DONE;
+        });
+        compiler.putActionFunction("finish", user -> {
+            latch.countDown();
+            return ActionResult.DONE;
+        });
+    }
+
+    private ScriptFunction<EvalUser, ActionResult> compile(long delay) {
+        return compiler.compileAction(List.of("count", "done=" + delay + " MILLISECONDS", "count", "finish"));
+    }
+
+    @Test
+    public void testDelayWithoutUniqueId() throws InterruptedException {
+        // No platform instance, so the user has no id and the delay is not tracked
+        final EvalUser user = new EvalUser();
+        assertNull(user.getUniqueId());
+        compile(20L).apply(user);
+        assertEquals(1, count.get());
+        assertTrue(latch.await(5L, TimeUnit.SECONDS));
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    public void testDelayWithUniqueId() throws InterruptedException {
+        final UUID id = UUID.randomUUID();
+        compile(20L).apply(new EvalUser().uniqueId(id));
+        assertEquals(1, compiler.getDelayedCount(id));
+        assertTrue(latch.await(5L, TimeUnit.SECONDS));
+        assertEquals(2, count.get());
+        assertEquals(0, compiler.getDelayedCount(id));
+    }
+
+    @Test
+    public void testCancelDelayed() throws InterruptedException {
+        final UUID id = UUID.randomUUID();
+        final UUID other = UUID.randomUUID();
+        final int timerSize = ScriptCompiler.timer().size();
+        compile(50L).apply(new EvalUser().uniqueId(id));
+        compile(50L).apply(new EvalUser().uniqueId(id));
+        compile(50L).apply(new EvalUser().uniqueId(other));
+        assertEquals(2, compiler.getDelayedCount(id));
+
+        assertEquals(2, compiler.cancelDelayed(id));
+        assertEquals(0, compiler.cancelDelayed(id));
+        assertEquals(0, compiler.getDelayedCount(id));
+        // Cancelled actions are removed from the timer right away
+        assertEquals(timerSize + 1, ScriptCompiler.timer().size());
+
+        assertTrue(latch.await(5L, TimeUnit.SECONDS));
+        Thread.sleep(100L);
+        assertEquals(4, count.get());
+        assertEquals(0, compiler.getDelayedCount(other));
+    }
+
+    @Test
+    public void testPooledUser() throws InterruptedException {
+        final UUID id = UUID.randomUUID();
+        final EvalUser user = EvalUser.acquire().uniqueId(id);
+        compile(20L).apply(user);
+        // The delayed actions use a copy, so the released user can be reused
+        user.release();
+        assertTrue(latch.await(5L, TimeUnit.SECONDS));
+        assertEquals(2, count.get());
+        assertEquals(0, compiler.getDelayedCount(id));
+    }
+}
@@ -0,0 +1,143 @@
+package com.saicone.mcode.module.script;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScriptRegistryTest {
+
+    private final ScriptRegistry registry = new ScriptRegistry();
+
+    private static ScriptFunction<EvalUser, ActionResult> action() {
+        return user -> ActionResult.DONE;
+    }
+
+    @Test
+    public void testExactBeforeRegex() {
+        final ScriptFunction<EvalUser, ActionResult> regex = action();
+        final ScriptFunction<EvalUser, ActionResult> exact = action();
+        // The regex is registered first, but plain ids are always checked before
+        registry.putActionFunction(EvalKey.regex("give.*"), regex);
+        registry.putActionFunction("giveall", exact);
+
+        assertSame(exact, registry.getCompiledAction("giveall"));
+        assertSame(exact, registry.getCompiledAction("GiveAll"));
+        assertSame(regex, registry.getCompiledAction("giveone"));
+        // Regex keys are case-sensitive
+        assertNull(registry.getCompiledAction("GiveOne"));
+    }
+
+    @Test
+    public void testRegexRegistrationOrder() {
+        final ScriptFunction<EvalUser, ActionResult> first = action();
+        final ScriptFunction<EvalUser, ActionResult> second = action();
+        final ScriptFunction<EvalUser, ActionResult> third = action();
+        registry.putActionFunction(EvalKey.regex("msg(:.*)?"), first);
+        registry.putActionFunction(EvalKey.regex("msg.*"), second);
+        registry.putActionFunction(EvalKey.regex("[a-z]+"), third);
+
+        assertSame(first, registry.getCompiledAction("msg"));
+        assertSame(first, registry.getCompiledAction("msg:hello"));
+        assertSame(second, registry.getCompiledAction("msgall"));
+        assertSame(third, registry.getCompiledAction("other"));
+        assertNull(registry.getCompiledAction("other1"));
+    }
+
+    @Test
+    public void testFirstExactWins() {
+        final ScriptFunction<EvalUser, ActionResult> first = action();
+        final ScriptFunction<EvalUser, ActionResult> second = action();
+        registry.putActionFunction("Send", first);
+        registry.putActionFunction("send", second);
+
+        assertSame(first, registry.getCompiledAction("SEND"));
+        // Exact EvalKey instances are not resolved by id
+        assertSame(second, registry.getCompiledAction(EvalKey.of("send")));
+    }
+
+    @Test
+    public void testBackReference() {
+        final ScriptFunction<EvalUser, ActionResult> pair = action();
+        final ScriptFunction<EvalUser, ActionResult> other = action();
+        // Can't be combined into a single pattern, keys are compared one by one
+        registry.putActionFunction(EvalKey.regex("(\\w)\\1.*"), pair);
+        registry.putActionFunction(EvalKey.regex("\\w+"), other);
+
+        assertSame(pair, registry.getCompiledAction("aab"));
+        assertSame(other, registry.getCompiledAction("abb"));
+    }
+
+    @Test
+    public void testUpdatedState() {
+        assertNull(registry.getCompiledAction("delay:5"));
+        final ScriptFunction<EvalUser, ActionResult> delay = action();
+        registry.putActionFunction(EvalKey.regex("delay:\\d+"), delay);
+        // The previous missing lookup is not kept
+        assertSame(delay, registry.getCompiledAction("delay:5"));
+        assertTrue(registry.containsAnyAction("delay:10"));
+
+        // Removing by id removes the key it resolves to
+        assertTrue(registry.removeAction("delay:5"));
+        assertNull(registry.getCompiledAction("delay:10"));
+        assertFalse(registry.removeAction("delay:5"));
+    }
+
+    @Test
+    public void testLinearScan() {
+        final Random random = new Random(23L);
+        final List<EvalKey> keys = new ArrayList<>();
+        final List<ScriptFunction<EvalUser, ActionResult>> values = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            final EvalKey key;
+            switch (random.nextInt(3)) {
+                case 0:
+                    key = EvalKey.of(id(random));
+                    break;
+                case 1:
+                    key = EvalKey.regex(id(random) + ".*");
+                    break;
+                default:
+                    key = EvalKey.regex("[" + id(random) + "]+");
+                    break;
+            }
+            final ScriptFunction<EvalUser, ActionResult> value = action();
+            if (registry.putActionFunction(key, value) == null) {
+                keys.add(key);
+                values.add(value);
+            } else {
+                values.set(keys.indexOf(key), value);
+            }
+        }
+
+        for (int i = 0; i < 5000; i++) {
+            final String id = id(random) + (random.nextBoolean() ? id(random) : "");
+            // Same order of the index: plain ids first, then regex keys by registration
+            ScriptFunction<EvalUser, ActionResult> expected = null;
+            for (int j = 0; j < keys.size() && expected == null; j++) {
+                if (!(keys.get(j) instanceof EvalKey.Regex) && keys.get(j).compare(id)) {
+                    expected = values.get(j);
+                }
+            }
+            for (int j = 0; j < keys.size() && expected == null; j++) {
+                if (keys.get(j) instanceof EvalKey.Regex && keys.get(j).compare(id)) {
+                    expected = values.get(j);
+                }
+            }
+            assertSame(expected, registry.getCompiledAction(id), id);
+        }
+    }
+
+    private static String id(Random random) {
+        final StringBuilder builder = new StringBuilder();
+        final int length = 1 + random.nextInt(3);
+        for (int i = 0; i < length; i++) {
+            final char c = (char) ('a' + random.nextInt(4));
+            builder.append(random.nextInt(4) == 0 ? Character.toUpperCase(c) : c);
+        }
+        return builder.toString();
+    }
+}
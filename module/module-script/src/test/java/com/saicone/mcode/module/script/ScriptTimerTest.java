@@ -0,0 +1,108 @@
+package com.saicone.mcode.module.script;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScriptTimerTest {
+
+    private final ScriptTimer timer = new ScriptTimer(1L, TimeUnit.MILLISECONDS, 64);
+
+    @AfterEach
+    public void stop() {
+        timer.stop();
+    }
+
+    @Test
+    public void testSchedule() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long start = System.nanoTime();
+        final ScriptTimer.Timeout timeout = timer.schedule(latch::countDown, 20L, TimeUnit.MILLISECONDS);
+        assertEquals(1, timer.size());
+        assertTrue(latch.await(5L, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20L));
+        assertTrue(timeout.isExpired());
+        assertFalse(timeout.cancel());
+        assertEquals(0, timer.size());
+    }
+
+    @Test
+    public void testScheduleRounds() throws InterruptedException {
+        // Longer than a full turn of the wheel
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long start = System.nanoTime();
+        timer.schedule(latch::countDown, 150L, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(5L, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(150L));
+    }
+
+    @Test
+    public void testCancel() throws InterruptedException {
+        final AtomicBoolean run = new AtomicBoolean();
+        final ScriptTimer.Timeout timeout = timer.schedule(() -> run.set(true), 20L, TimeUnit.MILLISECONDS);
+        assertTrue(timeout.cancel());
+        assertTrue(timeout.isCancelled());
+        assertFalse(timeout.cancel());
+        assertEquals(0, timer.size());
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        timer.schedule(latch::countDown, 40L, TimeUnit.MILLISECONDS);
+        assertTrue(latch.await(5L, TimeUnit.SECONDS));
+        assertFalse(run.get());
+        assertFalse(timeout.isExpired());
+    }
+
+    @Test
+    public void testStop() {
+        timer.stop();
+        assertTrue(timer.isStopped());
+        assertThrows(IllegalStateException.class, () -> timer.schedule(() -> { }, 1L, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testStress() throws InterruptedException {
+        final int count = 100_000;
+        final Random random = new Random(1L);
+        final AtomicInteger expired = new AtomicInteger();
+        final AtomicInteger cancelledRun = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(count / 2);
+        final List<ScriptTimer.Timeout> cancelled = new ArrayList<>(count / 2);
+        for (int i = 0; i < count; i++) {
+            final long delay = random.nextInt(200);
+            if (i % 2 == 0) {
+                timer.schedule(() -> {
+                    expired.incrementAndGet();
+                    latch.countDown();
+                }, delay, TimeUnit.MILLISECONDS);
+            } else {
+                cancelled.add(timer.schedule(cancelledRun::incrementAndGet, delay, TimeUnit.MILLISECONDS));
+            }
+        }
+        for (ScriptTimer.Timeout timeout : cancelled) {
+            timeout.cancel();
+        }
+        assertTrue(latch.await(30L, TimeUnit.SECONDS));
+        assertEquals(count / 2, expired.get());
+        assertEquals(0, timer.size());
+
+        // Cancelled timeouts may only run when cancel() lost the race against their deadline
+        int lost = 0;
+        for (ScriptTimer.Timeout timeout : cancelled) {
+            if (timeout.isExpired()) {
+                lost++;
+            } else {
+                assertTrue(timeout.isCancelled());
+            }
+        }
+        assertEquals(lost, cancelledRun.get());
+    }
+}
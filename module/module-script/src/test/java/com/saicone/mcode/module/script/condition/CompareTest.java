@@ -0,0 +1,167 @@
+package com.saicone.mcode.module.script.condition;
+
+import com.saicone.mcode.Platform;
+import com.saicone.mcode.module.script.Condition;
+import com.saicone.mcode.module.script.EvalUser;
+import com.saicone.mcode.module.script.ScriptFunction;
+import com.saicone.mcode.platform.MC;
+import com.saicone.mcode.platform.PlatformType;
+import com.saicone.mcode.platform.Text;
+import com.saicone.mcode.util.text.Strings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompareTest {
+
+    private static final String[] VALUES = {
+            "12", "-3", "00012", "-0", "0", "0.0", ".5", "1.", "1e3", "1e", "1.5f", "1d", "0x10", "0x1p3",
+            "NaN", "-Infinity", "Infinity5", "NaNx", "+", "2147483648", "-2147483648", "\u0663",
+            "abc", "true", "yes", "{0}", "{1}", "x{0}", "%player%"
+    };
+    private static final String[] OPERATORS = {
+            "==", "=", "is", "equals", "-eq", "numberequals", "!=", "isnot", "-=", "equalsignorecase",
+            ">", "-gt", ">=", "<", "-lt", "<=", "upperthan", "lessthanorequal", "matches", "=~", "unknown"
+    };
+    private static final Object[] ARGS = {"5", "1e3"};
+
+    @BeforeAll
+    public static void setup() {
+        // Dynamic operands are parsed as texts
+        new TestPlatform();
+    }
+
+    @AfterAll
+    public static void cleanup() {
+        TestPlatform.clear();
+    }
+
+    @Test
+    public void testPreviousEvaluator() {
+        int count = 0;
+        for (String a : VALUES) {
+            assertEquals(evaluate(() -> previous(a)), evaluate(() -> new Compare(a).build()), a);
+            for (String operator : OPERATORS) {
+                for (String b : VALUES) {
+                    final String expression = a + " " + operator + " " + b;
+                    assertEquals(evaluate(() -> previous(expression)), evaluate(() -> new Compare(expression).build()), expression);
+                    count++;
+                }
+            }
+        }
+        assertEquals(VALUES.length * OPERATORS.length * VALUES.length, count);
+    }
+
+    @Test
+    public void testFolding() {
+        assertSame(Condition.TRUE, new Compare("12 == 12").build());
+        assertSame(Condition.FALSE, new Compare("12 > 16").build());
+        assertSame(Condition.TRUE, new Compare("1e3 numberequals 1000").build());
+        assertSame(Condition.TRUE, new Compare("[a-z]+ matches abc").build());
+        assertSame(Condition.TRUE, new Compare("yes").build());
+
+        // Placeholders and arguments are parsed on every evaluation
+        final ScriptFunction<EvalUser, Boolean> function = new Compare("{0} > 3").build();
+        assertNotSame(Condition.TRUE, function);
+        assertNotSame(Condition.FALSE, function);
+        assertTrue(function.apply(new EvalUser().args(new Object[] {"5"})));
+        assertFalse(function.apply(new EvalUser().args(new Object[] {"2"})));
+        assertFalse(function.apply(new EvalUser().args(new Object[] {"x5"})));
+    }
+
+    @NotNull
+    private static String evaluate(@NotNull Supplier<ScriptFunction<EvalUser, Boolean>> builder) {
+        try {
+            // Invalid patterns fail on build
+            final ScriptFunction<EvalUser, Boolean> function = builder.get();
+            if (function == null) {
+                return "null";
+            }
+            return String.valueOf(function.apply(new EvalUser().args(ARGS)));
+        } catch (RuntimeException e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+
+    // Compare#build before literal folding
+    @Nullable
+    private static ScriptFunction<EvalUser, Boolean> previous(@NotNull String value) {
+        final String[] split = Strings.splitBySpaces(value);
+        if (split.length < 3) {
+            return (user) -> user.parseBoolean(value, false);
+        }
+
+        switch (split[1].replace("-" , "").replace(" ", "")) {
+            case "==":
+            case "=":
+            case "is":
+            case "equals":
+                return (user) -> user.parse(split[0]).equals(user.parse(split[2]));
+            case "-eq":
+            case "numberequals":
+                return user -> user.parseBy(Double::parseDouble, split[0], 0D).equals(user.parseBy(Double::parseDouble, split[2], 0));
+            case "!=":
+            case "isnot":
+            case "isnotequals":
+                return (user) -> !user.parse(split[0]).equals(user.parse(split[2]));
+            case "-=":
+            case "equalsignorecase":
+                return (user) -> user.parse(split[0]).equalsIgnoreCase(user.parse(split[2]));
+            case ">":
+            case "-gt":
+            case "upperthan":
+            case "morethan":
+                return (user) -> user.parseInt(split[0], 0) > user.parseInt(split[2], 0);
+            case ">=":
+            case "upperthanorequal":
+            case "morethanorequal":
+                return (user) -> user.parseInt(split[0], 0) >= user.parseInt(split[2], 0);
+            case "<":
+            case "-lt":
+            case "lowerthan":
+            case "lessthan":
+                return (user) -> user.parseInt(split[0], 0) < user.parseInt(split[2], 0);
+            case "<=":
+            case "lowerthanorequal":
+            case "lessthanorequal":
+                return (user) -> user.parseInt(split[0], 0) <= user.parseInt(split[2], 0);
+            case "$=":
+            case "=~":
+            case "matches":
+                final Pattern pattern = Pattern.compile(split[0]);
+                return (user) -> pattern.matcher(user.parse(split[2])).matches();
+            default:
+                return null;
+        }
+    }
+
+    private static final class TestPlatform extends Platform {
+
+        TestPlatform() {
+            super(PlatformType.BUKKIT);
+        }
+
+        static void clear() {
+            INSTANCE = null;
+        }
+
+        @Override
+        public @NotNull Text getText(byte type, @Nullable MC version, @NotNull Object object) {
+            return type == Text.COLORED ? new Text.Colored(version, String.valueOf(object)) : new Text.PlainText(version, String.valueOf(object));
+        }
+
+        @Override
+        public @NotNull Collection<?> getOnlinePlayers() {
+            return List.of();
+        }
+    }
+}
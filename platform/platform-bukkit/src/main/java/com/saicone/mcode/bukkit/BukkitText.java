@@ -1,11 +1,10 @@
 package com.saicone.mcode.bukkit;
 
 import com.google.common.base.Suppliers;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import com.google.gson.JsonElement;
 import com.saicone.mcode.platform.MC;
 import com.saicone.mcode.platform.Text;
+import com.saicone.mcode.util.text.PlaceholderResolver;
 import com.saicone.mcode.util.text.Replacer;
 import com.saicone.mcode.util.text.TextComponent;
 import com.saicone.nbt.io.TagReader;
@@ -21,7 +20,6 @@ import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
@@ -29,44 +27,35 @@ import java.util.function.UnaryOperator;
 public class BukkitText {
 
     private static final Supplier<Boolean> USE_PLACEHOLDERAPI = Suppliers.memoize(() -> Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null);
-    private static final Cache<String, Object> CACHED_PLACEHOLDERS = CacheBuilder.newBuilder().expireAfterWrite(2, TimeUnit.MINUTES).build();
-    public static final Function<String, Replacer> PLACEHOLDER_LOOKUP = identifier -> {
+    public static final PlaceholderResolver PLACEHOLDER_RESOLVER = new PlaceholderResolver(identifier -> {
         if (!USE_PLACEHOLDERAPI.get()) {
             return null;
         }
-        Object cached = CACHED_PLACEHOLDERS.getIfPresent(identifier);
-        if (cached == null) {
-            final PlaceholderExpansion expansion = PlaceholderAPIPlugin.getInstance().getLocalExpansionManager().getExpansion(identifier);
-            if (expansion == null) {
-                cached = false;
-            } else {
-                cached = new Replacer() {
-                    @Override
-                    public @Nullable Object replace(@Nullable Object subject, @NotNull String params) {
-                        if (subject instanceof OfflinePlayer) {
-                            return expansion.onRequest((OfflinePlayer) subject, params);
-                        } else {
-                            return expansion.onRequest(null, params);
-                        }
-                    }
-
-                    @Override
-                    public @Nullable Object replace(@Nullable Object subject, @NotNull Object relative, @NotNull String params) {
-                        if (expansion instanceof Relational) {
-                            return ((Relational) expansion).onPlaceholderRequest((Player) subject, (Player) relative, params);
-                        } else {
-                            return Replacer.super.replace(subject, relative, params);
-                        }
-                    }
-                };
-            }
-        }
-        if (cached instanceof Boolean) {
+        final PlaceholderExpansion expansion = PlaceholderAPIPlugin.getInstance().getLocalExpansionManager().getExpansion(identifier);
+        if (expansion == null) {
             return null;
-        } else {
-            return (Replacer) cached;
         }
-    };
+        return new Replacer() {
+            @Override
+            public @Nullable Object replace(@Nullable Object subject, @NotNull String params) {
+                if (subject instanceof OfflinePlayer) {
+                    return expansion.onRequest((OfflinePlayer) subject, params);
+                } else {
+                    return expansion.onRequest(null, params);
+                }
+            }
+
+            @Override
+            public @Nullable Object replace(@Nullable Object subject, @NotNull Object relative, @NotNull String params) {
+                if (expansion instanceof Relational) {
+                    return ((Relational) expansion).onPlaceholderRequest((Player) subject, (Player) relative, params);
+                } else {
+                    return Replacer.super.replace(subject, relative, params);
+                }
+            }
+        };
+    }, PlaceholderResolver::currentTick, subject -> subject instanceof OfflinePlayer ? ((OfflinePlayer) subject).getUniqueId() : subject);
+    public static final Function<String, Replacer> PLACEHOLDER_LOOKUP = PLACEHOLDER_RESOLVER::lookup;
 
     @NotNull
     public static Text valueOf(byte type, @Nullable MC version, @NotNull Object value) {
@@ -4,8 +4,10 @@ import com.cryptomorin.xseries.XSound;
 import com.cryptomorin.xseries.messages.ActionBar;
 import com.cryptomorin.xseries.messages.Titles;
 import com.google.gson.Gson;
+import com.saicone.mcode.bukkit.BukkitText;
 import com.saicone.mcode.bukkit.util.ServerInstance;
 import com.saicone.mcode.module.lang.AbstractLang;
+import com.saicone.mcode.module.lang.LangSnapshot;
 import com.saicone.mcode.module.lang.display.*;
 import com.saicone.mcode.platform.Text;
 import com.saicone.mcode.util.DMap;
@@ -31,6 +33,12 @@ import org.bukkit.command.CommandSender;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerLocaleChangeEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.Contract;
@@ -39,6 +47,8 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.logging.Level;
 
 public class BukkitLang extends AbstractLang<CommandSender> {
@@ -64,7 +74,7 @@ public class BukkitLang extends AbstractLang<CommandSender> {
 
     // Loadable display types
     private final ActionBarLoader actionbar = new ActionBarLoader();
-    private final BossbarLoader bossbar = new BossbarLoader();
+    private final BossbarLoader bossbar = new BossbarLoader(getBossBarPool());
     private final SoundLoader sound = new SoundLoader();
     private final TextLoader text = new TextLoader();
     private final TitleLoader title = new TitleLoader();
@@ -72,6 +82,7 @@ public class BukkitLang extends AbstractLang<CommandSender> {
     private transient Locale cachedLocale;
     private transient Set<Locale> cachedTypes;
     private transient Map<Locale, Locale> cachedAliases;
+    private transient List<Listener> listeners;
 
     public BukkitLang(@NotNull Plugin plugin, @NotNull Object... providers) {
         super(providers);
@@ -105,6 +116,61 @@ public class BukkitLang extends AbstractLang<CommandSender> {
         return super.getDefaultLocale();
     }
 
+    @Override
+    public void load(@NotNull File langFolder) {
+        registerListeners();
+        super.load(langFolder);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<LangSnapshot<CommandSender>> loadAsync(@NotNull File langFolder, @NotNull Executor executor) {
+        registerListeners();
+        return super.loadAsync(langFolder, executor);
+    }
+
+    @Override
+    public void unload() {
+        if (listeners != null) {
+            for (Listener listener : listeners) {
+                HandlerList.unregisterAll(listener);
+            }
+            listeners = null;
+        }
+        super.unload();
+    }
+
+    private void registerListeners() {
+        if (listeners != null) {
+            return;
+        }
+        listeners = new ArrayList<>();
+        listeners.add(new QuitListener());
+        if (MC.version().isNewerThanOrEquals(MC.V_1_12)) {
+            listeners.add(new LocaleListener());
+        }
+        for (Listener listener : listeners) {
+            Bukkit.getPluginManager().registerEvents(listener, plugin);
+        }
+    }
+
+    @Override
+    protected void runSync(@NotNull Runnable runnable) {
+        // Bukkit boss bars are not thread-safe
+        if (Bukkit.isPrimaryThread()) {
+            runnable.run();
+        } else if (plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, runnable);
+        }
+    }
+
+    @Override
+    protected @Nullable UUID getSenderId(@NotNull Object sender) {
+        if (sender instanceof Player && ((Player) sender).isOnline()) {
+            return ((Player) sender).getUniqueId();
+        }
+        return null;
+    }
+
     @Override
     public @NotNull Locale getHolderLocale(@Nullable Object holder) {
         if (holder instanceof CommandSender) {
@@ -269,6 +335,29 @@ public class BukkitLang extends AbstractLang<CommandSender> {
         return objects;
     }
 
+    // Split from locale listener, PlayerLocaleChangeEvent doesn't exist before 1.12
+    private class QuitListener implements Listener {
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onQuit(PlayerQuitEvent event) {
+            final UUID id = event.getPlayer().getUniqueId();
+            invalidateSenderLocale(id);
+            if (isCacheSenderLocales() && plugin.isEnabled()) {
+                // Player is still online while the event is called, so any later message may cache it again
+                Bukkit.getScheduler().runTask(plugin, () -> invalidateSenderLocale(id));
+            }
+            getBossBarPool().hideTo(event.getPlayer());
+            BukkitText.PLACEHOLDER_RESOLVER.invalidate(event.getPlayer());
+        }
+    }
+
+    private class LocaleListener implements Listener {
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onLocaleChange(PlayerLocaleChangeEvent event) {
+            // Player#getLocale() may still return the previous locale at this point
+            setSenderLocale(event.getPlayer().getUniqueId(), MLocale.fromMinecraftLocale(event.getLocale(), getDefaultLocale()));
+        }
+    }
+
     public static class TextLoader extends TextDisplay.Loader<CommandSender> {
         @Override
         @SuppressWarnings("unchecked")
@@ -427,12 +516,20 @@ public class BukkitLang extends AbstractLang<CommandSender> {
     }
 
     public static class BossbarLoader extends BossBarDisplay.Loader<CommandSender> {
+
+        public BossbarLoader() {
+        }
+
+        public BossbarLoader(@NotNull BossBarPool pool) {
+            super(pool);
+        }
+
         @Override
         protected BossBarDisplay.Holder newHolder(float progress, @NotNull Text text, @NotNull BossBarDisplay.Color color, @NotNull BossBarDisplay.Division division, @NotNull Set<BossBarDisplay.Flag> flags) {
             final BarFlag[] values = new BarFlag[flags.size()];
             int i = 0;
             for (BossBarDisplay.Flag flag : flags) {
-                values[i] = BarFlag.values()[flag.ordinal()];
+                values[i++] = BarFlag.values()[flag.ordinal()];
             }
             final BossBar bossBar = Bukkit.createBossBar(
                     text.getAsColored().getValue(),
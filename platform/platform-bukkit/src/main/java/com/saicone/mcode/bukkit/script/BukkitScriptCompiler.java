@@ -6,9 +6,16 @@ import com.saicone.mcode.module.script.action.ListAction;
 import com.saicone.mcode.util.function.ThrowableFunction;
 import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiPredicate;
 import java.util.function.Predicate;
@@ -16,6 +23,7 @@ import java.util.function.Predicate;
 public class BukkitScriptCompiler extends ScriptCompiler {
 
     private final Plugin plugin;
+    private Listener listener;
 
     BukkitScriptCompiler() {
         this.plugin = null;
@@ -31,6 +39,8 @@ public class BukkitScriptCompiler extends ScriptCompiler {
             registerActions();
             registerConditions();
         }
+        this.listener = new QuitListener();
+        Bukkit.getPluginManager().registerEvents(this.listener, plugin);
     }
 
     @NotNull
@@ -38,6 +48,14 @@ public class BukkitScriptCompiler extends ScriptCompiler {
         return plugin;
     }
 
+    public void unload() {
+        if (listener != null) {
+            HandlerList.unregisterAll(listener);
+            listener = null;
+        }
+        cancelDelayed();
+    }
+
     protected void registerActions() {
         ListAction.builder("(?i)console(command|cmd)?", String::valueOf).consumer((user, action) -> {
             for (String cmd : action.getList()) {
@@ -79,8 +97,22 @@ public class BukkitScriptCompiler extends ScriptCompiler {
 
     @Override
     protected void run(long delay, @NotNull TimeUnit unit, @NotNull Runnable runnable) {
-        if (Bukkit.isPrimaryThread()) {
-            Bukkit.getScheduler().runTaskLater(plugin, runnable, unit.toMillis(delay) * 20000 / 1000);
+        if (plugin == null) {
+            super.run(delay, unit, runnable);
+            return;
+        }
+        // Bukkit scheduler can be used from any thread, the task will run on main thread
+        final BukkitTask task = Bukkit.getScheduler().runTaskLater(plugin, runnable, unit.toMillis(delay) / 50L);
+        bindCancel(runnable, task::cancel);
+    }
+
+    private class QuitListener implements Listener {
+        @EventHandler(priority = EventPriority.MONITOR)
+        public void onQuit(PlayerQuitEvent event) {
+            final UUID id = event.getPlayer().getUniqueId();
+            cancelDelayed(id);
+            // Scripts loaded without compiler use the default one
+            ScriptCompiler.compiler().cancelDelayed(id);
         }
     }
 }
@@ -1,6 +1,7 @@
 package com.saicone.mcode.bungee.lang;
 
 import com.saicone.mcode.module.lang.AbstractLang;
+import com.saicone.mcode.module.lang.LangSnapshot;
 import com.saicone.mcode.module.lang.display.ActionBarDisplay;
 import com.saicone.mcode.module.lang.display.TextDisplay;
 import com.saicone.mcode.module.lang.display.TitleDisplay;
@@ -14,11 +15,16 @@ import net.md_5.bungee.api.chat.*;
 import net.md_5.bungee.api.chat.hover.content.Entity;
 import net.md_5.bungee.api.chat.hover.content.Item;
 import net.md_5.bungee.api.connection.ProxiedPlayer;
+import net.md_5.bungee.api.event.PlayerDisconnectEvent;
+import net.md_5.bungee.api.event.SettingsChangedEvent;
+import net.md_5.bungee.api.plugin.Listener;
 import net.md_5.bungee.api.plugin.Plugin;
 import net.md_5.bungee.config.Configuration;
 import net.md_5.bungee.config.ConfigurationProvider;
 import net.md_5.bungee.config.JsonConfiguration;
 import net.md_5.bungee.config.YamlConfiguration;
+import net.md_5.bungee.event.EventHandler;
+import net.md_5.bungee.event.EventPriority;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -28,6 +34,9 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.logging.Level;
 
 public class BungeeLang extends AbstractLang<CommandSender> {
@@ -39,6 +48,7 @@ public class BungeeLang extends AbstractLang<CommandSender> {
     private final TitleLoader title = new TitleLoader();
 
     private final Plugin plugin;
+    private transient Listener listener;
 
     public BungeeLang(@NotNull Plugin plugin, @NotNull Object... providers) {
         super(providers);
@@ -50,6 +60,43 @@ public class BungeeLang extends AbstractLang<CommandSender> {
         return plugin;
     }
 
+    @Override
+    public void load(@NotNull File langFolder) {
+        registerListener();
+        super.load(langFolder);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<LangSnapshot<CommandSender>> loadAsync(@NotNull File langFolder, @NotNull Executor executor) {
+        registerListener();
+        return super.loadAsync(langFolder, executor);
+    }
+
+    @Override
+    public void unload() {
+        if (listener != null) {
+            plugin.getProxy().getPluginManager().unregisterListener(listener);
+            listener = null;
+        }
+        super.unload();
+    }
+
+    private void registerListener() {
+        if (listener != null) {
+            return;
+        }
+        listener = new LocaleListener();
+        plugin.getProxy().getPluginManager().registerListener(plugin, listener);
+    }
+
+    @Override
+    protected @Nullable UUID getSenderId(@NotNull Object sender) {
+        if (sender instanceof ProxiedPlayer && ((ProxiedPlayer) sender).isConnected()) {
+            return ((ProxiedPlayer) sender).getUniqueId();
+        }
+        return null;
+    }
+
     @Override
     public @NotNull Locale getHolderLocale(@Nullable Object holder) {
         if (holder instanceof CommandSender) {
@@ -154,6 +201,18 @@ public class BungeeLang extends AbstractLang<CommandSender> {
         return map;
     }
 
+    public class LocaleListener implements Listener {
+        @EventHandler(priority = EventPriority.HIGHEST)
+        public void onSettingsChange(SettingsChangedEvent event) {
+            invalidateSenderLocale(event.getPlayer().getUniqueId());
+        }
+
+        @EventHandler(priority = EventPriority.HIGHEST)
+        public void onDisconnect(PlayerDisconnectEvent event) {
+            invalidateSenderLocale(event.getPlayer().getUniqueId());
+        }
+    }
+
     public static class TextLoader extends TextDisplay.Loader<CommandSender> {
         @Override
         protected void sendText(@NotNull CommandSender sender, @NotNull Text text) {
@@ -172,6 +231,14 @@ public class BungeeLang extends AbstractLang<CommandSender> {
 
         private ComponentBuilder builder = new ComponentBuilder();
 
+        @Override
+        protected int protocol(@NotNull CommandSender type) {
+            if (type instanceof ProxiedPlayer) {
+                return ((ProxiedPlayer) type).getPendingConnection().getVersion();
+            }
+            return super.protocol(type);
+        }
+
         @Override
         public void append(@NotNull String s, boolean before) {
             if (before) {
@@ -196,7 +263,7 @@ public class BungeeLang extends AbstractLang<CommandSender> {
                             builder.event(new HoverEvent(HoverEvent.Action.SHOW_TEXT, new net.md_5.bungee.api.chat.hover.content.Text(event.getString())));
                             break;
                         case SHOW_ITEM:
-                            if (type instanceof ProxiedPlayer player && player.getPendingConnection().getVersion() >= MC.V_1_20_5.protocol()) {
+                            if (type instanceof ProxiedPlayer && protocol(type) >= MC.V_1_20_5.protocol()) {
                                 final String nbt = String.format(ITEM_HOVER, event.getItemId(), event.getItemCount(), event.getItemComponents());
                                 builder.event(new HoverEvent(HoverEvent.Action.SHOW_ITEM, new BaseComponent[]{ new TextComponent(nbt) }));
                             } else {
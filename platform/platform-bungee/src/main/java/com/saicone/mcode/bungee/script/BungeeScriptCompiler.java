@@ -4,9 +4,15 @@ import com.saicone.mcode.module.script.ScriptCompiler;
 import com.saicone.mcode.util.function.ThrowableFunction;
 import net.md_5.bungee.api.CommandSender;
 import net.md_5.bungee.api.ProxyServer;
+import net.md_5.bungee.api.event.PlayerDisconnectEvent;
+import net.md_5.bungee.api.plugin.Listener;
 import net.md_5.bungee.api.plugin.Plugin;
+import net.md_5.bungee.api.scheduler.ScheduledTask;
+import net.md_5.bungee.event.EventHandler;
+import net.md_5.bungee.event.EventPriority;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiPredicate;
 import java.util.function.Predicate;
@@ -14,6 +20,7 @@ import java.util.function.Predicate;
 public class BungeeScriptCompiler extends ScriptCompiler {
 
     private final Plugin plugin;
+    private Listener listener;
 
     BungeeScriptCompiler() {
         this.plugin = null;
@@ -29,6 +36,8 @@ public class BungeeScriptCompiler extends ScriptCompiler {
             registerActions();
             registerConditions();
         }
+        this.listener = new DisconnectListener();
+        plugin.getProxy().getPluginManager().registerListener(plugin, this.listener);
     }
 
     @NotNull
@@ -36,6 +45,14 @@ public class BungeeScriptCompiler extends ScriptCompiler {
         return plugin;
     }
 
+    public void unload() {
+        if (listener != null) {
+            plugin.getProxy().getPluginManager().unregisterListener(listener);
+            listener = null;
+        }
+        cancelDelayed();
+    }
+
     protected void registerActions() {
         // empty default method
     }
@@ -58,6 +75,17 @@ public class BungeeScriptCompiler extends ScriptCompiler {
 
     @Override
     protected void run(long delay, @NotNull TimeUnit unit, @NotNull Runnable runnable) {
-        ProxyServer.getInstance().getScheduler().schedule(plugin, runnable, delay, unit);
+        final ScheduledTask task = ProxyServer.getInstance().getScheduler().schedule(plugin, runnable, delay, unit);
+        bindCancel(runnable, task::cancel);
+    }
+
+    public class DisconnectListener implements Listener {
+        @EventHandler(priority = EventPriority.HIGHEST)
+        public void onDisconnect(PlayerDisconnectEvent event) {
+            final UUID id = event.getPlayer().getUniqueId();
+            cancelDelayed(id);
+            // Scripts loaded without compiler use the default one
+            ScriptCompiler.compiler().cancelDelayed(id);
+        }
     }
 }
@@ -3,10 +3,15 @@ package com.saicone.mcode.velocity.lang;
 import com.moandjiezana.toml.Toml;
 import com.saicone.mcode.module.lang.AdventureLang;
 import com.saicone.mcode.module.lang.AbstractLang;
+import com.saicone.mcode.module.lang.LangSnapshot;
 import com.saicone.mcode.module.lang.display.TextDisplay;
 import com.saicone.mcode.util.JarIO;
 import com.saicone.mcode.velocity.VelocityPlatform;
 import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.event.PostOrder;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
+import com.velocitypowered.api.event.player.PlayerSettingsChangedEvent;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
 import org.jetbrains.annotations.Contract;
@@ -21,6 +26,8 @@ import org.spongepowered.configurate.yaml.YamlConfigurationLoader;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class VelocityLang extends AbstractLang<CommandSource> implements AdventureLang<CommandSource> {
 
@@ -50,6 +57,7 @@ public class VelocityLang extends AbstractLang<CommandSource> implements Adventu
     private final AdventureLang.TitleLoader<CommandSource> title = new AdventureLang.TitleLoader<>(this);
 
     private transient boolean useMiniMessage;
+    private transient Object listener;
 
     public VelocityLang(@NotNull Object plugin, @NotNull Logger logger, @NotNull Object... providers) {
         this(VelocityPlatform.get().getProxy(), plugin, logger, providers);
@@ -84,6 +92,43 @@ public class VelocityLang extends AbstractLang<CommandSource> implements Adventu
         return logger;
     }
 
+    @Override
+    public void load(@NotNull File langFolder) {
+        registerListener();
+        super.load(langFolder);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<LangSnapshot<CommandSource>> loadAsync(@NotNull File langFolder, @NotNull Executor executor) {
+        registerListener();
+        return super.loadAsync(langFolder, executor);
+    }
+
+    @Override
+    public void unload() {
+        if (listener != null) {
+            proxy.getEventManager().unregisterListener(plugin, listener);
+            listener = null;
+        }
+        super.unload();
+    }
+
+    private void registerListener() {
+        if (listener != null) {
+            return;
+        }
+        listener = new LocaleListener();
+        proxy.getEventManager().register(plugin, listener);
+    }
+
+    @Override
+    protected @Nullable UUID getSenderId(@NotNull Object sender) {
+        if (sender instanceof Player player && player.isActive()) {
+            return player.getUniqueId();
+        }
+        return null;
+    }
+
     @Override
     public @NotNull Locale getHolderLocale(@Nullable Object holder) {
         if (holder instanceof CommandSource) {
@@ -211,4 +256,17 @@ public class VelocityLang extends AbstractLang<CommandSource> implements Adventu
             return node.raw();
         }
     }
+
+    public class LocaleListener {
+        @Subscribe(order = PostOrder.LAST)
+        public void onSettingsChange(PlayerSettingsChangedEvent event) {
+            setSenderLocale(event.getPlayer().getUniqueId(), event.getPlayerSettings().getLocale());
+        }
+
+        @Subscribe(order = PostOrder.LAST)
+        public void onDisconnect(DisconnectEvent event) {
+            invalidateSenderLocale(event.getPlayer().getUniqueId());
+            getBossBarPool().hideTo(event.getPlayer());
+        }
+    }
 }
@@ -5,10 +5,15 @@ import com.saicone.mcode.module.script.action.ListAction;
 import com.saicone.mcode.util.function.ThrowableFunction;
 import com.saicone.mcode.velocity.VelocityPlatform;
 import com.velocitypowered.api.command.CommandSource;
+import com.velocitypowered.api.event.PostOrder;
+import com.velocitypowered.api.event.Subscribe;
+import com.velocitypowered.api.event.connection.DisconnectEvent;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.scheduler.ScheduledTask;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.function.BiPredicate;
 import java.util.function.Predicate;
@@ -17,6 +22,7 @@ public class VelocityScriptCompiler extends ScriptCompiler {
 
     private final @NotNull ProxyServer proxy;
     private final @NotNull Object plugin;
+    private Object listener;
 
     @SuppressWarnings("all")
     VelocityScriptCompiler() {
@@ -43,6 +49,8 @@ public class VelocityScriptCompiler extends ScriptCompiler {
             registerActions();
             registerConditions();
         }
+        this.listener = new DisconnectListener();
+        proxy.getEventManager().register(plugin, this.listener);
     }
 
     @NotNull
@@ -50,6 +58,14 @@ public class VelocityScriptCompiler extends ScriptCompiler {
         return plugin;
     }
 
+    public void unload() {
+        if (listener != null) {
+            proxy.getEventManager().unregisterListener(plugin, listener);
+            listener = null;
+        }
+        cancelDelayed();
+    }
+
     protected void registerActions() {
         ListAction.builder("(?i)console(command|cmd)?", String::valueOf).consumer((user, action) -> {
             for (String cmd : action.getList()) {
@@ -91,6 +107,17 @@ public class VelocityScriptCompiler extends ScriptCompiler {
 
     @Override
     protected void run(long delay, @NotNull TimeUnit unit, @NotNull Runnable runnable) {
-        proxy.getScheduler().buildTask(plugin, runnable).delay(delay, unit).schedule();
+        final ScheduledTask task = proxy.getScheduler().buildTask(plugin, runnable).delay(delay, unit).schedule();
+        bindCancel(runnable, task::cancel);
+    }
+
+    public class DisconnectListener {
+        @Subscribe(order = PostOrder.LAST)
+        public void onDisconnect(DisconnectEvent event) {
+            final UUID id = event.getPlayer().getUniqueId();
+            cancelDelayed(id);
+            // Scripts loaded without compiler use the default one
+            ScriptCompiler.compiler().cancelDelayed(id);
+        }
     }
 }